@@ -29,6 +29,8 @@ import javax.sound.sampled.UnsupportedAudioFileException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import br.com.cpqd.asr.recognizer.WavReader;
+
 public class AudioHelper {
 	
 	private static Logger logger = LoggerFactory.getLogger(AudioHelper.class.getName());
@@ -45,6 +47,13 @@ public class AudioHelper {
 	}
 	
 	public static float calculateAudioLength(File file) throws UnsupportedAudioFileException, IOException {
+		try (WavReader wav = WavReader.open(file)) {
+			if (wav.getDataLength() >= 0) {
+				return wav.getDuration();
+			}
+		} catch (IOException e) {
+			// nao e WAV: usa o Java Sound
+		}
 		AudioFileFormat aff = getAudioFileFormat(file);
 		return calculateAudioLength(getContent(file).length, aff.getFormat().getFrameSize(), aff.getFormat().getFrameRate());
 	}
@@ -96,6 +105,19 @@ public class AudioHelper {
 	 * @throws Exception
 	 */
 	public static byte[] getContent(File file) {
+		try (WavReader wav = WavReader.open(file)) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream(
+					wav.getDataLength() >= 0 ? (int) Math.min(wav.getDataLength(), Integer.MAX_VALUE) : 32768);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = wav.read(buffer, 0, buffer.length)) >= 0) {
+				content.write(buffer, 0, read);
+			}
+			return content.toByteArray();
+		} catch (IOException e) {
+			// nao e WAV: usa o Java Sound
+		}
+
 		try {
 			AudioInputStream stream = AudioSystem.getAudioInputStream(file);
 			long sizeInBytes = stream.getFormat().getFrameSize() * stream.getFrameLength();
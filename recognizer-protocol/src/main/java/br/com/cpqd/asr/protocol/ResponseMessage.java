@@ -94,6 +94,16 @@ public class ResponseMessage extends AsrMessage {
 		parameters.putAll(headers);
 	}
 
+	/**
+	 * Returns the recognition parameters of the response (e.g. the values
+	 * returned by GET_PARAMETERS).
+	 * 
+	 * @return the parameters map.
+	 */
+	public HashMap<String, String> getRecognitionParameters() {
+		return parameters;
+	}
+
 	public String getErrorCode() {
 		return errorCode;
 	}
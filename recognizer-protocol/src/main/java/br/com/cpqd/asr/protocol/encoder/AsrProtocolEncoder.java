@@ -35,6 +35,9 @@ import org.slf4j.LoggerFactory;
 
 import br.com.cpqd.asr.protocol.AsrMessage;
 import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+import br.com.cpqd.asr.protocol.jfr.MessageDecodeEvent;
+import br.com.cpqd.asr.protocol.jfr.MessageEncodeEvent;
 
 import static br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType.SEND_AUDIO;
 
@@ -67,6 +70,11 @@ public class AsrProtocolEncoder implements Encoder.BinaryStream<AsrMessage>, Dec
 	@Override
 	public AsrMessage decode(InputStream is) throws DecodeException, IOException {
 
+		MessageDecodeEvent event = JfrSupport.AVAILABLE ? new MessageDecodeEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+
 		StringBuffer stb = new StringBuffer();
 		AsrMessageType messageType = null;
 		byte[] content = null;
@@ -153,12 +161,24 @@ public class AsrProtocolEncoder implements Encoder.BinaryStream<AsrMessage>, Dec
 		if (message == null) {
 			throw new DecodeException(messageType.toString(), "Invalid message type");
 		}
+
+		if (event != null && event.shouldCommit()) {
+			event.messageType = messageType.name();
+			event.handle = message.getHandle();
+			event.bytes = buf.length;
+			event.commit();
+		}
 		return message;
 	}
 
 	@Override
 	public void encode(AsrMessage message, OutputStream os) throws IOException {
 
+		MessageEncodeEvent event = JfrSupport.AVAILABLE ? new MessageEncodeEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+
 		// primeira linha do protocolo
 		String protocol = new String(PROTOCOL_NAME + " " +
 				Optional.ofNullable(message.getProtocolVersion()).orElse(PROTOCOL_MAJOR_VERSION + "." + PROTOCOL_MINOR_VERSION) +
@@ -181,8 +201,9 @@ public class AsrProtocolEncoder implements Encoder.BinaryStream<AsrMessage>, Dec
 		// linha em branco para finalizar a parte dos headers
 		protocol += CRLF;
 
+		byte[] header = protocol.getBytes();
 		try {
-			os.write(protocol.getBytes());
+			os.write(header);
 
 			// escreve o body content
 			if (message.getContent() != null) {
@@ -192,6 +213,14 @@ public class AsrProtocolEncoder implements Encoder.BinaryStream<AsrMessage>, Dec
 		} finally {
 			os.close();
 		}
+
+		if (event != null && event.shouldCommit()) {
+			event.messageType = message.getmType().name();
+			event.handle = message.getHandle();
+			event.bytes = header.length + (message.getContent() != null ? message.getContentLength() : 0);
+			event.commit();
+		}
+
 		if (logger.isDebugEnabled()) {
 			logger.debug("Message sent: " + protocol +
 					(message.getmType() != SEND_AUDIO && message.getContent() != null ?
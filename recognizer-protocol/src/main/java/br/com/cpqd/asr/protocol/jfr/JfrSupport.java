@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.protocol.jfr;
+
+/**
+ * Detects if the Java Flight Recorder API is available in the running JVM.
+ *
+ * The SDK targets Java 8, and older Java 8 runtimes do not ship the
+ * 'jdk.jfr' package. Every event class extends 'jdk.jfr.Event', so they must
+ * only be instantiated after checking the {@link #AVAILABLE} flag.
+ *
+ * The events can be turned off altogether with the system property
+ * '-Dasr.jfr.enabled=false'.
+ *
+ */
+public final class JfrSupport {
+
+	/** Event category used by all the SDK events. */
+	public static final String CATEGORY = "CPqD ASR";
+
+	/** True if the JFR API can be used. */
+	public static final boolean AVAILABLE = detect();
+
+	private JfrSupport() {
+	}
+
+	private static boolean detect() {
+		if ("false".equalsIgnoreCase(System.getProperty("asr.jfr.enabled"))) {
+			return false;
+		}
+		try {
+			Class.forName("jdk.jfr.Event", false, JfrSupport.class.getClassLoader());
+			return true;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+}
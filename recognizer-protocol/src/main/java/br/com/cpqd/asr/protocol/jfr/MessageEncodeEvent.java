@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.protocol.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an ASR message written to the websocket.
+ *
+ */
+@Name("br.com.cpqd.asr.MessageEncode")
+@Label("ASR Message Encode")
+@Category({ JfrSupport.CATEGORY, "Protocol" })
+@Description("Encoding of an ASR protocol message")
+@StackTrace(false)
+public class MessageEncodeEvent extends jdk.jfr.Event {
+
+	@Label("Message Type")
+	public String messageType;
+
+	@Label("Handle")
+	public long handle;
+
+	@Label("Size")
+	@DataAmount
+	public int bytes;
+
+}
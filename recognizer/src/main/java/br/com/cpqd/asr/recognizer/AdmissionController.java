@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+
+/**
+ * Limits the number of concurrent sessions of the client with a server. The
+ * requests over the limit wait in a bounded queue, until a session is released
+ * or their deadline expires. Interactive requests are served before the batch
+ * ones, in arrival order.
+ *
+ * A request is rejected immediately if the queue is full or if the expected
+ * wait, estimated from the average session duration, exceeds its deadline. An
+ * interactive request takes the place of the last batch request of a full
+ * queue.
+ *
+ * The controllers are shared by server and removed when they have no sessions
+ * or waiting requests. If the sessions with a server are configured with
+ * different limits, the smallest ones apply.
+ *
+ */
+class AdmissionController {
+
+	/** The controllers by server. */
+	private static final Map<Object, AdmissionController> controllers = new HashMap<>();
+
+	/** Weight of the last sample in the session duration moving average. */
+	private static final double DURATION_ALPHA = 0.2;
+
+	private int maxSessions;
+
+	private int queueSize;
+
+	/** The server of a shared controller (null = not shared). */
+	private final Object server;
+
+	/** Number of sessions and requests using a shared controller (guarded by controllers). */
+	private int references;
+
+	/** Number of open sessions. */
+	private int sessions;
+
+	/** A waiting request. */
+	private static class Request {
+
+		private final RecognitionPriority priority;
+
+		/** True if the request lost its place to an interactive one. */
+		private boolean rejected;
+
+		Request(RecognitionPriority priority) {
+			this.priority = priority;
+		}
+	}
+
+	/** The waiting requests, in arrival order. */
+	private final List<Request> queue = new ArrayList<>();
+
+	/** Moving average of the session duration (ms, 0 = unknown). */
+	private double duration;
+
+	/** Start time of the open sessions. */
+	private final Deque<Long> starts = new ArrayDeque<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSessions
+	 *            the maximum number of concurrent sessions.
+	 * @param queueSize
+	 *            the maximum number of waiting requests.
+	 */
+	AdmissionController(int maxSessions, int queueSize) {
+		this(null, maxSessions, queueSize);
+	}
+
+	private AdmissionController(Object server, int maxSessions, int queueSize) {
+		this.server = server;
+		this.maxSessions = maxSessions;
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * Returns the controller shared by the sessions with a server, lowering its
+	 * limits if the given ones are smaller. The controller must be used for a
+	 * single request: it is removed when every request failed or released its
+	 * session.
+	 *
+	 * @param server
+	 *            the server URI.
+	 * @param maxSessions
+	 *            the maximum number of concurrent sessions.
+	 * @param queueSize
+	 *            the maximum number of waiting requests.
+	 * @return the admission controller.
+	 */
+	static AdmissionController get(Object server, int maxSessions, int queueSize) {
+		AdmissionController controller;
+		synchronized (controllers) {
+			controller = controllers.computeIfAbsent(server,
+					k -> new AdmissionController(server, maxSessions, queueSize));
+			controller.references++;
+		}
+		controller.restrict(maxSessions, queueSize);
+		return controller;
+	}
+
+	/**
+	 * Applies the smallest limits.
+	 */
+	private synchronized void restrict(int maxSessions, int queueSize) {
+		if (maxSessions < this.maxSessions || queueSize < this.queueSize) {
+			this.maxSessions = Math.min(this.maxSessions, maxSessions);
+			this.queueSize = Math.min(this.queueSize, queueSize);
+		}
+	}
+
+	/**
+	 * Removes a shared controller no longer used.
+	 */
+	private void dereference() {
+		if (server != null) {
+			synchronized (controllers) {
+				if (--references == 0) {
+					controllers.remove(server);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for a free session slot, with interactive priority.
+	 *
+	 * @param timeoutMillis
+	 *            the deadline of the request (ms).
+	 * @throws RecognitionException
+	 *             (OVERLOADED) if the slot is not available before the deadline.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	void acquire(long timeoutMillis) throws RecognitionException, InterruptedException {
+		acquire(timeoutMillis, RecognitionPriority.INTERACTIVE);
+	}
+
+	/**
+	 * Waits for a free session slot.
+	 *
+	 * @param timeoutMillis
+	 *            the deadline of the request (ms).
+	 * @param priority
+	 *            the priority of the request.
+	 * @throws RecognitionException
+	 *             (OVERLOADED) if the slot is not available before the deadline.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	void acquire(long timeoutMillis, RecognitionPriority priority) throws RecognitionException, InterruptedException {
+		boolean success = false;
+		try {
+			admit(timeoutMillis, priority);
+			success = true;
+		} finally {
+			if (!success) {
+				dereference();
+			}
+		}
+	}
+
+	private synchronized void admit(long timeoutMillis, RecognitionPriority priority)
+			throws RecognitionException, InterruptedException {
+		if (sessions < maxSessions && queue.isEmpty()) {
+			admitted();
+			return;
+		}
+
+		if (queue.size() >= queueSize && !(priority == RecognitionPriority.INTERACTIVE && displaceBatch())) {
+			throw new RecognitionException(RecognitionErrorCode.OVERLOADED,
+					"Session limit reached (" + maxSessions + " sessions, " + queue.size() + " waiting)");
+		}
+
+		// espera estimada: sessoes a frente divididas pelo numero de vagas
+		long ahead = queue.stream().filter(r -> r.priority.compareTo(priority) <= 0).count();
+		long expected = (long) (duration * (ahead + 1) / maxSessions);
+		if (expected > timeoutMillis) {
+			throw new RecognitionException(RecognitionErrorCode.OVERLOADED,
+					"Session limit reached (expected wait " + expected + " ms)");
+		}
+
+		Request request = new Request(priority);
+		queue.add(request);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		try {
+			while (sessions >= maxSessions || next() != request) {
+				if (request.rejected) {
+					throw new RecognitionException(RecognitionErrorCode.OVERLOADED,
+							"Session limit reached (request displaced by an interactive one)");
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new RecognitionException(RecognitionErrorCode.OVERLOADED,
+							"Timeout waiting for a session slot (" + timeoutMillis + " ms)");
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+			admitted();
+		} finally {
+			queue.remove(request);
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Releases a session slot.
+	 */
+	void release() {
+		boolean released = false;
+		synchronized (this) {
+			if (sessions > 0) {
+				sessions--;
+				released = true;
+				Long start = starts.poll();
+				if (start != null) {
+					// a ordem de encerramento e aproximada: so a media e usada
+					long sample = System.currentTimeMillis() - start;
+					duration = duration == 0 ? sample : DURATION_ALPHA * sample + (1 - DURATION_ALPHA) * duration;
+				}
+			}
+			notifyAll();
+		}
+		if (released) {
+			dereference();
+		}
+	}
+
+	/**
+	 * @return the number of open sessions.
+	 */
+	synchronized int getSessions() {
+		return sessions;
+	}
+
+	/**
+	 * @return the number of waiting requests.
+	 */
+	synchronized int getWaiting() {
+		return queue.size();
+	}
+
+	/**
+	 * Returns the next request to be served: the first interactive one, or the
+	 * first batch one.
+	 */
+	private Request next() {
+		for (Request request : queue) {
+			if (request.priority == RecognitionPriority.INTERACTIVE) {
+				return request;
+			}
+		}
+		return queue.isEmpty() ? null : queue.get(0);
+	}
+
+	/**
+	 * Rejects the last batch request of the queue.
+	 *
+	 * @return true if a request was rejected.
+	 */
+	private boolean displaceBatch() {
+		for (int i = queue.size() - 1; i >= 0; i--) {
+			Request request = queue.get(i);
+			if (request.priority == RecognitionPriority.BATCH) {
+				request.rejected = true;
+				queue.remove(i);
+				notifyAll();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void admitted() {
+		sessions++;
+		starts.add(System.currentTimeMillis());
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+/**
+ * Recognizes audio with a result cache in front of the server. Byte-identical
+ * audio, recognized with the same language model and parameters, in the same
+ * servers (e.g. test calls, reprocessed batches), is served from the cache
+ * without contacting the server.
+ *
+ * The audio is read into memory before the recognition, so this recognizer is
+ * meant for short utterances and files, not for live audio. The listeners of
+ * the builder are notified only on a cache miss. Only the results that depend
+ * on the audio alone (RECOGNIZED, NO_MATCH and NO_SPEECH) are cached.
+ *
+ */
+public class CachingSpeechRecognizer implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(CachingSpeechRecognizer.class.getName());
+
+	/** The result codes that are cached. */
+	private static final Set<RecognitionResultCode> CACHEABLE = EnumSet.of(RecognitionResultCode.RECOGNIZED,
+			RecognitionResultCode.NO_MATCH, RecognitionResultCode.NO_SPEECH);
+
+	private final SpeechRecognizer.Builder builder;
+
+	private final RecognitionCache cache;
+
+	/** The recognizer, created on the first cache miss. */
+	private SpeechRecognizer recognizer;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param builder
+	 *            the builder of the recognizer.
+	 * @param cache
+	 *            the result cache, which may be shared by many recognizers.
+	 */
+	public CachingSpeechRecognizer(SpeechRecognizer.Builder builder, RecognitionCache cache) {
+		this.builder = builder;
+		this.cache = cache;
+	}
+
+	/**
+	 * Recognizes the audio, or returns the cached results of the same audio. Only
+	 * one recognition may run at a time. The audio source is closed.
+	 *
+	 * @param audio
+	 *            the audio source.
+	 * @param lmList
+	 *            the language model to use.
+	 * @param config
+	 *            recognition configuration parameters, or null.
+	 * @return the recognition results.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the recognition fails.
+	 */
+	public synchronized List<RecognitionResult> recognize(AudioSource audio, LanguageModelList lmList,
+			RecognitionConfig config) throws IOException, RecognitionException {
+		RecognitionCache.Key key = new RecognitionCache.Key(audio.getContentType()).configuration(builder);
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		try {
+			int read;
+			while ((read = audio.read(buffer)) >= 0) {
+				key.audio(buffer, read);
+				data.write(buffer, 0, read);
+			}
+		} finally {
+			audio.close();
+		}
+
+		String id = key.build(lmList, config);
+		List<RecognitionResult> results = cache.get(id);
+		if (results != null) {
+			logger.debug("Cache hit {} ({} bytes)", id, data.size());
+			return results;
+		}
+
+		if (recognizer == null) {
+			try {
+				recognizer = builder.build();
+			} catch (URISyntaxException e) {
+				throw new IOException(e);
+			}
+		}
+
+		recognizer.recognize(
+				new InputStreamAudioSource(new ByteArrayInputStream(data.toByteArray()), audio.getContentType()),
+				lmList, config);
+		results = recognizer.waitRecognitionResult();
+
+		if (results != null && !results.isEmpty()
+				&& results.stream().allMatch(r -> CACHEABLE.contains(r.getResultCode()))) {
+			cache.put(id, results);
+		}
+		return results;
+	}
+
+	/**
+	 * @return the result cache.
+	 */
+	public RecognitionCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (recognizer != null) {
+			recognizer.close();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.protocol.AsrMessage;
+import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
+import br.com.cpqd.asr.protocol.LanguageModel;
+import br.com.cpqd.asr.protocol.RecogWord;
+import br.com.cpqd.asr.protocol.RecognitionAlternative;
+import br.com.cpqd.asr.protocol.RecognitionResult;
+import br.com.cpqd.asr.protocol.RecognitionResultMessage;
+import br.com.cpqd.asr.protocol.RecognitionStatus;
+import br.com.cpqd.asr.protocol.ResponseMessage;
+import br.com.cpqd.asr.protocol.ResponseMessage.Result;
+import br.com.cpqd.asr.protocol.SendAudio;
+import br.com.cpqd.asr.protocol.SessionStatus;
+import br.com.cpqd.asr.protocol.StartRecognition;
+import br.com.cpqd.asr.protocol.encoder.AsrProtocolEncoder;
+
+/**
+ * Runs the message encode/decode and audio codec paths with synthetic data, so
+ * they are compiled by the JIT before the first recognition. Should be called
+ * at the application startup.
+ *
+ */
+public final class CodecWarmup {
+
+	private static Logger logger = LoggerFactory.getLogger(CodecWarmup.class.getName());
+
+	/** Default number of iterations (above the usual JIT compile threshold). */
+	public static final int DEFAULT_ITERATIONS = 12000;
+
+	private CodecWarmup() {
+	}
+
+	/**
+	 * Runs the warm-up with the default number of iterations.
+	 *
+	 * @return the number of messages encoded and decoded.
+	 */
+	public static int run() {
+		return run(DEFAULT_ITERATIONS);
+	}
+
+	/**
+	 * Runs the warm-up. Errors are logged and do not propagate.
+	 *
+	 * @param iterations
+	 *            the number of iterations.
+	 * @return the number of messages encoded and decoded.
+	 */
+	public static int run(int iterations) {
+		long start = System.currentTimeMillis();
+		int count = 0;
+		try {
+			AsrProtocolEncoder encoder = new AsrProtocolEncoder();
+			List<AsrMessage> messages = messages();
+			byte[] pcm = new byte[320];
+			byte[] encoded = new byte[160];
+			for (int i = 0; i < iterations; i++) {
+				for (AsrMessage message : messages) {
+					ByteArrayOutputStream os = new ByteArrayOutputStream();
+					encoder.encode(message, os);
+					encoder.decode(new ByteArrayInputStream(os.toByteArray()));
+					count++;
+				}
+
+				G711.Law law = (i & 1) == 0 ? G711.Law.ULAW : G711.Law.ALAW;
+				G711.encode(law, pcm, 0, encoded.length, encoded, 0);
+				G711.decode(law, encoded, 0, encoded.length, pcm, 0);
+			}
+		} catch (Exception e) {
+			logger.warn("Error in codec warm-up: {}", e.getMessage());
+		}
+
+		logger.debug("Codec warm-up: {} messages in {} ms", count, System.currentTimeMillis() - start);
+		return count;
+	}
+
+	/**
+	 * Returns the messages of a typical recognition.
+	 */
+	private static List<AsrMessage> messages() throws Exception {
+		StartRecognition start = new StartRecognition();
+		start.setHandle(1L);
+		start.setLanguageModel(new LanguageModel(new String[] { "builtin:slm/general" }));
+
+		SendAudio audio = new SendAudio();
+		audio.setHandle(1L);
+		audio.setContent(new byte[4000]);
+		audio.setContentLength(4000);
+		audio.setContentType(AudioSource.AUDIO_TYPE_DETECT);
+		audio.setLastPacket(false);
+
+		ResponseMessage response = new ResponseMessage(AsrMessageType.START_RECOGNITION, Result.SUCCESS, 1L,
+				SessionStatus.LISTENING);
+
+		RecogWord word = new RecogWord();
+		word.setText("teste");
+		word.setConfidence(90);
+		word.setStartTime(0.5f);
+		word.setEndTime(1.0f);
+		RecognitionAlternative alternative = new RecognitionAlternative();
+		alternative.setText("teste");
+		alternative.setConfidence(90);
+		alternative.setLm("builtin:slm/general");
+		alternative.getWords().add(word);
+		RecognitionResult result = new RecognitionResult();
+		result.setRecognitionStatus(RecognitionStatus.RECOGNIZED);
+		result.setSegmentIndex(0);
+		result.setLastSegment(true);
+		result.setFinalResult(true);
+		result.setStartTime(0.5f);
+		result.setEndTime(1.0f);
+		result.getAlternatives().add(alternative);
+		RecognitionResultMessage resultMessage = new RecognitionResultMessage();
+		resultMessage.setHandle(1L);
+		resultMessage.setSessionStatus(SessionStatus.IDLE);
+		resultMessage.setRecognitionStatus(RecognitionStatus.RECOGNIZED);
+		resultMessage.setRecognitionResult(result);
+
+		return Arrays.asList(start, audio, response, resultMessage);
+	}
+}
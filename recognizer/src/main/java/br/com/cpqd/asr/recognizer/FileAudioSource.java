@@ -31,6 +31,15 @@ public class FileAudioSource implements AudioSource {
 
 	private InputStream inputStream;
 
+	/** The WAV file reader, if the audio is decoded. */
+	private WavReader wav;
+
+	/** The companding law of a G.711 WAV file, decoded to Linear PCM. */
+	private G711.Law law;
+
+	/** Buffer for the G.711 audio. */
+	private byte[] encoded = new byte[0];
+
 	private String fileName;
 
 	private boolean finished = false;
@@ -65,6 +74,8 @@ public class FileAudioSource implements AudioSource {
 	 *
 	 * @param file File to be read
 	 * @param decodeAudio 'true' if audio must be converted to RAW before sending.
+	 * WAV files are read with {@link WavReader} (Linear PCM 16 bits mono, or
+	 * G.711 decoded to Linear PCM); other formats use the Java Sound API.
 	 * @param contentType The output audio format (if decodeAudio = 'false', not converted).
 	 *
 	 * @throws IOException
@@ -73,15 +84,40 @@ public class FileAudioSource implements AudioSource {
 		this.fileName = file.getName();
 		this.contentType = decodeAudio ? AudioSource.AUDIO_TYPE_RAW : contentType;
 
+		if (!decodeAudio) {
+			this.inputStream = new FileInputStream(file);
+			return;
+		}
+
 		try {
-			if (decodeAudio) {
+			this.wav = WavReader.open(file);
+		} catch (IOException e) {
+			// nao e um arquivo WAV: tenta os provedores do Java Sound
+			try {
 				this.inputStream = AudioSystem.getAudioInputStream(file);
-			} else {
-				this.inputStream = new FileInputStream(file);
+				return;
+			} catch (UnsupportedAudioFileException e1) {
+				throw new IOException(e);
 			}
-		} catch (UnsupportedAudioFileException e) {
-			throw new IOException(e);
 		}
+
+		if ((wav.getEncoding() == WavReader.Encoding.ALAW || wav.getEncoding() == WavReader.Encoding.ULAW)
+				&& wav.getChannels() == 1) {
+			this.law = wav.getEncoding() == WavReader.Encoding.ALAW ? G711.Law.ALAW : G711.Law.ULAW;
+		} else if (!wav.isRawCompatible()) {
+			String format = wav.getEncoding() + " " + wav.getBitsPerSample() + " bits, " + wav.getChannels()
+					+ " channels";
+			wav.close();
+			throw new IOException("Unsupported WAV format (" + format + "): " + fileName);
+		}
+	}
+
+	/**
+	 * @return the WAV file reader (format metadata), or null if the audio is not
+	 *         decoded by the WAV reader.
+	 */
+	public WavReader getWavReader() {
+		return wav;
 	}
 
 	@Override
@@ -92,12 +128,31 @@ public class FileAudioSource implements AudioSource {
 	@Override
 	public int read(byte[] b) throws IOException, NullPointerException {
 		if (finished) return -1;
-		return inputStream.read(b, 0, b.length);
+		if (wav == null) {
+			return inputStream.read(b, 0, b.length);
+		} else if (law == null) {
+			return wav.read(b, 0, b.length);
+		}
+
+		// G.711: cada byte codificado gera 2 bytes de PCM
+		if (encoded.length != b.length / 2) {
+			encoded = new byte[b.length / 2];
+		}
+		int read = wav.read(encoded, 0, encoded.length);
+		if (read > 0) {
+			G711.decode(law, encoded, 0, read, b, 0);
+			return read * 2;
+		}
+		return read;
 	}
 
 	@Override
 	public void close() throws IOException {
-		inputStream.close();
+		if (wav != null) {
+			wav.close();
+		} else {
+			inputStream.close();
+		}
 	}
 
 	@Override
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * AudioSource implementation for FLAC files and streams. The audio is decoded
+ * frame by frame as it is read, with no temporary file, and delivered as
+ * Linear PCM (signed 16 bits, little endian, mono): the channels are averaged
+ * and samples of other sizes are scaled to 16 bits.
+ *
+ * The server accepts 8 kHz and 16 kHz audio; audio with other sample rates
+ * should be converted with {@link ResamplingAudioSource}. In batch mode, the
+ * frames may be decoded by many threads, while the reading thread only splits
+ * the stream in frames.
+ *
+ */
+public class FlacAudioSource implements AudioSource {
+
+	private final InputStream inputStream;
+
+	private final FlacDecoder decoder;
+
+	private final String name;
+
+	/** Decodes the frames in batch mode, or null. */
+	private final ExecutorService executor;
+
+	/** The number of frames being decoded in batch mode. */
+	private final int framesAhead;
+
+	/** The frames being decoded, in stream order. */
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+	/** The PCM audio of the current frame. */
+	private byte[] pcm = new byte[0];
+	private int pcmPos;
+
+	private boolean endOfStream;
+
+	private boolean finished = false;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param file
+	 *            the FLAC file.
+	 * @throws IOException
+	 *             if an I/O error occurs or the file is not a FLAC file.
+	 */
+	public FlacAudioSource(File file) throws IOException {
+		this(file, 1);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param file
+	 *            the FLAC file.
+	 * @param threads
+	 *            the number of threads decoding the frames (1 = the reading
+	 *            thread decodes the frames).
+	 * @throws IOException
+	 *             if an I/O error occurs or the file is not a FLAC file.
+	 */
+	public FlacAudioSource(File file, int threads) throws IOException {
+		this(new BufferedInputStream(new FileInputStream(file), 64 * 1024), threads, file.getName());
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param is
+	 *            the FLAC stream.
+	 * @param threads
+	 *            the number of threads decoding the frames (1 = the reading
+	 *            thread decodes the frames).
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is not a FLAC stream.
+	 */
+	public FlacAudioSource(InputStream is, int threads) throws IOException {
+		this(is, threads, "stream");
+	}
+
+	private FlacAudioSource(InputStream is, int threads, String name) throws IOException {
+		this.inputStream = is;
+		this.name = name;
+		try {
+			this.decoder = new FlacDecoder(is);
+		} catch (IOException e) {
+			is.close();
+			throw e;
+		}
+
+		if (threads > 1) {
+			this.executor = Executors.newFixedThreadPool(threads, r -> {
+				Thread thread = new Thread(r, "asr-flac-decoder");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.framesAhead = threads * 2;
+		} else {
+			this.executor = null;
+			this.framesAhead = 0;
+		}
+	}
+
+	/**
+	 * @return the decoder, with the stream metadata (sample rate, channels, bits
+	 *         per sample and number of samples).
+	 */
+	public FlacDecoder getDecoder() {
+		return decoder;
+	}
+
+	@Override
+	public String getContentType() {
+		return AudioSource.AUDIO_TYPE_RAW;
+	}
+
+	@Override
+	public int read(byte[] b) throws IOException, NullPointerException {
+		if (finished) return -1;
+
+		while (pcmPos == pcm.length) {
+			byte[] next = nextFrame();
+			if (next == null) {
+				return -1;
+			}
+			pcm = next;
+			pcmPos = 0;
+		}
+
+		int len = Math.min(b.length, pcm.length - pcmPos);
+		System.arraycopy(pcm, pcmPos, b, 0, len);
+		pcmPos += len;
+		return len;
+	}
+
+	/**
+	 * @return the PCM audio of the next frame, or null at the end of the stream.
+	 */
+	private byte[] nextFrame() throws IOException {
+		if (executor == null) {
+			byte[] frame = decoder.readFrame();
+			return frame != null ? toPcm(decoder.decodeFrame(frame)) : null;
+		}
+
+		// mantem alguns quadros sendo decodificados a frente da leitura
+		while (!endOfStream && pending.size() < framesAhead) {
+			byte[] frame = decoder.readFrame();
+			if (frame == null) {
+				endOfStream = true;
+			} else {
+				pending.add(executor.submit(() -> toPcm(decoder.decodeFrame(frame))));
+			}
+		}
+
+		Future<byte[]> future = pending.poll();
+		if (future == null) {
+			return null;
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted decoding FLAC frame");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Converts the samples of a frame to Linear PCM 16 bits mono.
+	 */
+	private byte[] toPcm(int[][] samples) {
+		int channels = samples.length;
+		int blockSize = samples[0].length;
+		int bits = decoder.getBitsPerSample();
+		byte[] out = new byte[blockSize * 2];
+		for (int i = 0, j = 0; i < blockSize; i++) {
+			long sum = 0;
+			for (int c = 0; c < channels; c++) {
+				sum += samples[c][i];
+			}
+			int sample = (int) (sum / channels);
+			if (bits > 16) {
+				sample >>= bits - 16;
+			} else if (bits < 16) {
+				sample <<= 16 - bits;
+			}
+			out[j++] = (byte) sample;
+			out[j++] = (byte) (sample >> 8);
+		}
+		return out;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (executor != null) {
+			executor.shutdownNow();
+			pending.clear();
+		}
+		inputStream.close();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		finished = true;
+	}
+
+	@Override
+	public String toString() {
+		return "FlacAudioSource [" + name + "]";
+	}
+}
@@ -0,0 +1,605 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Pure Java FLAC decoder. The stream is split in frames by the reading thread
+ * ({@link #readFrame()}), and each frame is decoded independently
+ * ({@link #decodeFrame(byte[])}), so the frames of a file may be decoded by many
+ * threads.
+ *
+ * All the subframe types (constant, verbatim, fixed and LPC), the stereo
+ * decorrelation modes and wasted bits are supported. Frame boundaries are
+ * validated by the header CRC-8 and the frame CRC-16.
+ *
+ */
+public class FlacDecoder {
+
+	private static final int BLOCK_STREAMINFO = 0;
+
+	private static final int[] CRC8 = new int[256];
+	private static final int[] CRC16 = new int[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			int crc8 = i;
+			int crc16 = i << 8;
+			for (int j = 0; j < 8; j++) {
+				crc8 = (crc8 & 0x80) != 0 ? (crc8 << 1) ^ 0x07 : crc8 << 1;
+				crc16 = (crc16 & 0x8000) != 0 ? (crc16 << 1) ^ 0x8005 : crc16 << 1;
+			}
+			CRC8[i] = crc8 & 0xFF;
+			CRC16[i] = crc16 & 0xFFFF;
+		}
+	}
+
+	private final InputStream in;
+
+	private int sampleRate;
+
+	private int channels;
+
+	private int bitsPerSample;
+
+	private long totalSamples;
+
+	private int maxBlockSize;
+
+	/** Stream bytes not split in frames yet: buffer[start, end). */
+	private byte[] buffer = new byte[64 * 1024];
+	private int start;
+	private int end;
+	private boolean eof;
+
+	/**
+	 * Creates a decoder and reads the stream metadata.
+	 *
+	 * @param in
+	 *            the FLAC stream.
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is not a FLAC stream.
+	 */
+	public FlacDecoder(InputStream in) throws IOException {
+		this.in = in;
+
+		if (!fill(4) || buffer[0] != 'f' || buffer[1] != 'L' || buffer[2] != 'a' || buffer[3] != 'C') {
+			throw new IOException("Not a FLAC stream");
+		}
+		start = 4;
+
+		boolean last = false;
+		boolean streamInfo = false;
+		while (!last) {
+			if (!fill(4)) {
+				throw new EOFException("Truncated FLAC metadata");
+			}
+			last = (buffer[start] & 0x80) != 0;
+			int type = buffer[start] & 0x7F;
+			int length = ((buffer[start + 1] & 0xFF) << 16) | ((buffer[start + 2] & 0xFF) << 8)
+					| (buffer[start + 3] & 0xFF);
+			start += 4;
+			if (!fill(length)) {
+				throw new EOFException("Truncated FLAC metadata");
+			}
+
+			if (type == BLOCK_STREAMINFO) {
+				BitReader r = new BitReader(buffer, start, start + length);
+				r.readBits(16); // tamanho minimo de bloco
+				maxBlockSize = r.readBits(16);
+				r.readBits(24);
+				r.readBits(24);
+				sampleRate = r.readBits(20);
+				channels = r.readBits(3) + 1;
+				bitsPerSample = r.readBits(5) + 1;
+				totalSamples = ((long) r.readBits(4) << 32) | (r.readBits(32) & 0xFFFFFFFFL);
+				streamInfo = true;
+			}
+			// demais blocos (VORBIS_COMMENT, SEEKTABLE, PICTURE etc) sao ignorados
+			start += length;
+		}
+
+		if (!streamInfo) {
+			throw new IOException("FLAC STREAMINFO block not found");
+		}
+	}
+
+	/**
+	 * @return the sample rate (Hz).
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * @return the number of channels.
+	 */
+	public int getChannels() {
+		return channels;
+	}
+
+	/**
+	 * @return the number of bits of each sample.
+	 */
+	public int getBitsPerSample() {
+		return bitsPerSample;
+	}
+
+	/**
+	 * @return the number of samples of each channel, or 0 if unknown.
+	 */
+	public long getTotalSamples() {
+		return totalSamples;
+	}
+
+	/**
+	 * @return the maximum number of samples of a frame.
+	 */
+	public int getMaxBlockSize() {
+		return maxBlockSize;
+	}
+
+	/**
+	 * Reads the next frame of the stream, without decoding it.
+	 *
+	 * @return the frame bytes, or null at the end of the stream.
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is corrupted.
+	 */
+	public byte[] readFrame() throws IOException {
+		fill(16);
+		if (end - start < 2) {
+			return null;
+		}
+		if (headerLength(buffer, start, end) < 0) {
+			throw new IOException("Invalid FLAC frame header");
+		}
+
+		// o quadro termina no proximo cabecalho valido cujo CRC-16 confere
+		int pos = start + 2;
+		while (true) {
+			if (end - pos < 16 && !eof) {
+				int offset = pos - start;
+				fill(end - start + buffer.length / 2);
+				pos = start + offset;
+				continue;
+			}
+			if (pos + 1 >= end) {
+				return lastFrame();
+			}
+			if (buffer[pos] == (byte) 0xFF && (buffer[pos + 1] & 0xFE) == 0xF8
+					&& headerLength(buffer, pos, end) > 0 && crc16(buffer, start, pos - 2) == u16(buffer, pos - 2)) {
+				return frame(pos);
+			}
+			pos++;
+		}
+	}
+
+	/**
+	 * Returns the last frame of the stream. If there is data after the frame
+	 * (e.g. an ID3 tag), the frame ends where the CRC-16 matches.
+	 */
+	private byte[] lastFrame() {
+		if (end - start < 2 || crc16(buffer, start, end - 2) != u16(buffer, end - 2)) {
+			int crc = 0;
+			for (int i = start; i < end - 2; i++) {
+				crc = ((crc << 8) ^ CRC16[((crc >> 8) ^ buffer[i]) & 0xFF]) & 0xFFFF;
+				if (i - start >= 6 && crc == u16(buffer, i + 1)) {
+					byte[] frame = frame(i + 3);
+					// descarta os dados apos o ultimo quadro
+					start = end;
+					return frame;
+				}
+			}
+		}
+		return frame(end);
+	}
+
+	private byte[] frame(int frameEnd) {
+		byte[] frame = Arrays.copyOfRange(buffer, start, frameEnd);
+		start = frameEnd;
+		return frame;
+	}
+
+	/**
+	 * Makes 'count' bytes available from 'start', reading the stream if needed.
+	 *
+	 * @return false if the stream ended before.
+	 */
+	private boolean fill(int count) throws IOException {
+		if (end - start >= count) {
+			return true;
+		}
+		if (start > 0) {
+			System.arraycopy(buffer, start, buffer, 0, end - start);
+			end -= start;
+			start = 0;
+		}
+		if (count > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(count, buffer.length * 2));
+		}
+		while (end < count && !eof) {
+			int read = in.read(buffer, end, buffer.length - end);
+			if (read < 0) {
+				eof = true;
+			} else {
+				end += read;
+			}
+		}
+		return end - start >= count;
+	}
+
+	/**
+	 * Decodes a frame. The method is thread-safe.
+	 *
+	 * @param frame
+	 *            the frame bytes (see {@link #readFrame()}).
+	 * @return the samples of each channel.
+	 * @throws IOException
+	 *             if the frame is corrupted.
+	 */
+	public int[][] decodeFrame(byte[] frame) throws IOException {
+		if (frame.length < 4 || crc16(frame, 0, frame.length - 2) != u16(frame, frame.length - 2)) {
+			throw new IOException("FLAC frame CRC error");
+		}
+
+		BitReader r = new BitReader(frame, 0, frame.length - 2);
+		r.readBits(16); // sync, reservado e estrategia de bloco
+		int blockSizeCode = r.readBits(4);
+		int sampleRateCode = r.readBits(4);
+		int assignment = r.readBits(4);
+		int sampleSizeCode = r.readBits(3);
+		r.readBits(1);
+
+		// numero do quadro ou da amostra (UTF-8)
+		int extra = utf8Extra(r.readBits(8));
+		for (int i = 0; i < extra; i++) {
+			r.readBits(8);
+		}
+
+		int blockSize;
+		if (blockSizeCode == 1) {
+			blockSize = 192;
+		} else if (blockSizeCode >= 2 && blockSizeCode <= 5) {
+			blockSize = 576 << (blockSizeCode - 2);
+		} else if (blockSizeCode == 6) {
+			blockSize = r.readBits(8) + 1;
+		} else if (blockSizeCode == 7) {
+			blockSize = r.readBits(16) + 1;
+		} else if (blockSizeCode >= 8) {
+			blockSize = 256 << (blockSizeCode - 8);
+		} else {
+			throw new IOException("Invalid FLAC block size");
+		}
+
+		if (sampleRateCode == 12) {
+			r.readBits(8);
+		} else if (sampleRateCode == 13 || sampleRateCode == 14) {
+			r.readBits(16);
+		}
+		r.readBits(8); // CRC-8
+
+		int bits = SAMPLE_SIZES[sampleSizeCode];
+		if (bits == 0) {
+			bits = bitsPerSample;
+		}
+
+		int frameChannels = assignment < 8 ? assignment + 1 : 2;
+		int[][] samples = new int[frameChannels][blockSize];
+		for (int c = 0; c < frameChannels; c++) {
+			// o canal lateral (side) tem 1 bit a mais
+			boolean side = (assignment == 8 && c == 1) || (assignment == 9 && c == 0) || (assignment == 10 && c == 1);
+			decodeSubframe(r, samples[c], blockSize, side ? bits + 1 : bits);
+		}
+
+		int[] a = frameChannels == 2 ? samples[0] : null;
+		int[] b = frameChannels == 2 ? samples[1] : null;
+		switch (assignment) {
+		case 8: // left/side
+			for (int i = 0; i < blockSize; i++) {
+				b[i] = a[i] - b[i];
+			}
+			break;
+		case 9: // side/right
+			for (int i = 0; i < blockSize; i++) {
+				a[i] += b[i];
+			}
+			break;
+		case 10: // mid/side
+			for (int i = 0; i < blockSize; i++) {
+				int mid = (a[i] << 1) | (b[i] & 1);
+				int side = b[i];
+				a[i] = (mid + side) >> 1;
+				b[i] = (mid - side) >> 1;
+			}
+			break;
+		default:
+			if (assignment > 10) {
+				throw new IOException("Invalid FLAC channel assignment: " + assignment);
+			}
+		}
+		return samples;
+	}
+
+	private static final int[] SAMPLE_SIZES = { 0, 8, 12, -1, 16, 20, 24, 32 };
+
+	private static void decodeSubframe(BitReader r, int[] out, int blockSize, int bits) throws IOException {
+		if (bits < 0) {
+			throw new IOException("Invalid FLAC sample size");
+		}
+		r.readBits(1);
+		int type = r.readBits(6);
+		int wasted = 0;
+		if (r.readBits(1) == 1) {
+			wasted = r.readUnary() + 1;
+			bits -= wasted;
+		}
+
+		if (type == 0) {
+			Arrays.fill(out, 0, blockSize, r.readSigned(bits));
+		} else if (type == 1) {
+			for (int i = 0; i < blockSize; i++) {
+				out[i] = r.readSigned(bits);
+			}
+		} else if (type >= 8 && type <= 12) {
+			int order = type - 8;
+			for (int i = 0; i < order; i++) {
+				out[i] = r.readSigned(bits);
+			}
+			readResidual(r, out, blockSize, order);
+			restoreFixed(out, blockSize, order);
+		} else if (type >= 32) {
+			int order = type - 31;
+			for (int i = 0; i < order; i++) {
+				out[i] = r.readSigned(bits);
+			}
+			int precision = r.readBits(4) + 1;
+			if (precision == 16) {
+				throw new IOException("Invalid FLAC LPC precision");
+			}
+			int shift = r.readSigned(5);
+			if (shift < 0) {
+				throw new IOException("Invalid FLAC LPC shift: " + shift);
+			}
+			int[] coefs = new int[order];
+			for (int i = 0; i < order; i++) {
+				coefs[i] = r.readSigned(precision);
+			}
+			readResidual(r, out, blockSize, order);
+			for (int i = order; i < blockSize; i++) {
+				long sum = 0;
+				for (int j = 0; j < order; j++) {
+					sum += (long) coefs[j] * out[i - 1 - j];
+				}
+				out[i] += (int) (sum >> shift);
+			}
+		} else {
+			throw new IOException("Invalid FLAC subframe type: " + type);
+		}
+
+		if (wasted > 0) {
+			for (int i = 0; i < blockSize; i++) {
+				out[i] <<= wasted;
+			}
+		}
+	}
+
+	/**
+	 * Reads the Rice coded residual into out[order, blockSize).
+	 */
+	private static void readResidual(BitReader r, int[] out, int blockSize, int order) throws IOException {
+		int method = r.readBits(2);
+		if (method > 1) {
+			throw new IOException("Invalid FLAC residual coding method");
+		}
+		int paramBits = method == 0 ? 4 : 5;
+		int escape = (1 << paramBits) - 1;
+		int partitionOrder = r.readBits(4);
+		int partitions = 1 << partitionOrder;
+		int partitionSize = blockSize >> partitionOrder;
+		if (partitionSize < order) {
+			throw new IOException("Invalid FLAC residual partition order");
+		}
+
+		int i = order;
+		for (int p = 0; p < partitions; p++) {
+			int count = p == 0 ? partitionSize - order : partitionSize;
+			int param = r.readBits(paramBits);
+			if (param == escape) {
+				int bits = r.readBits(5);
+				for (int k = 0; k < count; k++) {
+					out[i++] = bits == 0 ? 0 : r.readSigned(bits);
+				}
+			} else {
+				for (int k = 0; k < count; k++) {
+					int u = (r.readUnary() << param) | r.readBits(param);
+					out[i++] = (u >>> 1) ^ -(u & 1);
+				}
+			}
+		}
+	}
+
+	private static void restoreFixed(int[] s, int blockSize, int order) {
+		for (int i = order; i < blockSize; i++) {
+			switch (order) {
+			case 1:
+				s[i] += s[i - 1];
+				break;
+			case 2:
+				s[i] += 2 * s[i - 1] - s[i - 2];
+				break;
+			case 3:
+				s[i] += 3 * s[i - 1] - 3 * s[i - 2] + s[i - 3];
+				break;
+			case 4:
+				s[i] += 4 * s[i - 1] - 6 * s[i - 2] + 4 * s[i - 3] - s[i - 4];
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of a valid frame header at 'pos', including the CRC-8,
+	 * or -1 if there is no valid header.
+	 */
+	private static int headerLength(byte[] b, int pos, int limit) {
+		if (limit - pos < 6 || b[pos] != (byte) 0xFF || (b[pos + 1] & 0xFE) != 0xF8) {
+			return -1;
+		}
+		int blockSizeCode = (b[pos + 2] >> 4) & 0x0F;
+		int sampleRateCode = b[pos + 2] & 0x0F;
+		int assignment = (b[pos + 3] >> 4) & 0x0F;
+		int sampleSizeCode = (b[pos + 3] >> 1) & 0x07;
+		if (blockSizeCode == 0 || sampleRateCode == 15 || assignment > 10 || sampleSizeCode == 3
+				|| (b[pos + 3] & 1) != 0) {
+			return -1;
+		}
+
+		int len = 4;
+		int extra = utf8Extra(b[pos + len] & 0xFF);
+		if (extra < 0) {
+			return -1;
+		}
+		len += 1 + extra;
+		if (blockSizeCode == 6) {
+			len += 1;
+		} else if (blockSizeCode == 7) {
+			len += 2;
+		}
+		if (sampleRateCode == 12) {
+			len += 1;
+		} else if (sampleRateCode == 13 || sampleRateCode == 14) {
+			len += 2;
+		}
+		if (pos + len >= limit) {
+			return -1;
+		}
+		for (int i = 1; i <= extra; i++) {
+			if ((b[pos + 4 + i] & 0xC0) != 0x80) {
+				return -1;
+			}
+		}
+
+		int crc = 0;
+		for (int i = 0; i < len; i++) {
+			crc = CRC8[(crc ^ b[pos + i]) & 0xFF];
+		}
+		return crc == (b[pos + len] & 0xFF) ? len + 1 : -1;
+	}
+
+	/**
+	 * Returns the number of continuation bytes of the UTF-8 coded frame number,
+	 * or -1 if the first byte is invalid.
+	 */
+	private static int utf8Extra(int first) {
+		if (first < 0x80) {
+			return 0;
+		} else if (first == 0xFF || (first & 0xC0) == 0x80) {
+			return -1;
+		}
+		// numero de bits 1 iniciais, menos 1
+		return Integer.numberOfLeadingZeros(~(first << 24)) - 1;
+	}
+
+	private static int crc16(byte[] b, int from, int to) {
+		int crc = 0;
+		for (int i = from; i < to; i++) {
+			crc = ((crc << 8) ^ CRC16[((crc >> 8) ^ b[i]) & 0xFF]) & 0xFFFF;
+		}
+		return crc;
+	}
+
+	private static int u16(byte[] b, int pos) {
+		return ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+	}
+
+	/**
+	 * Reads bits (MSB first) from a byte array.
+	 */
+	private static class BitReader {
+
+		private final byte[] data;
+
+		private final int limit;
+
+		/** Position of the next byte. */
+		private int pos;
+
+		/** Bits not consumed yet, aligned to the right of 'cache'. */
+		private long cache;
+		private int cached;
+
+		BitReader(byte[] data, int offset, int limit) {
+			this.data = data;
+			this.pos = offset;
+			this.limit = limit;
+		}
+
+		/** Reads an unsigned value of up to 32 bits. */
+		int readBits(int n) throws IOException {
+			if (n == 0) {
+				return 0;
+			}
+			while (cached < n) {
+				if (pos >= limit) {
+					throw new EOFException("Truncated FLAC frame");
+				}
+				cache = (cache << 8) | (data[pos++] & 0xFF);
+				cached += 8;
+			}
+			cached -= n;
+			return (int) ((cache >>> cached) & ((1L << n) - 1));
+		}
+
+		/** Reads a signed (two's complement) value of up to 32 bits. */
+		int readSigned(int n) throws IOException {
+			if (n == 0) {
+				return 0;
+			}
+			int v = readBits(n);
+			return n == 32 ? v : (v << (32 - n)) >> (32 - n);
+		}
+
+		/** Reads the number of zero bits before the next one bit. */
+		int readUnary() throws IOException {
+			int count = 0;
+			while (true) {
+				if (cached == 0) {
+					if (pos >= limit) {
+						throw new EOFException("Truncated FLAC frame");
+					}
+					cache = data[pos++] & 0xFF;
+					cached = 8;
+				}
+				long bits = cache & ((1L << cached) - 1);
+				if (bits == 0) {
+					count += cached;
+					cached = 0;
+				} else {
+					int zeros = Long.numberOfLeadingZeros(bits) - (64 - cached);
+					cached -= zeros + 1;
+					return count + zeros;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+/**
+ * G.711 codec (ITU-T), with lookup tables for both directions. Each 16 bit
+ * linear sample is encoded as one byte, halving the audio size.
+ *
+ */
+public final class G711 {
+
+	/** The G.711 companding law. */
+	public enum Law {
+
+		/** μ-law (North America and Japan). */
+		ULAW("audio/PCMU"),
+
+		/** A-law (Europe and Latin America). */
+		ALAW("audio/PCMA");
+
+		private final String mediaType;
+
+		Law(String mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		/**
+		 * @return the audio MIME type of the encoded audio (8 kHz, mono).
+		 */
+		public String getMediaType() {
+			return mediaType;
+		}
+	}
+
+	private static final int ULAW_BIAS = 0x84;
+	private static final int ULAW_CLIP = 32635;
+
+	private static final short[] ULAW_DECODE = new short[256];
+	private static final short[] ALAW_DECODE = new short[256];
+
+	/** Encoding tables, indexed by the 16 bit sample (as unsigned). */
+	private static final byte[] ULAW_ENCODE = new byte[65536];
+	private static final byte[] ALAW_ENCODE = new byte[65536];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			ULAW_DECODE[i] = ulawDecode(i);
+			ALAW_DECODE[i] = alawDecode(i);
+		}
+		for (int i = 0; i < 65536; i++) {
+			ULAW_ENCODE[i] = ulawEncode((short) i);
+			ALAW_ENCODE[i] = alawEncode((short) i);
+		}
+	}
+
+	private G711() {
+	}
+
+	private static short ulawDecode(int code) {
+		int u = ~code & 0xff;
+		int exponent = (u >> 4) & 0x07;
+		int mantissa = u & 0x0f;
+		int sample = (((mantissa << 3) + ULAW_BIAS) << exponent) - ULAW_BIAS;
+		return (short) ((u & 0x80) != 0 ? -sample : sample);
+	}
+
+	private static byte ulawEncode(short value) {
+		int sample = value;
+		int sign = (sample >> 8) & 0x80;
+		if (sign != 0) {
+			sample = -sample;
+		}
+		if (sample > ULAW_CLIP) {
+			sample = ULAW_CLIP;
+		}
+		sample += ULAW_BIAS;
+
+		int exponent = 7;
+		for (int mask = 0x4000; (sample & mask) == 0 && exponent > 0; mask >>= 1) {
+			exponent--;
+		}
+		int mantissa = (sample >> (exponent + 3)) & 0x0f;
+		return (byte) ~(sign | (exponent << 4) | mantissa);
+	}
+
+	private static short alawDecode(int code) {
+		int a = (code ^ 0x55) & 0xff;
+		int t = (a & 0x0f) << 4;
+		int segment = (a & 0x70) >> 4;
+		if (segment == 0) {
+			t += 8;
+		} else {
+			t = (t + 0x108) << (segment - 1);
+		}
+		return (short) ((a & 0x80) != 0 ? t : -t);
+	}
+
+	private static byte alawEncode(short value) {
+		int sample = value >> 3;
+		int mask;
+		if (sample >= 0) {
+			mask = 0xd5;
+		} else {
+			mask = 0x55;
+			sample = -sample - 1;
+		}
+
+		// segmento: posicao do bit mais significativo
+		int segment = 0;
+		while (segment < 8 && sample > (0x20 << segment) - 1) {
+			segment++;
+		}
+		if (segment >= 8) {
+			return (byte) (0x7f ^ mask);
+		}
+
+		int code = segment << 4;
+		if (segment < 2) {
+			code |= (sample >> 1) & 0x0f;
+		} else {
+			code |= (sample >> segment) & 0x0f;
+		}
+		return (byte) (code ^ mask);
+	}
+
+	/**
+	 * Decodes a G.711 sample.
+	 *
+	 * @param law
+	 *            the companding law.
+	 * @param code
+	 *            the encoded sample.
+	 * @return the linear sample.
+	 */
+	public static short decode(Law law, byte code) {
+		return (law == Law.ULAW ? ULAW_DECODE : ALAW_DECODE)[code & 0xff];
+	}
+
+	/**
+	 * Encodes a linear sample.
+	 *
+	 * @param law
+	 *            the companding law.
+	 * @param sample
+	 *            the linear sample.
+	 * @return the encoded sample.
+	 */
+	public static byte encode(Law law, short sample) {
+		return (law == Law.ULAW ? ULAW_ENCODE : ALAW_ENCODE)[sample & 0xffff];
+	}
+
+	/**
+	 * Decodes G.711 audio to Linear PCM (signed 16 bits, little endian).
+	 *
+	 * @param law
+	 *            the companding law.
+	 * @param in
+	 *            the encoded audio.
+	 * @param offset
+	 *            the offset of the first encoded byte.
+	 * @param length
+	 *            the number of encoded bytes.
+	 * @param out
+	 *            the linear audio buffer (2 x length bytes from 'outOffset').
+	 * @param outOffset
+	 *            the offset of the first linear byte.
+	 */
+	public static void decode(Law law, byte[] in, int offset, int length, byte[] out, int outOffset) {
+		short[] table = law == Law.ULAW ? ULAW_DECODE : ALAW_DECODE;
+		for (int i = 0, j = outOffset; i < length; i++) {
+			short sample = table[in[offset + i] & 0xff];
+			out[j++] = (byte) sample;
+			out[j++] = (byte) (sample >> 8);
+		}
+	}
+
+	/**
+	 * Encodes Linear PCM audio (signed 16 bits, little endian) to G.711.
+	 *
+	 * @param law
+	 *            the companding law.
+	 * @param in
+	 *            the linear audio.
+	 * @param offset
+	 *            the offset of the first linear byte.
+	 * @param samples
+	 *            the number of samples.
+	 * @param out
+	 *            the encoded audio buffer ('samples' bytes from 'outOffset').
+	 * @param outOffset
+	 *            the offset of the first encoded byte.
+	 */
+	public static void encode(Law law, byte[] in, int offset, int samples, byte[] out, int outOffset) {
+		byte[] table = law == Law.ULAW ? ULAW_ENCODE : ALAW_ENCODE;
+		for (int i = 0, j = offset; i < samples; i++, j += 2) {
+			out[outOffset + i] = table[(in[j] & 0xff) | ((in[j + 1] & 0xff) << 8)];
+		}
+	}
+}
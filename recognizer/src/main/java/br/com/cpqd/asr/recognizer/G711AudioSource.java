@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+
+/**
+ * AudioSource decorator for G.711 audio (8 kHz, mono). The encoded audio is sent
+ * as is, with the G.711 media type; if the server does not accept it, the audio
+ * is decoded to Linear PCM ('audio/raw').
+ *
+ */
+public class G711AudioSource implements NegotiatedAudioSource {
+
+	private final AudioSource source;
+
+	private final G711.Law law;
+
+	/** True if the audio is decoded to Linear PCM. */
+	private volatile boolean decode;
+
+	/** Buffer for the encoded audio, reused while the read size is the same. */
+	private byte[] encoded = new byte[0];
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param source
+	 *            the source of the G.711 audio.
+	 * @param law
+	 *            the companding law.
+	 */
+	public G711AudioSource(AudioSource source, G711.Law law) {
+		this(source, law, false);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param source
+	 *            the source of the G.711 audio.
+	 * @param law
+	 *            the companding law.
+	 * @param decode
+	 *            true to always decode the audio to Linear PCM.
+	 */
+	public G711AudioSource(AudioSource source, G711.Law law, boolean decode) {
+		this.source = source;
+		this.law = law;
+		this.decode = decode;
+	}
+
+	@Override
+	public int read(byte[] b) throws IOException, NullPointerException {
+		if (!decode) {
+			return source.read(b);
+		}
+
+		int length = b.length / 2;
+		if (encoded.length != length) {
+			encoded = new byte[length];
+		}
+		int n = source.read(encoded);
+		if (n > 0) {
+			G711.decode(law, encoded, 0, n, b, 0);
+			return n * 2;
+		}
+		return n;
+	}
+
+	@Override
+	public boolean useFallbackFormat() {
+		if (decode) {
+			return false;
+		}
+		decode = true;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		source.finish();
+	}
+
+	@Override
+	public String getContentType() {
+		return decode ? AUDIO_TYPE_RAW : law.getMediaType();
+	}
+
+	@Override
+	public String toString() {
+		return "G711AudioSource [" + law + (decode ? " -> PCM" : "") + ", " + source + "]";
+	}
+
+}
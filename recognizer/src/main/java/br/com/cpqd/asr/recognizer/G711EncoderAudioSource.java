@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+
+/**
+ * AudioSource decorator that encodes RAW audio (Linear PCM, signed 16 bits,
+ * little endian, 8 kHz, mono) as G.711, halving the audio sent to the server. If
+ * the server does not accept the G.711 media type, the RAW audio is sent.
+ *
+ */
+public class G711EncoderAudioSource implements NegotiatedAudioSource {
+
+	private final AudioSource source;
+
+	private final G711.Law law;
+
+	/** True if the RAW audio is sent without encoding. */
+	private volatile boolean passthrough;
+
+	/** Buffers for the linear audio, reused while the read size is the same. */
+	private byte[] linear = new byte[0];
+	private byte[] chunk;
+
+	/** True if the last read left an incomplete sample in 'pending'. */
+	private boolean hasPending;
+	private byte pending;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param source
+	 *            the RAW audio source (8 kHz).
+	 * @param law
+	 *            the companding law.
+	 */
+	public G711EncoderAudioSource(AudioSource source, G711.Law law) {
+		if (!AUDIO_TYPE_RAW.equals(source.getContentType())) {
+			throw new IllegalArgumentException("G.711 encoding requires RAW audio");
+		}
+		this.source = source;
+		this.law = law;
+	}
+
+	@Override
+	public int read(byte[] b) throws IOException, NullPointerException {
+		if (passthrough) {
+			return source.read(b);
+		}
+
+		int size = b.length * 2;
+		if (linear.length != size) {
+			linear = new byte[size];
+			chunk = new byte[size - 1];
+		}
+
+		int total;
+		do {
+			int n = source.read(chunk);
+			if (n < 0) {
+				return -1;
+			}
+
+			// completa a amostra dividida entre duas leituras
+			int start = 0;
+			if (hasPending) {
+				linear[0] = pending;
+				hasPending = false;
+				start = 1;
+			}
+			System.arraycopy(chunk, 0, linear, start, n);
+			total = start + n;
+			if (total % 2 != 0) {
+				pending = linear[total - 1];
+				hasPending = true;
+				total--;
+			}
+		} while (total == 0);
+
+		G711.encode(law, linear, 0, total / 2, b, 0);
+		return total / 2;
+	}
+
+	@Override
+	public boolean useFallbackFormat() {
+		if (passthrough) {
+			return false;
+		}
+		passthrough = true;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		source.finish();
+	}
+
+	@Override
+	public String getContentType() {
+		return passthrough ? AUDIO_TYPE_RAW : law.getMediaType();
+	}
+
+	@Override
+	public String toString() {
+		return "G711EncoderAudioSource [PCM -> " + law + (passthrough ? " (passthrough)" : "") + ", " + source
+				+ "]";
+	}
+
+}
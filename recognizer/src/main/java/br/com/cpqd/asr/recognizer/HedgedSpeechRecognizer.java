@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+/**
+ * Recognizes short utterances (e.g. digits, CPF) with a hedge against a slow
+ * server. If the final result does not arrive within a delay, the audio is
+ * replayed to a second session and the first final result wins; the other
+ * recognition is cancelled.
+ *
+ * The audio is kept in memory during the recognition. To place the second
+ * session in another server, the builder should define many server URLs (see
+ * {@link SpeechRecognizer.Builder#serverURLs(String...)}): the balancer
+ * chooses the server with the fewest sessions. The listeners of the builder are
+ * notified by both sessions.
+ *
+ */
+public class HedgedSpeechRecognizer implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(HedgedSpeechRecognizer.class.getName());
+
+	private final SpeechRecognizer.Builder builder;
+
+	/** The delay before the second session (ms). */
+	private final int delayMillis;
+
+	/** The recognizers of the first and second sessions, created on first use. */
+	private SpeechRecognizer primary;
+	private SpeechRecognizer hedge;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "asr-hedged-recognizer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param builder
+	 *            the builder of the recognizers.
+	 * @param delayMillis
+	 *            the time waiting for the result before starting the second
+	 *            session (ms).
+	 */
+	public HedgedSpeechRecognizer(SpeechRecognizer.Builder builder, int delayMillis) {
+		this.builder = builder;
+		this.delayMillis = delayMillis;
+	}
+
+	/**
+	 * Recognizes the audio. Only one recognition may run at a time.
+	 *
+	 * @param audio
+	 *            the audio source.
+	 * @param lmList
+	 *            the language model to use.
+	 * @param config
+	 *            recognition configuration parameters.
+	 * @return the results of the first session to finish.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             if both recognitions fail.
+	 */
+	public synchronized List<RecognitionResult> recognize(AudioSource audio, LanguageModelList lmList,
+			RecognitionConfig config) throws IOException, RecognitionException {
+		if (primary == null) {
+			primary = build();
+		}
+
+		SharedAudio shared = new SharedAudio(audio);
+		executor.execute(shared);
+
+		CompletionService<List<RecognitionResult>> completion = new ExecutorCompletionService<>(executor);
+		try {
+			primary.recognize(shared.newSource(), lmList, config);
+			Future<List<RecognitionResult>> first = completion.submit(waitResult(primary));
+
+			Future<List<RecognitionResult>> done = completion.poll(delayMillis, TimeUnit.MILLISECONDS);
+			if (done != null) {
+				return done.get();
+			}
+
+			// resultado atrasado: repete o audio em outra sessao
+			if (hedge == null) {
+				hedge = build();
+			}
+			logger.debug("No result in {} ms, starting second session", delayMillis);
+			Future<List<RecognitionResult>> second;
+			try {
+				hedge.recognize(shared.newSource(), lmList, config);
+				second = completion.submit(waitResult(hedge));
+			} catch (IOException | RecognitionException e) {
+				logger.warn("Error starting second session: {}", e.getMessage());
+				return first.get();
+			}
+
+			ExecutionException error = null;
+			for (int i = 0; i < 2; i++) {
+				done = completion.take();
+				try {
+					List<RecognitionResult> results = done.get();
+					SpeechRecognizer loser = done == first ? hedge : primary;
+					logger.debug("Result from the {} session", done == first ? "first" : "second");
+					cancel(loser);
+					return results;
+				} catch (ExecutionException e) {
+					// aguarda a outra sessao
+					error = error == null ? e : error;
+				}
+			}
+			throw error;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel(primary);
+			cancel(hedge);
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Interrupted waiting for recognition result",
+					e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RecognitionException) {
+				throw (RecognitionException) e.getCause();
+			} else if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, e.getCause().getMessage(), e.getCause());
+		} finally {
+			shared.stop();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		executor.shutdownNow();
+		for (SpeechRecognizer recognizer : Arrays.asList(primary, hedge)) {
+			if (recognizer != null) {
+				recognizer.close();
+			}
+		}
+	}
+
+	private SpeechRecognizer build() throws IOException, RecognitionException {
+		try {
+			return builder.build();
+		} catch (URISyntaxException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Callable<List<RecognitionResult>> waitResult(SpeechRecognizer recognizer) {
+		return () -> recognizer.waitRecognitionResult();
+	}
+
+	/**
+	 * Cancels the recognition of the losing session.
+	 */
+	private static void cancel(SpeechRecognizer recognizer) {
+		if (recognizer != null) {
+			try {
+				recognizer.cancelRecognition();
+			} catch (Exception e) {
+				logger.warn("Error canceling recognition: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Reads the audio source into memory, so it can be read from the beginning by
+	 * each session.
+	 */
+	private static class SharedAudio implements Runnable {
+
+		private final AudioSource audio;
+
+		private byte[] data = new byte[16000];
+
+		private int length;
+
+		private boolean eof;
+
+		private volatile boolean stopped;
+
+		SharedAudio(AudioSource audio) {
+			this.audio = audio;
+		}
+
+		@Override
+		public void run() {
+			byte[] buffer = new byte[4000];
+			try {
+				int read;
+				while (!stopped && (read = audio.read(buffer)) >= 0) {
+					append(buffer, read);
+				}
+			} catch (IOException e) {
+				logger.warn("Error reading audio source: {}", e.getMessage());
+			} finally {
+				synchronized (this) {
+					eof = true;
+					notifyAll();
+				}
+				try {
+					audio.close();
+				} catch (IOException e) {
+					logger.warn("Error closing audio source: {}", e.getMessage());
+				}
+			}
+		}
+
+		private synchronized void append(byte[] b, int count) {
+			if (length + count > data.length) {
+				data = Arrays.copyOf(data, Math.max(data.length * 2, length + count));
+			}
+			System.arraycopy(b, 0, data, length, count);
+			length += count;
+			notifyAll();
+		}
+
+		/**
+		 * Stops reading the audio (a live source is finished).
+		 */
+		void stop() {
+			if (!stopped) {
+				synchronized (this) {
+					stopped = true;
+					notifyAll();
+				}
+				try {
+					audio.finish();
+				} catch (IOException e) {
+					logger.warn("Error finishing audio source: {}", e.getMessage());
+				}
+			}
+		}
+
+		/**
+		 * Returns a source that reads the audio from the beginning.
+		 */
+		AudioSource newSource() {
+			return new AudioSource() {
+
+				private int position;
+
+				private boolean finished;
+
+				@Override
+				public int read(byte[] b) throws IOException {
+					synchronized (SharedAudio.this) {
+						while (position == length && !eof && !stopped && !finished) {
+							try {
+								SharedAudio.this.wait();
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+								throw new IOException("Interrupted reading audio", e);
+							}
+						}
+						if (position == length || finished) {
+							return -1;
+						}
+						int count = Math.min(b.length, length - position);
+						System.arraycopy(data, position, b, 0, count);
+						position += count;
+						return count;
+					}
+				}
+
+				@Override
+				public void close() {
+					finish();
+				}
+
+				@Override
+				public void finish() {
+					synchronized (SharedAudio.this) {
+						finished = true;
+						SharedAudio.this.notifyAll();
+					}
+				}
+
+				@Override
+				public String getContentType() {
+					return audio.getContentType();
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+import br.com.cpqd.asr.recognizer.jfr.ListenerCallbackEvent;
+import br.com.cpqd.asr.recognizer.model.PartialRecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionError;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+/**
+ * Delivers the events of a session to the application listeners on an
+ * executor, so a slow listener does not hold the websocket I/O threads.
+ *
+ * The events are buffered in a bounded queue and delivered in order, by one
+ * executor task at a time. A batch dispatcher delivers one event per task, so
+ * it does not hold a thread shared with interactive sessions. The I/O thread
+ * never waits, as it may be shared by other sessions: when the queue is full,
+ * the overflow policy discards the oldest event (DROP_OLDEST) or the new one
+ * (FAIL). Callbacks slower than a threshold are logged.
+ *
+ */
+class ListenerDispatcher implements RecognitionListener {
+
+	private static Logger logger = LoggerFactory.getLogger(ListenerDispatcher.class.getName());
+
+	/** Maximum number of events delivered by a task, before yielding the thread. */
+	private static final int BATCH_SIZE = 64;
+
+	private final List<RecognitionListener> listeners;
+
+	private final Executor executor;
+
+	private final BlockingQueue<Runnable> events;
+
+	/** The policy applied when the event queue is full. */
+	private final OverflowPolicy overflowPolicy;
+
+	/** Number of events discarded because the queue was full. */
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/** Callbacks slower than this are logged (ns). */
+	private final long slowNanos;
+
+	/** The session handle, for logging. */
+	private final Supplier<Long> handle;
+
+	/** Maximum number of events delivered by a task of this dispatcher. */
+	private final int batchSize;
+
+	/** True while a task is scheduled or delivering events. */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listeners
+	 *            the application listeners.
+	 * @param executor
+	 *            the executor of the callbacks.
+	 * @param capacity
+	 *            the maximum number of events waiting for delivery.
+	 * @param overflowPolicy
+	 *            the policy applied when the queue is full (DROP_OLDEST or
+	 *            FAIL).
+	 * @param slowMillis
+	 *            the callback duration logged as slow (ms).
+	 * @param priority
+	 *            the priority of the session.
+	 * @param handle
+	 *            supplies the session handle.
+	 */
+	ListenerDispatcher(List<RecognitionListener> listeners, Executor executor, int capacity,
+			OverflowPolicy overflowPolicy, int slowMillis, RecognitionPriority priority, Supplier<Long> handle) {
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			throw new IllegalArgumentException("The listener queue does not support the BLOCK policy");
+		}
+		this.listeners = new ArrayList<>(listeners);
+		this.executor = executor;
+		this.events = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.overflowPolicy = overflowPolicy;
+		this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+		this.batchSize = priority == RecognitionPriority.BATCH ? 1 : BATCH_SIZE;
+		this.handle = handle;
+	}
+
+	@Override
+	public void onListening() {
+		dispatch("onListening", RecognitionListener::onListening);
+	}
+
+	@Override
+	public void onSpeechStart(Integer time) {
+		dispatch("onSpeechStart", listener -> listener.onSpeechStart(time));
+	}
+
+	@Override
+	public void onSpeechStop(Integer time) {
+		dispatch("onSpeechStop", listener -> listener.onSpeechStop(time));
+	}
+
+	@Override
+	public void onPartialRecognitionResult(PartialRecognitionResult result) {
+		dispatch("onPartialRecognitionResult", listener -> listener.onPartialRecognitionResult(result));
+	}
+
+	@Override
+	public void onRecognitionResult(RecognitionResult result) {
+		dispatch("onRecognitionResult", listener -> listener.onRecognitionResult(result));
+	}
+
+	@Override
+	public void onError(RecognitionError error) {
+		dispatch("onError", listener -> listener.onError(error));
+	}
+
+	/**
+	 * Queues an event and schedules its delivery.
+	 */
+	private void dispatch(String callback, Consumer<RecognitionListener> action) {
+		Runnable event = () -> notifyListeners(callback, action);
+		while (!events.offer(event)) {
+			droppedEvents.incrementAndGet();
+			if (overflowPolicy == OverflowPolicy.FAIL) {
+				logger.warn("[{}] Listener queue is full ({} events), event discarded ({})", handle.get(),
+						events.size(), callback);
+				break;
+			} else if (events.poll() != null) {
+				logger.warn("[{}] Listener queue is full ({} events), oldest event discarded", handle.get(),
+						events.size());
+			}
+		}
+		schedule();
+	}
+
+	/**
+	 * @return the number of events discarded because the queue was full.
+	 */
+	long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				scheduled.set(false);
+				logger.warn("[{}] Listener executor rejected the events: {}", handle.get(), e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Delivers the queued events, in order.
+	 */
+	private void drain() {
+		try {
+			Runnable event;
+			for (int i = 0; i < batchSize && (event = events.poll()) != null; i++) {
+				event.run();
+			}
+		} finally {
+			scheduled.set(false);
+			// eventos recebidos durante a entrega, ou lote incompleto
+			if (!events.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+
+	private void notifyListeners(String callback, Consumer<RecognitionListener> action) {
+		for (RecognitionListener listener : listeners) {
+			ListenerCallbackEvent event = JfrSupport.AVAILABLE ? new ListenerCallbackEvent() : null;
+			if (event != null) {
+				event.begin();
+			}
+
+			long start = System.nanoTime();
+			try {
+				action.accept(listener);
+			} catch (Exception e) {
+				logger.warn("[{}] Error notifying listener ({})", handle.get(), callback, e);
+			} finally {
+				long elapsed = System.nanoTime() - start;
+				if (elapsed > slowNanos) {
+					logger.warn("[{}] Slow listener {}: {} took {} ms", handle.get(), listener.getClass().getName(),
+							callback, TimeUnit.NANOSECONDS.toMillis(elapsed));
+				}
+				if (event != null && event.shouldCommit()) {
+					event.callback = callback;
+					event.listenerClass = listener.getClass().getName();
+					Long h = handle.get();
+					event.handle = h != null ? h : 0;
+					event.commit();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+/**
+ * Defines how a new session chooses one of the ASR servers.
+ *
+ */
+public enum LoadBalancingPolicy {
+
+	/** The server with the fewest open sessions of the client. */
+	LEAST_SESSIONS,
+
+	/**
+	 * The server with the lowest session creation latency (moving average),
+	 * weighted by its open sessions.
+	 */
+	LATENCY
+
+}
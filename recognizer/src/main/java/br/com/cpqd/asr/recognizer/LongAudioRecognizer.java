@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+import br.com.cpqd.asr.recognizer.model.Word;
+
+/**
+ * Recognizes long audio (e.g. recordings of hours) in parallel. The audio is
+ * split in chunks at silence points, which are recognized concurrently by
+ * several ASR sessions. The results are merged in the audio order, with the
+ * times relative to the beginning of the audio.
+ *
+ * Each chunk starts a little before the end of the previous one (overlap), so
+ * the recognizer has some context at the chunk boundary. A result is kept only
+ * by the chunk that owns its midpoint, removing the duplicates of the overlap.
+ *
+ * The audio must be RAW (Linear PCM, signed 16 bits, little endian, mono) and
+ * the recognition should use the continuous mode, so each chunk returns all
+ * its speech segments. The listeners of the builder are notified with the
+ * times relative to the chunk.
+ *
+ */
+public class LongAudioRecognizer implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(LongAudioRecognizer.class.getName());
+
+	/** The frame length used to find the silence points (ms). */
+	private static final int FRAME_MS = 20;
+
+	private final SpeechRecognizer.Builder builder;
+
+	private final int sessions;
+
+	private final int sampleRate;
+
+	/** The target chunk length (s). */
+	private int chunkSeconds = 60;
+
+	/** The window after the target length searched for a silence point (s). */
+	private int searchSeconds = 10;
+
+	/** The audio repeated at the beginning of the next chunk (ms). */
+	private int overlapMillis = 1000;
+
+	/** Recognizes a chunk of audio (RAW), with the times relative to the chunk. */
+	interface ChunkRecognizer {
+		List<RecognitionResult> recognize(byte[] chunk) throws Exception;
+	}
+
+	/** The recognizers, created on first use. */
+	private final BlockingQueue<SpeechRecognizer> recognizers = new LinkedBlockingQueue<>();
+	private final List<SpeechRecognizer> created = new ArrayList<>();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param builder
+	 *            the builder of the recognizers (one per session).
+	 * @param sessions
+	 *            the number of concurrent ASR sessions.
+	 * @param sampleRate
+	 *            the audio sample rate (Hz).
+	 */
+	public LongAudioRecognizer(SpeechRecognizer.Builder builder, int sessions, int sampleRate) {
+		if (sessions < 1) {
+			throw new IllegalArgumentException("Invalid number of sessions: " + sessions);
+		}
+		this.builder = builder;
+		this.sessions = sessions;
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Sets the target chunk length. The chunk is cut at the lowest energy frame
+	 * of the search window following this length.
+	 *
+	 * @param chunkSeconds
+	 *            the chunk length (default 60 s).
+	 * @param searchSeconds
+	 *            the search window length (default 10 s).
+	 */
+	public void setChunkSeconds(int chunkSeconds, int searchSeconds) {
+		this.chunkSeconds = chunkSeconds;
+		this.searchSeconds = searchSeconds;
+	}
+
+	/**
+	 * Sets the audio repeated at the beginning of the next chunk.
+	 *
+	 * @param overlapMillis
+	 *            the overlap (default 1000 ms).
+	 */
+	public void setOverlapMillis(int overlapMillis) {
+		this.overlapMillis = overlapMillis;
+	}
+
+	/**
+	 * Recognizes the audio. The audio is read by the calling thread, while the
+	 * chunks already read are recognized.
+	 *
+	 * @param audio
+	 *            the audio source (RAW).
+	 * @param lmList
+	 *            the language model to use.
+	 * @param config
+	 *            recognition configuration parameters (continuous mode).
+	 * @return the results of the whole audio, in order.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the recognition of a chunk fails.
+	 */
+	public List<RecognitionResult> recognize(AudioSource audio, LanguageModelList lmList, RecognitionConfig config)
+			throws IOException, RecognitionException {
+		return recognize(audio, chunk -> recognizeChunk(chunk, lmList, config));
+	}
+
+	/**
+	 * Splits the audio in chunks and merges the results of the chunk recognizer.
+	 *
+	 * @param audio
+	 *            the audio source (RAW).
+	 * @param chunkRecognizer
+	 *            recognizes each chunk.
+	 * @return the results of the whole audio, in order.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the recognition of a chunk fails.
+	 */
+	List<RecognitionResult> recognize(AudioSource audio, ChunkRecognizer chunkRecognizer)
+			throws IOException, RecognitionException {
+		int frameBytes = sampleRate * FRAME_MS / 1000 * 2;
+		int chunkBytes = chunkSeconds * sampleRate * 2;
+		int overlapBytes = overlapMillis * sampleRate / 1000 * 2;
+		byte[] buffer = new byte[chunkBytes + searchSeconds * sampleRate * 2];
+		byte[] read = new byte[8192];
+
+		// limita os trechos em memoria aguardando uma sessao livre
+		Semaphore pending = new Semaphore(2 * sessions);
+		ExecutorService executor = Executors.newFixedThreadPool(sessions);
+		List<Future<List<RecognitionResult>>> futures = new ArrayList<>();
+		List<long[]> bounds = new ArrayList<>();
+
+		try {
+			int length = 0;
+			long start = 0;
+			boolean eof = false;
+			int readPos = 0;
+			int readLen = 0;
+			while (true) {
+				while (length < buffer.length && !eof) {
+					if (readLen == 0) {
+						int n = audio.read(read);
+						if (n < 0) {
+							eof = true;
+							break;
+						}
+						readPos = 0;
+						readLen = n;
+					}
+					// o que nao cabe no buffer fica para o proximo trecho
+					int copy = Math.min(readLen, buffer.length - length);
+					System.arraycopy(read, readPos, buffer, length, copy);
+					length += copy;
+					readPos += copy;
+					readLen -= copy;
+				}
+				if (eof) {
+					// descarta o byte incompleto de uma amostra no final do audio
+					length &= ~1;
+				}
+				if (length == 0) {
+					break;
+				}
+
+				int cut = eof ? length : findCut(buffer, chunkBytes, length, frameBytes);
+				byte[] chunk = Arrays.copyOf(buffer, cut);
+				long chunkStart = start;
+
+				pending.acquire();
+				futures.add(executor.submit(() -> {
+					try {
+						return chunkRecognizer.recognize(chunk);
+					} finally {
+						pending.release();
+					}
+				}));
+				// bytes do audio: inicio do trecho e fim da sua parte exclusiva
+				bounds.add(new long[] { chunkStart, chunkStart + cut });
+				logger.debug("Chunk {} submitted: {} s at {} s", futures.size(), (float) cut / 2 / sampleRate,
+						(float) chunkStart / 2 / sampleRate);
+
+				if (eof && cut >= length) {
+					break;
+				}
+
+				// o proximo trecho repete o final deste
+				int next = Math.max(cut / 2, cut - overlapBytes) & ~1;
+				System.arraycopy(buffer, next, buffer, 0, length - next);
+				length -= next;
+				start += next;
+			}
+
+			return merge(futures, bounds);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Interrupted recognizing long audio", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Recognizes a chunk with a free recognizer.
+	 */
+	private List<RecognitionResult> recognizeChunk(byte[] chunk, LanguageModelList lmList,
+			RecognitionConfig config) throws Exception {
+		SpeechRecognizer recognizer = acquireRecognizer();
+		try {
+			recognizer.recognize(new InputStreamAudioSource(new ByteArrayInputStream(chunk)), lmList,
+					config);
+			return recognizer.waitRecognitionResult();
+		} finally {
+			recognizers.put(recognizer);
+		}
+	}
+
+	private SpeechRecognizer acquireRecognizer() throws URISyntaxException, IOException, RecognitionException {
+		SpeechRecognizer recognizer = recognizers.poll();
+		if (recognizer == null) {
+			synchronized (created) {
+				if (created.size() < sessions) {
+					recognizer = builder.build();
+					created.add(recognizer);
+					return recognizer;
+				}
+			}
+			try {
+				recognizer = recognizers.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Interrupted waiting for a session", e);
+			}
+		}
+		return recognizer;
+	}
+
+	/**
+	 * Merges the chunk results in order. The times are shifted by the chunk
+	 * start, and each result is kept by the chunk that owns its midpoint.
+	 */
+	private List<RecognitionResult> merge(List<Future<List<RecognitionResult>>> futures, List<long[]> bounds)
+			throws RecognitionException, InterruptedException {
+		List<RecognitionResult> merged = new ArrayList<>();
+		RecognitionResult empty = null;
+		float bytesPerSecond = sampleRate * 2f;
+
+		for (int i = 0; i < futures.size(); i++) {
+			List<RecognitionResult> results;
+			try {
+				results = futures.get(i).get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RecognitionException) {
+					throw (RecognitionException) cause;
+				}
+				throw new RecognitionException(RecognitionErrorCode.FAILURE,
+						"Error recognizing chunk " + (i + 1) + ": " + cause.getMessage(), cause);
+			}
+
+			float offset = bounds.get(i)[0] / bytesPerSecond;
+			float ownStart = i == 0 ? 0 : bounds.get(i - 1)[1] / bytesPerSecond;
+			float ownEnd = i == futures.size() - 1 ? Float.MAX_VALUE : bounds.get(i)[1] / bytesPerSecond;
+
+			for (RecognitionResult result : results) {
+				shift(result, offset);
+				if (result.getResultCode() != RecognitionResultCode.RECOGNIZED) {
+					// trechos sem fala nao entram no resultado
+					if (empty == null) {
+						empty = result;
+					}
+					continue;
+				}
+				float middle = (result.getSegmentStartTime() + result.getSegmentEndTime()) / 2;
+				if (middle >= ownStart && middle < ownEnd) {
+					merged.add(result);
+				}
+			}
+		}
+
+		if (merged.isEmpty() && empty != null) {
+			merged.add(empty);
+		}
+		for (int i = 0; i < merged.size(); i++) {
+			merged.get(i).setSpeechSegmentIndex(i);
+			merged.get(i).setLastSpeechSegment(i == merged.size() - 1);
+		}
+		return merged;
+	}
+
+	/**
+	 * Finds the cut point: the middle of the lowest energy frame after the
+	 * target length.
+	 *
+	 * @param audio
+	 *            the audio buffer.
+	 * @param from
+	 *            the target length (bytes).
+	 * @param to
+	 *            the end of the search window (bytes).
+	 * @param frameBytes
+	 *            the frame length (bytes).
+	 * @return the cut position (bytes).
+	 */
+	static int findCut(byte[] audio, int from, int to, int frameBytes) {
+		int best = to & ~1;
+		double bestEnergy = Double.MAX_VALUE;
+		for (int frame = from & ~1; frame + frameBytes <= to; frame += frameBytes) {
+			double energy = 0;
+			for (int i = frame; i < frame + frameBytes; i += 2) {
+				int sample = (short) ((audio[i] & 0xff) | (audio[i + 1] << 8));
+				energy += (double) sample * sample;
+			}
+			if (energy < bestEnergy) {
+				bestEnergy = energy;
+				best = frame + frameBytes / 2 & ~1;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Shifts the segment and word times of a result.
+	 */
+	private static void shift(RecognitionResult result, float offset) {
+		result.setSegmentStartTime(result.getSegmentStartTime() + offset);
+		result.setSegmentEndTime(result.getSegmentEndTime() + offset);
+		for (RecognitionAlternative alternative : result.getAlternatives()) {
+			for (Word word : alternative.getWords()) {
+				word.setStartTime(word.getStartTime() + offset);
+				word.setEndTime(word.getEndTime() + offset);
+			}
+		}
+	}
+
+	/**
+	 * Closes the ASR sessions.
+	 */
+	@Override
+	public void close() {
+		synchronized (created) {
+			for (SpeechRecognizer recognizer : created) {
+				try {
+					recognizer.close();
+				} catch (IOException e) {
+					logger.warn("Error closing recognizer: {}", e.getMessage());
+				}
+			}
+			created.clear();
+			recognizers.clear();
+		}
+	}
+}
@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+/**
+ * Recognizes multichannel audio (e.g. call recordings with the agent and the
+ * customer in separate channels). The interleaved audio is split in a single
+ * pass, each channel is recognized by its own ASR session, concurrently, and the
+ * results are merged in a time ordered transcript.
+ *
+ * The audio is split on demand: the session that runs out of audio reads the
+ * next block of the source and queues the samples of the other channels. A slow
+ * session does not delay the others until its backlog reaches the limit (see
+ * {@link #setMaxBacklogBytes(int)}).
+ *
+ * The audio must be RAW (Linear PCM, signed 16 bits, little endian, interleaved
+ * channels). Each channel is recognized by the recognizer of the builder with
+ * the same index; the builder channel identifier tags the results.
+ *
+ */
+public class MultiChannelRecognizer implements AutoCloseable {
+
+	private static Logger logger = LoggerFactory.getLogger(MultiChannelRecognizer.class.getName());
+
+	/** The default maximum backlog of a channel (bytes). */
+	public static final int DEFAULT_MAX_BACKLOG = 16 * 1024 * 1024;
+
+	/** A recognition result of a channel. */
+	public static class ChannelResult {
+
+		private final int channel;
+
+		private final String channelIdentifier;
+
+		private final RecognitionResult result;
+
+		ChannelResult(int channel, String channelIdentifier, RecognitionResult result) {
+			this.channel = channel;
+			this.channelIdentifier = channelIdentifier;
+			this.result = result;
+		}
+
+		/**
+		 * @return the channel index.
+		 */
+		public int getChannel() {
+			return channel;
+		}
+
+		/**
+		 * @return the channel identifier of the recognizer.
+		 */
+		public String getChannelIdentifier() {
+			return channelIdentifier;
+		}
+
+		/**
+		 * @return the recognition result.
+		 */
+		public RecognitionResult getResult() {
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + channelIdentifier + "] " + result;
+		}
+	}
+
+	private final SpeechRecognizer.Builder[] builders;
+
+	/** The recognizers, created on first use. */
+	private SpeechRecognizer[] recognizers;
+
+	/** The maximum audio of a channel waiting to be read by its session (bytes). */
+	private int maxBacklogBytes = DEFAULT_MAX_BACKLOG;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param builders
+	 *            the builder of the recognizer of each channel, in the channel
+	 *            order.
+	 */
+	public MultiChannelRecognizer(SpeechRecognizer.Builder... builders) {
+		if (builders.length == 0) {
+			throw new IllegalArgumentException("At least one channel is required");
+		}
+		this.builders = builders.clone();
+	}
+
+	/**
+	 * Sets the maximum audio of a channel waiting to be read by its session. When
+	 * a channel reaches the limit, the reading of the source waits for it.
+	 *
+	 * @param maxBacklogBytes
+	 *            the limit (bytes, default 16 MB).
+	 */
+	public void setMaxBacklogBytes(int maxBacklogBytes) {
+		this.maxBacklogBytes = maxBacklogBytes;
+	}
+
+	/**
+	 * Recognizes the audio of every channel.
+	 *
+	 * @param audio
+	 *            the interleaved RAW audio source.
+	 * @param lmList
+	 *            the language model to use.
+	 * @param config
+	 *            recognition configuration parameters (continuous mode).
+	 * @return the results of every channel, ordered by the segment start time.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the recognition of a channel fails.
+	 */
+	public List<ChannelResult> recognize(AudioSource audio, LanguageModelList lmList, RecognitionConfig config)
+			throws IOException, RecognitionException {
+		int channels = builders.length;
+		SpeechRecognizer[] recognizers = getRecognizers();
+		Demultiplexer demultiplexer = new Demultiplexer(audio, channels, maxBacklogBytes);
+
+		int started = 0;
+		try {
+			for (; started < channels; started++) {
+				recognizers[started].recognize(demultiplexer.newSource(started), lmList, config);
+			}
+		} catch (IOException | RecognitionException | RuntimeException e) {
+			// falha ao iniciar um canal: cancela os demais
+			demultiplexer.stop();
+			cancel(recognizers, 0, started, e);
+			throw e;
+		}
+
+		List<ChannelResult> transcript = new ArrayList<>();
+		for (int c = 0; c < channels; c++) {
+			String identifier = builders[c].channelIdentifier != null ? builders[c].channelIdentifier
+					: "channel " + c;
+			List<RecognitionResult> results;
+			try {
+				results = recognizers[c].waitRecognitionResult();
+			} catch (RecognitionException | RuntimeException e) {
+				demultiplexer.stop();
+				cancel(recognizers, c + 1, channels, e);
+				throw e;
+			}
+			for (RecognitionResult result : results) {
+				if (result.getResultCode() == RecognitionResultCode.RECOGNIZED) {
+					transcript.add(new ChannelResult(c, identifier, result));
+				}
+			}
+		}
+		transcript.sort(Comparator.comparingDouble(r -> r.getResult().getSegmentStartTime()));
+		return transcript;
+	}
+
+	/**
+	 * Cancels the recognition of a range of channels after a failure. The errors
+	 * are added to the original exception.
+	 */
+	private static void cancel(SpeechRecognizer[] recognizers, int from, int to, Exception failure) {
+		for (int c = from; c < to; c++) {
+			try {
+				recognizers[c].cancelRecognition();
+			} catch (Exception e) {
+				failure.addSuppressed(e);
+			}
+		}
+	}
+
+	private synchronized SpeechRecognizer[] getRecognizers() throws IOException, RecognitionException {
+		if (recognizers == null) {
+			SpeechRecognizer[] list = new SpeechRecognizer[builders.length];
+			try {
+				for (int c = 0; c < builders.length; c++) {
+					list[c] = builders[c].build();
+				}
+			} catch (URISyntaxException e) {
+				closeAll(list);
+				throw new IOException(e);
+			} catch (IOException | RecognitionException | RuntimeException e) {
+				closeAll(list);
+				throw e;
+			}
+			recognizers = list;
+		}
+		return recognizers;
+	}
+
+	private static void closeAll(SpeechRecognizer[] list) {
+		for (SpeechRecognizer recognizer : list) {
+			if (recognizer != null) {
+				try {
+					recognizer.close();
+				} catch (IOException e) {
+					logger.warn("Error closing recognizer: {}", e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes the ASR sessions.
+	 */
+	@Override
+	public synchronized void close() {
+		if (recognizers != null) {
+			closeAll(recognizers);
+			recognizers = null;
+		}
+	}
+
+	/**
+	 * Splits the interleaved audio on demand. The session that runs out of audio
+	 * reads the next block of the source, outside the lock, and the samples of
+	 * each channel are queued for its session. A channel whose source is closed
+	 * (e.g. its recognition has finished) is discarded.
+	 */
+	static class Demultiplexer {
+
+		private final AudioSource audio;
+
+		private final int channels;
+
+		private final int frameBytes;
+
+		private final int maxBacklog;
+
+		/** The block read from the source, after the incomplete frame of the last one. */
+		private final byte[] input;
+		private int carry;
+		private final byte[] read;
+
+		/** The audio of each channel waiting to be read. */
+		private final List<Deque<byte[]>> queues = new ArrayList<>();
+		private final int[] queued;
+		private final int[] headOffset;
+		private final boolean[] active;
+
+		/** True while a session is reading the source. */
+		private boolean reading;
+
+		private boolean eof;
+
+		private IOException error;
+
+		Demultiplexer(AudioSource audio, int channels, int maxBacklog) {
+			this.audio = audio;
+			this.channels = channels;
+			this.frameBytes = channels * 2;
+			this.maxBacklog = maxBacklog;
+			this.input = new byte[frameBytes * 1024];
+			this.read = new byte[input.length - frameBytes];
+			this.queued = new int[channels];
+			this.headOffset = new int[channels];
+			this.active = new boolean[channels];
+			Arrays.fill(active, true);
+			for (int c = 0; c < channels; c++) {
+				queues.add(new ArrayDeque<>());
+			}
+		}
+
+		/**
+		 * Returns the audio source of a channel (RAW, mono).
+		 */
+		AudioSource newSource(int channel) {
+			return new AudioSource() {
+
+				@Override
+				public int read(byte[] b) throws IOException {
+					return Demultiplexer.this.read(channel, b);
+				}
+
+				@Override
+				public void close() {
+					discard(channel);
+				}
+
+				@Override
+				public void finish() {
+					discard(channel);
+				}
+
+				@Override
+				public String getContentType() {
+					return AUDIO_TYPE_RAW;
+				}
+
+				@Override
+				public String toString() {
+					return "MultiChannelRecognizer [channel " + channel + "]";
+				}
+			};
+		}
+
+		/**
+		 * Discards every channel (e.g. the recognition failed).
+		 */
+		void stop() {
+			for (int c = 0; c < channels; c++) {
+				discard(c);
+			}
+		}
+
+		private synchronized void discard(int channel) {
+			if (active[channel]) {
+				active[channel] = false;
+				queues.get(channel).clear();
+				queued[channel] = 0;
+				logger.debug("Channel {} discarded", channel);
+				notifyAll();
+			}
+		}
+
+		int read(int channel, byte[] b) throws IOException {
+			while (true) {
+				synchronized (this) {
+					while (true) {
+						if (!active[channel]) {
+							return -1;
+						} else if (queued[channel] > 0) {
+							return poll(channel, b);
+						} else if (error != null) {
+							throw new IOException("Error reading audio source: " + error.getMessage(), error);
+						} else if (eof) {
+							return -1;
+						} else if (!reading && !isBacklogFull()) {
+							break;
+						}
+						// outra sessao esta lendo a fonte, ou um canal atrasado atingiu o limite
+						try {
+							wait();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new InterruptedIOException("Interrupted reading audio");
+						}
+					}
+					reading = true;
+				}
+
+				// a leitura da fonte e feita fora do lock
+				int n = -1;
+				try {
+					n = audio.read(read);
+				} catch (IOException e) {
+					synchronized (this) {
+						error = e;
+					}
+				} finally {
+					synchronized (this) {
+						reading = false;
+						if (n < 0 && error == null) {
+							eof = true;
+						} else if (n > 0) {
+							split(n);
+						}
+						notifyAll();
+					}
+				}
+				if (n == 0) {
+					return 0;
+				}
+			}
+		}
+
+		private boolean isBacklogFull() {
+			for (int c = 0; c < channels; c++) {
+				if (active[c] && queued[c] >= maxBacklog) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Copies the queued audio of a channel.
+		 */
+		private int poll(int channel, byte[] b) {
+			Deque<byte[]> queue = queues.get(channel);
+			byte[] head = queue.peek();
+			int count = Math.min(b.length, head.length - headOffset[channel]);
+			System.arraycopy(head, headOffset[channel], b, 0, count);
+			headOffset[channel] += count;
+			if (headOffset[channel] == head.length) {
+				queue.poll();
+				headOffset[channel] = 0;
+			}
+			queued[channel] -= count;
+			notifyAll();
+			return count;
+		}
+
+		/**
+		 * Splits the block read from the source, queuing the samples of each active
+		 * channel.
+		 */
+		private void split(int n) {
+			System.arraycopy(read, 0, input, carry, n);
+			int length = carry + n;
+			int frames = length / frameBytes;
+
+			if (frames > 0) {
+				for (int c = 0; c < channels; c++) {
+					if (!active[c]) {
+						continue;
+					}
+					byte[] output = new byte[frames * 2];
+					for (int f = 0, i = c * 2, o = 0; f < frames; f++, i += frameBytes) {
+						output[o++] = input[i];
+						output[o++] = input[i + 1];
+					}
+					queues.get(c).add(output);
+					queued[c] += output.length;
+				}
+			}
+
+			// guarda o quadro incompleto para a proxima leitura
+			carry = length - frames * frameBytes;
+			System.arraycopy(input, frames * frameBytes, input, 0, carry);
+		}
+	}
+}
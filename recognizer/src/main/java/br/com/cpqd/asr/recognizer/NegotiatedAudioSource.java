@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+/**
+ * Audio source that delivers a compact audio format, with a fallback format
+ * used when the server does not accept the compact one.
+ *
+ */
+public interface NegotiatedAudioSource extends AudioSource {
+
+	/**
+	 * Switches the source to the fallback audio format. Must be called before
+	 * the audio is read.
+	 *
+	 * @return false if the source is already in the fallback format.
+	 */
+	boolean useFallbackFormat();
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+/**
+ * Defines what happens when a bounded buffer of the recognizer is full.
+ *
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * The producer is blocked until there is space available in the buffer. Not
+	 * supported by the result queue, which is filled by the connection thread.
+	 */
+	BLOCK,
+
+	/** The oldest buffered items are discarded to make room for the new one. */
+	DROP_OLDEST,
+
+	/** The new item is rejected with an error. */
+	FAIL
+
+}
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.recognizer.model.PartialRecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionError;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+/**
+ * Limits the rate of partial results delivered to the application listeners of
+ * a session. A partial result received before the minimum interval replaces the
+ * pending one, which is delivered at the end of the interval; a final result
+ * discards the pending partial result of the segment.
+ *
+ * Each partial result delivered has the length of the prefix equal to the
+ * previous delivered text of the segment (cut at a word boundary), so the
+ * listener may update only the changed tail.
+ *
+ * The events are queued under the coalescer lock and delivered in order by one
+ * thread at a time, without holding the lock, so a listener may call the
+ * recognizer back.
+ *
+ */
+class PartialResultCoalescer implements RecognitionListener {
+
+	private static Logger logger = LoggerFactory.getLogger(PartialResultCoalescer.class.getName());
+
+	/** Schedules the delivery of a delayed partial result. */
+	interface Scheduler {
+		Future<?> schedule(Runnable task, long delayNanos);
+	}
+
+	private final List<RecognitionListener> listeners;
+
+	/** The minimum interval between partial results (ns). */
+	private final long intervalNanos;
+
+	/** The session handle, for logging. */
+	private final Supplier<Long> handle;
+
+	private final Scheduler scheduler;
+
+	/** The time source (ns). */
+	private final LongSupplier clock;
+
+	/** Time of the last partial result delivered. */
+	private long lastDelivery;
+
+	/** Text and segment of the last partial result delivered. */
+	private String lastText;
+	private int lastSegment = -1;
+
+	/** The partial result waiting for the end of the interval. */
+	private PartialRecognitionResult pending;
+	private Future<?> pendingTask;
+
+	/** The events waiting for delivery, in order. */
+	private final Deque<Runnable> outbox = new ArrayDeque<>();
+
+	/** True while a thread is delivering the events. */
+	private boolean draining;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listeners
+	 *            the application listeners.
+	 * @param maxPerSecond
+	 *            the maximum number of partial results per second.
+	 * @param handle
+	 *            supplies the session handle.
+	 * @param scheduler
+	 *            schedules the delayed partial results.
+	 * @param clock
+	 *            the time source (ns).
+	 */
+	PartialResultCoalescer(List<RecognitionListener> listeners, int maxPerSecond, Supplier<Long> handle,
+			Scheduler scheduler, LongSupplier clock) {
+		this.listeners = new ArrayList<>(listeners);
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxPerSecond);
+		this.handle = handle;
+		this.scheduler = scheduler;
+		this.clock = clock;
+		this.lastDelivery = clock.getAsLong() - intervalNanos;
+	}
+
+	/**
+	 * Creates the scheduler of a session. A scheduled listener executor is used
+	 * directly; otherwise the session gets its own timer, whose thread ends when
+	 * there is no partial result pending.
+	 *
+	 * @param executor
+	 *            the listener executor of the session (may be null).
+	 * @return the scheduler.
+	 */
+	static Scheduler newScheduler(Executor executor) {
+		ScheduledExecutorService timer;
+		if (executor instanceof ScheduledExecutorService) {
+			timer = (ScheduledExecutorService) executor;
+		} else {
+			ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, r -> {
+				Thread thread = new Thread(r, "asr-partial-result-timer");
+				thread.setDaemon(true);
+				return thread;
+			});
+			pool.setKeepAliveTime(1, TimeUnit.SECONDS);
+			pool.allowCoreThreadTimeOut(true);
+			pool.setRemoveOnCancelPolicy(true);
+			timer = pool;
+		}
+		return (task, delayNanos) -> timer.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void onListening() {
+		synchronized (this) {
+			discardPending();
+			lastText = null;
+			lastSegment = -1;
+			enqueue("onListening", RecognitionListener::onListening);
+		}
+		drain();
+	}
+
+	@Override
+	public void onSpeechStart(Integer time) {
+		synchronized (this) {
+			enqueue("onSpeechStart", listener -> listener.onSpeechStart(time));
+		}
+		drain();
+	}
+
+	@Override
+	public void onSpeechStop(Integer time) {
+		synchronized (this) {
+			enqueue("onSpeechStop", listener -> listener.onSpeechStop(time));
+		}
+		drain();
+	}
+
+	@Override
+	public void onPartialRecognitionResult(PartialRecognitionResult result) {
+		synchronized (this) {
+			long now = clock.getAsLong();
+			long wait = lastDelivery + intervalNanos - now;
+			if (wait <= 0 && pending == null) {
+				deliver(result, now);
+			} else {
+				// substitui o resultado pendente; o envio ja esta agendado
+				if (pending == null) {
+					pendingTask = scheduler.schedule(this::deliverPending, Math.max(0, wait));
+				}
+				pending = result;
+			}
+		}
+		drain();
+	}
+
+	@Override
+	public void onRecognitionResult(RecognitionResult result) {
+		synchronized (this) {
+			// o resultado final substitui o parcial pendente do segmento
+			discardPending();
+			lastText = null;
+			enqueue("onRecognitionResult", listener -> listener.onRecognitionResult(result));
+		}
+		drain();
+	}
+
+	@Override
+	public void onError(RecognitionError error) {
+		synchronized (this) {
+			discardPending();
+			enqueue("onError", listener -> listener.onError(error));
+		}
+		drain();
+	}
+
+	private void deliverPending() {
+		synchronized (this) {
+			PartialRecognitionResult result = pending;
+			pending = null;
+			pendingTask = null;
+			if (result != null) {
+				deliver(result, clock.getAsLong());
+			}
+		}
+		drain();
+	}
+
+	private void discardPending() {
+		if (pendingTask != null) {
+			pendingTask.cancel(false);
+			pendingTask = null;
+		}
+		pending = null;
+	}
+
+	private void deliver(PartialRecognitionResult result, long now) {
+		String text = result.getText();
+		if (lastText != null && lastSegment == result.getSpeechSegmentIndex() && text != null) {
+			result.setStableLength(stablePrefix(lastText, text));
+		}
+		lastText = text;
+		lastSegment = result.getSpeechSegmentIndex();
+		lastDelivery = now;
+		enqueue("onPartialRecognitionResult", listener -> listener.onPartialRecognitionResult(result));
+	}
+
+	/**
+	 * Queues an event. Called with the coalescer lock held.
+	 */
+	private void enqueue(String callback, Consumer<RecognitionListener> action) {
+		outbox.add(() -> notifyListeners(callback, action));
+	}
+
+	/**
+	 * Delivers the queued events, without holding the lock. If another thread is
+	 * delivering, it also delivers the events queued by this one.
+	 */
+	private void drain() {
+		synchronized (this) {
+			if (draining) {
+				return;
+			}
+			draining = true;
+		}
+		for (;;) {
+			Runnable event;
+			synchronized (this) {
+				event = outbox.poll();
+				if (event == null) {
+					draining = false;
+					return;
+				}
+			}
+			event.run();
+		}
+	}
+
+	/**
+	 * Returns the length of the common prefix of the texts, cut at the last word
+	 * boundary.
+	 *
+	 * @param previous
+	 *            the previous text.
+	 * @param text
+	 *            the new text.
+	 * @return the stable prefix length.
+	 */
+	static int stablePrefix(String previous, String text) {
+		int max = Math.min(previous.length(), text.length());
+		int common = 0;
+		while (common < max && previous.charAt(common) == text.charAt(common)) {
+			common++;
+		}
+		if ((common == text.length() || text.charAt(common) == ' ')
+				&& (common == previous.length() || previous.charAt(common) == ' ')) {
+			return common;
+		}
+		// a ultima palavra comum pode ter mudado (ex.: "cas" -> "casa")
+		while (common > 0 && text.charAt(common - 1) != ' ') {
+			common--;
+		}
+		return common;
+	}
+
+	private void notifyListeners(String callback, Consumer<RecognitionListener> action) {
+		for (RecognitionListener listener : listeners) {
+			try {
+				action.accept(listener);
+			} catch (Exception e) {
+				logger.warn("[{}] Error notifying listener ({})", handle.get(), callback, e);
+			}
+		}
+	}
+}
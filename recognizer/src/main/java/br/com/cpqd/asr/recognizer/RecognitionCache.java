@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+/**
+ * Cache of recognition results, keyed by the audio content, the language model,
+ * the recognition parameters and the configuration of the recognizer (servers
+ * and session parameters). The results are kept in memory, in least recently
+ * used order and limited by size, and optionally in a directory, so they
+ * survive the process (e.g. reprocessing runs). Each read returns a new copy of
+ * the results.
+ *
+ * The cache is thread-safe and may be shared by many recognizers. The version
+ * of the server models is not part of the key: the cache must be cleared (or a
+ * new directory used) when the models of a server are updated.
+ *
+ */
+public class RecognitionCache {
+
+	private static Logger logger = LoggerFactory.getLogger(RecognitionCache.class.getName());
+
+	private static final ObjectMapper jsonMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private static final CollectionType RESULT_LIST = jsonMapper.getTypeFactory()
+			.constructCollectionType(List.class, RecognitionResult.class);
+
+	/** The serialized results, in access order. */
+	private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** The maximum size of the serialized results in memory (bytes). */
+	private final long maxMemoryBytes;
+
+	private long memoryBytes;
+
+	/** The directory of the disk tier, or null. */
+	private final Path directory;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong diskHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a memory only cache.
+	 *
+	 * @param maxMemoryBytes
+	 *            the maximum size of the cached results in memory (bytes).
+	 */
+	public RecognitionCache(long maxMemoryBytes) {
+		this.maxMemoryBytes = maxMemoryBytes;
+		this.directory = null;
+	}
+
+	/**
+	 * Creates a cache with a disk tier. The results evicted from memory are
+	 * still read from the directory.
+	 *
+	 * @param maxMemoryBytes
+	 *            the maximum size of the cached results in memory (bytes).
+	 * @param directory
+	 *            the directory of the cached results.
+	 * @throws IOException
+	 *             if the directory cannot be created.
+	 */
+	public RecognitionCache(long maxMemoryBytes, Path directory) throws IOException {
+		this.maxMemoryBytes = maxMemoryBytes;
+		this.directory = directory;
+		Files.createDirectories(directory);
+	}
+
+	/**
+	 * Returns the cached results.
+	 *
+	 * @param key
+	 *            the cache key (see {@link Key}).
+	 * @return the results, or null if they are not in the cache.
+	 */
+	public List<RecognitionResult> get(String key) {
+		byte[] data;
+		synchronized (memory) {
+			data = memory.get(key);
+		}
+
+		if (data == null && directory != null) {
+			Path file = directory.resolve(key + ".json");
+			try {
+				if (Files.exists(file)) {
+					data = Files.readAllBytes(file);
+					diskHits.incrementAndGet();
+					putMemory(key, data);
+				}
+			} catch (IOException e) {
+				logger.warn("Error reading cached result {}: {}", file, e.getMessage());
+			}
+		}
+
+		if (data == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		try {
+			// cada chamada recebe uma copia dos resultados
+			List<RecognitionResult> results = jsonMapper.readValue(data, RESULT_LIST);
+			hits.incrementAndGet();
+			return results;
+		} catch (IOException e) {
+			logger.warn("Error decoding cached result {}: {}", key, e.getMessage());
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Adds results to the cache.
+	 *
+	 * @param key
+	 *            the cache key (see {@link Key}).
+	 * @param results
+	 *            the recognition results.
+	 */
+	public void put(String key, List<RecognitionResult> results) {
+		byte[] data;
+		try {
+			data = jsonMapper.writeValueAsBytes(results);
+		} catch (IOException e) {
+			logger.warn("Error encoding result {}: {}", key, e.getMessage());
+			return;
+		}
+
+		putMemory(key, data);
+
+		if (directory != null) {
+			Path file = directory.resolve(key + ".json");
+			try {
+				// grava em arquivo temporario para nao expor arquivo incompleto
+				Path temp = Files.createTempFile(directory, key, ".tmp");
+				Files.write(temp, data);
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				logger.warn("Error writing cached result {}: {}", file, e.getMessage());
+			}
+		}
+	}
+
+	private void putMemory(String key, byte[] data) {
+		if (data.length > maxMemoryBytes) {
+			return;
+		}
+		synchronized (memory) {
+			byte[] old = memory.put(key, data);
+			memoryBytes += data.length - (old != null ? old.length : 0);
+			// remove os resultados usados ha mais tempo
+			for (Iterator<byte[]> it = memory.values().iterator(); memoryBytes > maxMemoryBytes && it.hasNext();) {
+				memoryBytes -= it.next().length;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of requests served by the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of requests served by the disk tier.
+	 */
+	public long getDiskHits() {
+		return diskHits.get();
+	}
+
+	/**
+	 * @return the number of requests not found in the cache.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the fraction of requests served by the cache.
+	 */
+	public double getHitRate() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total > 0 ? (double) h / total : 0;
+	}
+
+	/**
+	 * @return the size of the cached results in memory (bytes).
+	 */
+	public long getMemoryBytes() {
+		synchronized (memory) {
+			return memoryBytes;
+		}
+	}
+
+	/**
+	 * Builds a cache key. The audio is hashed as it is read, so it is not
+	 * copied.
+	 *
+	 */
+	public static class Key {
+
+		private final MessageDigest audio;
+
+		private final MessageDigest key;
+
+		/**
+		 * Creates a key of an audio with the given content type.
+		 *
+		 * @param contentType
+		 *            the audio content type.
+		 */
+		public Key(String contentType) {
+			try {
+				this.audio = MessageDigest.getInstance("SHA-256");
+				this.key = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+			update(contentType);
+		}
+
+		/**
+		 * Adds the configuration of the recognizers to the key: the server URLs,
+		 * the protocol version, the recognition parameters and the preloaded
+		 * grammars of the session.
+		 *
+		 * @param builder
+		 *            the builder of the recognizers.
+		 * @return this key.
+		 */
+		public Key configuration(SpeechRecognizer.Builder builder) {
+			update("server");
+			if (builder.uris != null) {
+				builder.uris.forEach(uri -> update(uri.toString()));
+			} else {
+				update(builder.uri != null ? builder.uri.toString() : null);
+			}
+			update("protocol");
+			update(builder.protocolVersion);
+			if (builder.recogConfig != null) {
+				update("session");
+				parameters(builder.recogConfig);
+			}
+			if (builder.preloadGrammars != null) {
+				update("preload");
+				grammars(builder.preloadGrammars);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds audio data to the key.
+		 *
+		 * @param b
+		 *            the audio buffer.
+		 * @param len
+		 *            the number of bytes.
+		 */
+		public void audio(byte[] b, int len) {
+			audio.update(b, 0, len);
+		}
+
+		/**
+		 * Returns the key of the audio, the language model and the parameters.
+		 *
+		 * @param lmList
+		 *            the language model.
+		 * @param config
+		 *            the recognition parameters, or null.
+		 * @return the hexadecimal key.
+		 */
+		public String build(LanguageModelList lmList, RecognitionConfig config) {
+			key.update(audio.digest());
+			if (lmList != null) {
+				if (lmList.getUriList() != null) {
+					for (String uri : lmList.getUriList()) {
+						update("uri");
+						update(uri);
+					}
+				}
+				grammars(lmList);
+			}
+			if (config != null) {
+				update("recognition");
+				parameters(config);
+			}
+
+			StringBuilder hex = new StringBuilder();
+			for (byte b : key.digest()) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		}
+
+		private void grammars(LanguageModelList lmList) {
+			if (lmList.getGrammarList() != null) {
+				for (String[] grammar : lmList.getGrammarList()) {
+					update("grammar");
+					update(grammar[0]);
+					update(grammar[1]);
+				}
+			}
+		}
+
+		private void parameters(RecognitionConfig config) {
+			// parametros em ordem alfabetica
+			for (Map.Entry<String, String> e : new TreeMap<>(config.getParameterMap()).entrySet()) {
+				update(e.getKey());
+				update(e.getValue());
+			}
+		}
+
+		private void update(String value) {
+			byte[] data = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+			// o tamanho separa os campos (evita colisao entre "ab"+"c" e "a"+"bc")
+			key.update(ByteBuffer.allocate(4).putInt(data.length).array());
+			key.update(data);
+		}
+	}
+}
@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionError;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+/**
+ * The state of a single recognition: the audio transfer status, the received
+ * results and the completion signals used by the synchronous API.
+ *
+ * A new context is created for each call to recognize(), so events from an old
+ * recognition never wake up a thread waiting for a newer one.
+ *
+ * The result queue is guarded by its own monitor, which is also notified on
+ * completion, so a consumer waiting for the next result wakes up at once when
+ * the recognition ends. Results are added by the websocket I/O thread, which may
+ * be shared by several sessions, so adding a result never blocks.
+ *
+ */
+class RecognitionContext {
+
+	/** Status of the audio transfer. */
+	enum AudioStatus {
+		IDLE, RUNNING, FINISHED, CANCELED
+	}
+
+	/** The audio source of the recognition. */
+	private final AudioSource audio;
+
+	private final AtomicReference<AudioStatus> audioStatus = new AtomicReference<>(AudioStatus.IDLE);
+
+	/** Released when the audio transfer finishes or is cancelled. */
+	private final CountDownLatch audioDone = new CountDownLatch(1);
+
+	/** Released when the last result, an error or the session close is received. */
+	private final CountDownLatch completed = new CountDownLatch(1);
+
+	/** The recognition results received and not consumed yet (guarded by itself). */
+	private final Deque<RecognitionResult> results = new ArrayDeque<>();
+
+	/** The maximum number of results not consumed (0 = unbounded). */
+	private final int capacity;
+
+	/** The policy applied when the result queue is full. */
+	private final OverflowPolicy overflowPolicy;
+
+	/** Number of results discarded by the DROP_OLDEST policy. */
+	private final AtomicLong droppedResults = new AtomicLong();
+
+	/** The recognition error, if any. */
+	private volatile RecognitionError error;
+
+	/** Time of the end of audio or the last result (System.nanoTime). */
+	private volatile long lastResultNanos = System.nanoTime();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param audio
+	 *            the audio source of the recognition.
+	 */
+	RecognitionContext(AudioSource audio) {
+		this(audio, 0, OverflowPolicy.DROP_OLDEST);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param audio
+	 *            the audio source of the recognition.
+	 * @param capacity
+	 *            the maximum number of results not consumed (0 = unbounded).
+	 * @param overflowPolicy
+	 *            the policy applied when the result queue is full (DROP_OLDEST
+	 *            or FAIL).
+	 */
+	RecognitionContext(AudioSource audio, int capacity, OverflowPolicy overflowPolicy) {
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			throw new IllegalArgumentException("The result queue does not support the BLOCK policy");
+		}
+		this.audio = audio;
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	AudioSource getAudio() {
+		return audio;
+	}
+
+	AudioStatus getAudioStatus() {
+		return audioStatus.get();
+	}
+
+	/**
+	 * Marks the audio transfer as running.
+	 *
+	 * @return false if the transfer was already started or cancelled.
+	 */
+	boolean startAudio() {
+		return audioStatus.compareAndSet(AudioStatus.IDLE, AudioStatus.RUNNING);
+	}
+
+	/**
+	 * Marks the audio transfer as finished and restarts the result timeout. A
+	 * cancelled transfer remains cancelled.
+	 */
+	void audioFinished() {
+		audioStatus.compareAndSet(AudioStatus.RUNNING, AudioStatus.FINISHED);
+		// o prazo de espera pelo resultado conta a partir do fim do audio
+		lastResultNanos = System.nanoTime();
+		audioDone.countDown();
+	}
+
+	/**
+	 * Cancels the recognition, releasing the waiting threads.
+	 *
+	 * @return true if the audio transfer was not finished yet.
+	 */
+	boolean cancel() {
+		boolean cancelled = audioStatus.compareAndSet(AudioStatus.IDLE, AudioStatus.CANCELED)
+				|| audioStatus.compareAndSet(AudioStatus.RUNNING, AudioStatus.CANCELED);
+		audioDone.countDown();
+		completed.countDown();
+		signalCompletion();
+		return cancelled;
+	}
+
+	boolean isCancelled() {
+		return audioStatus.get() == AudioStatus.CANCELED;
+	}
+
+	boolean isAudioRunning() {
+		return audioStatus.get() == AudioStatus.RUNNING;
+	}
+
+	/**
+	 * Stores a recognition result and restarts the result timeout. If the queue
+	 * is full, the overflow policy discards the oldest result or rejects the new
+	 * result.
+	 *
+	 * @param result
+	 *            the recognition result.
+	 * @return false if the result was discarded.
+	 */
+	boolean addResult(RecognitionResult result) {
+		lastResultNanos = System.nanoTime();
+		synchronized (results) {
+			if (isFull()) {
+				switch (overflowPolicy) {
+				case DROP_OLDEST:
+					results.poll();
+					droppedResults.incrementAndGet();
+					break;
+				default:
+					return false;
+				}
+			}
+			results.add(result);
+			results.notifyAll();
+			return true;
+		}
+	}
+
+	private boolean isFull() {
+		return capacity > 0 && results.size() >= capacity;
+	}
+
+	/**
+	 * Removes the next result, waiting for it if the recognition is running.
+	 *
+	 * @param timeout
+	 *            the maximum wait time.
+	 * @param unit
+	 *            the time unit of the timeout.
+	 * @return the next result, or null if the recognition completed without more
+	 *         results or the timeout elapsed.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	RecognitionResult pollResult(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (results) {
+			for (;;) {
+				RecognitionResult result = results.poll();
+				if (result != null) {
+					return result;
+				} else if (isCompleted()) {
+					return null;
+				}
+
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+				// acordado por um novo resultado ou pela conclusao
+				TimeUnit.NANOSECONDS.timedWait(results, remaining);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of results discarded by the DROP_OLDEST policy.
+	 */
+	long getDroppedResults() {
+		return droppedResults.get();
+	}
+
+	/**
+	 * Signals that all the results were received.
+	 */
+	void complete() {
+		completed.countDown();
+		signalCompletion();
+	}
+
+	/**
+	 * Signals the end of the recognition because of an error. Errors received
+	 * after the completion are ignored.
+	 *
+	 * @param error
+	 *            the recognition error.
+	 */
+	void fail(RecognitionError error) {
+		if (!isCompleted()) {
+			this.error = error;
+		}
+		completed.countDown();
+		signalCompletion();
+	}
+
+	/**
+	 * Wakes up the threads waiting on the result queue. Called after the
+	 * completion latch is released, so a waiter checking it under the monitor
+	 * never misses the signal.
+	 */
+	private void signalCompletion() {
+		synchronized (results) {
+			results.notifyAll();
+		}
+	}
+
+	boolean isCompleted() {
+		return completed.getCount() == 0;
+	}
+
+	RecognitionError getError() {
+		return error;
+	}
+
+	/**
+	 * @return the results not consumed by {@link #pollResult(long, TimeUnit)}.
+	 */
+	List<RecognitionResult> getResults() {
+		synchronized (results) {
+			return new ArrayList<>(results);
+		}
+	}
+
+	/**
+	 * Blocks the calling thread until the audio transfer finishes.
+	 *
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	void awaitAudio() throws InterruptedException {
+		audioDone.await();
+	}
+
+	/**
+	 * Blocks the calling thread until the recognition completes, or the timeout
+	 * elapses without receiving any result.
+	 *
+	 * @param timeout
+	 *            the maximum interval between results.
+	 * @param unit
+	 *            the time unit of the timeout.
+	 * @return true if the recognition completed, false on timeout.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		long timeoutNanos = unit.toNanos(timeout);
+		for (;;) {
+			// o prazo e estendido a cada resultado recebido
+			long remaining = lastResultNanos + timeoutNanos - System.nanoTime();
+			if (remaining <= 0) {
+				return isCompleted();
+			} else if (completed.await(remaining, TimeUnit.NANOSECONDS)) {
+				return true;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+/**
+ * Ring buffer of the audio sent in a recognition, addressed by the absolute
+ * byte position in the audio stream. The audio of the segments already
+ * recognized is released; the remaining audio is replayed if the session is
+ * recovered in a new connection.
+ *
+ * When the buffer is full, the oldest bytes are discarded.
+ *
+ */
+class ReplayBuffer {
+
+	private final byte[] data;
+
+	/** Absolute position of the first byte kept. */
+	private long start;
+
+	/** Absolute position after the last byte appended. */
+	private long end;
+
+	/** True if the last audio packet was sent. */
+	private boolean ended;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            the buffer size (bytes).
+	 */
+	ReplayBuffer(int capacity) {
+		this.data = new byte[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Appends audio to the buffer, discarding the oldest bytes if needed.
+	 *
+	 * @param b
+	 *            the audio bytes.
+	 * @param length
+	 *            the number of bytes.
+	 */
+	synchronized void append(byte[] b, int length) {
+		int offset = 0;
+		if (length > data.length) {
+			// so os ultimos bytes cabem no buffer
+			offset = length - data.length;
+			end += offset;
+			length = data.length;
+		}
+
+		int pos = (int) (end % data.length);
+		int first = Math.min(length, data.length - pos);
+		System.arraycopy(b, offset, data, pos, first);
+		System.arraycopy(b, offset + first, data, 0, length - first);
+		end += length;
+		start = Math.max(start, end - data.length);
+	}
+
+	/**
+	 * Releases the audio before the position (e.g. the end of a recognized
+	 * segment).
+	 *
+	 * @param position
+	 *            the absolute byte position.
+	 */
+	synchronized void release(long position) {
+		start = Math.max(start, Math.min(position, end));
+	}
+
+	/**
+	 * Copies the audio starting at a position.
+	 *
+	 * @param position
+	 *            the absolute byte position (at least {@link #getStart()}).
+	 * @param b
+	 *            the destination buffer.
+	 * @return the number of bytes copied (0 at the end of the buffer).
+	 */
+	synchronized int read(long position, byte[] b) {
+		if (position < start) {
+			throw new IllegalArgumentException("Position " + position + " was released (start = " + start + ")");
+		}
+
+		int length = (int) Math.min(b.length, Math.max(0, end - position));
+		int pos = (int) (position % data.length);
+		int first = Math.min(length, data.length - pos);
+		System.arraycopy(data, pos, b, 0, first);
+		System.arraycopy(data, 0, b, first, length - first);
+		return length;
+	}
+
+	/**
+	 * Indicates that the last audio packet was sent.
+	 */
+	synchronized void end() {
+		ended = true;
+	}
+
+	/**
+	 * @return true if the last audio packet was sent.
+	 */
+	synchronized boolean isEnded() {
+		return ended;
+	}
+
+	/**
+	 * @return the absolute position of the first byte kept.
+	 */
+	synchronized long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the absolute position after the last byte appended.
+	 */
+	synchronized long getEnd() {
+		return end;
+	}
+}
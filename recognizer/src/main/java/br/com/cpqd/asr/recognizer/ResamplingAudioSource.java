@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * AudioSource decorator that converts Linear PCM audio (signed 16 bits, little
+ * endian) of any sample rate and number of channels to the mono RAW format
+ * accepted by the server (8 kHz or 16 kHz).
+ *
+ * The channels are averaged and the sample rate is converted by a polyphase
+ * windowed-sinc filter, with the rational ratio L/M reduced by the greatest
+ * common divisor (e.g. 44.1 kHz to 16 kHz is 160/441). The audio is processed
+ * as it is read; every buffer is allocated by the constructor.
+ *
+ */
+public class ResamplingAudioSource implements AudioSource {
+
+	/** Number of sinc zero crossings at each side of the filter. */
+	private static final int ZERO_CROSSINGS = 16;
+
+	/** Cutoff frequency, relative to the lower Nyquist frequency. */
+	private static final double ROLLOFF = 0.92;
+
+	/** Number of input frames read from the source at a time. */
+	private static final int CHUNK_FRAMES = 1024;
+
+	private final AudioSource source;
+
+	private final int sourceRate;
+
+	private final int channels;
+
+	private final int targetRate;
+
+	/** Interpolation factor. */
+	private final int up;
+
+	/** Decimation factor. */
+	private final int down;
+
+	/** Half length of the filter, in input samples. */
+	private final int half;
+
+	/** Filter coefficients by phase. */
+	private final float[][] coefficients;
+
+	/** Buffer for the source reads. */
+	private final byte[] chunk;
+
+	/** Input bytes to be converted (an incomplete frame followed by a chunk). */
+	private final byte[] input;
+
+	/** Bytes of an incomplete frame, kept for the next read. */
+	private int inputCarry;
+
+	/** Mono input samples; samples[0] has the absolute index 'samplesStart'. */
+	private final float[] samples;
+	private int samplesLen;
+	private long samplesStart;
+
+	/** Total number of input samples (known after the end of the source). */
+	private long totalSamples = -1;
+
+	/** Index of the next output sample. */
+	private long outputIndex;
+
+	/** Output bytes ready to be delivered. */
+	private final byte[] output;
+	private int outputPos;
+	private int outputLen;
+
+	private boolean eof;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param source
+	 *            the audio source (Linear PCM, signed 16 bits, little endian,
+	 *            interleaved channels).
+	 * @param sourceRate
+	 *            the source sample rate (Hz).
+	 * @param channels
+	 *            the number of source channels.
+	 * @param targetRate
+	 *            the output sample rate (Hz).
+	 */
+	public ResamplingAudioSource(AudioSource source, int sourceRate, int channels, int targetRate) {
+		if (sourceRate <= 0 || targetRate <= 0 || channels <= 0) {
+			throw new IllegalArgumentException("Invalid audio format: " + sourceRate + " Hz, " + channels
+					+ " channels to " + targetRate + " Hz");
+		}
+		this.source = source;
+		this.sourceRate = sourceRate;
+		this.channels = channels;
+		this.targetRate = targetRate;
+
+		int gcd = gcd(sourceRate, targetRate);
+		this.up = targetRate / gcd;
+		this.down = sourceRate / gcd;
+
+		if (up == down) {
+			// mesma taxa: apenas o downmix
+			this.half = 1;
+			this.coefficients = new float[][] { { 1f, 0f } };
+		} else {
+			double cutoff = 0.5 * ROLLOFF * Math.min(1.0, (double) up / down);
+			this.half = (int) Math.ceil(ZERO_CROSSINGS / (2 * cutoff));
+			this.coefficients = design(up, half, cutoff);
+		}
+
+		this.chunk = new byte[CHUNK_FRAMES * channels * 2];
+		this.input = new byte[chunk.length + channels * 2];
+		this.samples = new float[CHUNK_FRAMES + 1 + 4 * half];
+		this.output = new byte[(int) ((long) CHUNK_FRAMES * up / down + 2) * 2];
+
+		// zeros antes do inicio do audio, para o primeiro ponto do filtro
+		this.samplesLen = half - 1;
+		this.samplesStart = -(half - 1);
+	}
+
+	/**
+	 * Creates an instance for an audio file in any format supported by the Java
+	 * Sound API (e.g. WAV 44.1 kHz stereo).
+	 *
+	 * @param file
+	 *            the audio file.
+	 * @param targetRate
+	 *            the output sample rate (Hz).
+	 * @return the audio source.
+	 * @throws IOException
+	 *             if the file can not be read or its format is not supported.
+	 */
+	public static ResamplingAudioSource fromFile(File file, int targetRate) throws IOException {
+		try {
+			AudioInputStream stream = AudioSystem.getAudioInputStream(file);
+			AudioFormat format = stream.getFormat();
+			int rate = (int) format.getSampleRate();
+			int channels = format.getChannels();
+			AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, rate, 16, channels, channels * 2, rate,
+					false);
+			if (!format.matches(pcm)) {
+				stream = AudioSystem.getAudioInputStream(pcm, stream);
+			}
+			return new ResamplingAudioSource(new InputStreamAudioSource(stream), rate, channels, targetRate);
+		} catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Designs the polyphase filter: the coefficient k of the phase p is the
+	 * windowed sinc at the distance (k - half + 1 - p / up) input samples.
+	 */
+	private static float[][] design(int up, int half, double cutoff) {
+		float[][] h = new float[up][2 * half];
+		for (int p = 0; p < up; p++) {
+			double sum = 0;
+			for (int k = 0; k < 2 * half; k++) {
+				double t = k - half + 1 - (double) p / up;
+				double x = 2 * cutoff * t;
+				double sinc = x == 0 ? 1.0 : Math.sin(Math.PI * x) / (Math.PI * x);
+				// janela de Blackman
+				double w = Math.abs(t) >= half ? 0
+						: 0.42 + 0.5 * Math.cos(Math.PI * t / half) + 0.08 * Math.cos(2 * Math.PI * t / half);
+				h[p][k] = (float) (sinc * w);
+				sum += h[p][k];
+			}
+			// ganho unitario em cada fase
+			for (int k = 0; k < 2 * half; k++) {
+				h[p][k] /= sum;
+			}
+		}
+		return h;
+	}
+
+	private static int gcd(int a, int b) {
+		while (b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	@Override
+	public int read(byte[] b) throws IOException, NullPointerException {
+		while (outputLen == 0) {
+			if (totalSamples >= 0 && outputDone()) {
+				return -1;
+			}
+			process();
+		}
+
+		int len = Math.min(b.length, outputLen);
+		System.arraycopy(output, outputPos, b, 0, len);
+		outputPos += len;
+		outputLen -= len;
+		return len;
+	}
+
+	/**
+	 * Verifies if every output sample of the input audio was produced.
+	 */
+	private boolean outputDone() {
+		return outputIndex * down >= totalSamples * up;
+	}
+
+	/**
+	 * Reads a chunk of the source, converting it to mono samples, and produces the
+	 * output samples whose filter window is complete.
+	 */
+	private void process() throws IOException {
+		compact();
+
+		// so le da fonte se houver espaco para o bloco e para o final do filtro
+		if (!eof && samplesLen + CHUNK_FRAMES + 1 + half <= samples.length) {
+			int n = source.read(chunk);
+			readInput(n);
+		}
+
+		outputPos = 0;
+		int maxOutput = output.length / 2;
+		long available = samplesStart + samplesLen;
+		while (outputLen / 2 < maxOutput) {
+			if (totalSamples >= 0 && outputDone()) {
+				break;
+			}
+			long position = outputIndex * down;
+			long base = position / up;
+			int phase = (int) (position % up);
+			if (base + half >= available) {
+				break;
+			}
+
+			float[] h = coefficients[phase];
+			int offset = (int) (base - half + 1 - samplesStart);
+			float sum = 0;
+			for (int k = 0; k < h.length; k++) {
+				sum += samples[offset + k] * h[k];
+			}
+
+			int value = Math.round(sum);
+			if (value > Short.MAX_VALUE) {
+				value = Short.MAX_VALUE;
+			} else if (value < Short.MIN_VALUE) {
+				value = Short.MIN_VALUE;
+			}
+			output[outputLen++] = (byte) value;
+			output[outputLen++] = (byte) (value >> 8);
+			outputIndex++;
+		}
+	}
+
+	/**
+	 * Converts the bytes read from the source to mono samples.
+	 */
+	private void readInput(int n) {
+		if (n < 0) {
+			// fim do audio: completa a janela do filtro com zeros
+			eof = true;
+			totalSamples = samplesStart + samplesLen;
+			for (int i = 0; i < half; i++) {
+				samples[samplesLen++] = 0;
+			}
+			return;
+		}
+
+		int frameBytes = channels * 2;
+		System.arraycopy(chunk, 0, input, inputCarry, n);
+		int len = inputCarry + n;
+		int frames = len / frameBytes;
+		for (int f = 0; f < frames; f++) {
+			int sum = 0;
+			int i = f * frameBytes;
+			for (int c = 0; c < channels; c++, i += 2) {
+				sum += (short) ((input[i] & 0xff) | (input[i + 1] << 8));
+			}
+			samples[samplesLen++] = (float) sum / channels;
+		}
+
+		// guarda o quadro incompleto para a proxima leitura
+		inputCarry = len - frames * frameBytes;
+		System.arraycopy(input, frames * frameBytes, input, 0, inputCarry);
+	}
+
+	/**
+	 * Discards the samples that are not used by the next output samples.
+	 */
+	private void compact() {
+		long first = outputIndex * down / up - half + 1;
+		int discard = (int) Math.min(samplesLen, Math.max(0, first - samplesStart));
+		if (discard > 0) {
+			System.arraycopy(samples, discard, samples, 0, samplesLen - discard);
+			samplesLen -= discard;
+			samplesStart += discard;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		source.finish();
+	}
+
+	@Override
+	public String getContentType() {
+		return AUDIO_TYPE_RAW;
+	}
+
+	/**
+	 * @return the output sample rate (Hz).
+	 */
+	public int getTargetRate() {
+		return targetRate;
+	}
+
+	@Override
+	public String toString() {
+		return "ResamplingAudioSource [" + sourceRate + " Hz x " + channels + " -> " + targetRate + " Hz, " + source
+				+ "]";
+	}
+
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the server of each new session among a list of ASR servers, shared by
+ * the recognizers built from the same Builder.
+ *
+ * A server that fails to create sessions repeatedly is ejected for a period.
+ * After that, it receives a growing share of the sessions (slow start), and a
+ * single failure in this period ejects it again.
+ *
+ */
+class ServerBalancer {
+
+	private static Logger logger = LoggerFactory.getLogger(ServerBalancer.class.getName());
+
+	/** Consecutive failures that eject a server. */
+	static final int EJECTION_FAILURES = 3;
+
+	/** Duration of the ejection (ms). */
+	static final long EJECTION_MILLIS = 30000;
+
+	/** Duration of the slow start after an ejection (ms). */
+	static final long SLOW_START_MILLIS = 30000;
+
+	/** Weight of the last sample in the latency moving average. */
+	private static final double LATENCY_ALPHA = 0.3;
+
+	/** A server and its statistics. */
+	static class Node {
+
+		private final URI uri;
+
+		/** Number of open sessions. */
+		private int sessions;
+
+		/** Moving average of the session creation latency (ms, 0 = unknown). */
+		private double latency;
+
+		/** Consecutive failures. */
+		private int failures;
+
+		/** End of the ejection (ms, 0 = never ejected). */
+		private long ejectedUntil;
+
+		Node(URI uri) {
+			this.uri = uri;
+		}
+
+		URI getUri() {
+			return uri;
+		}
+
+		@Override
+		public String toString() {
+			return uri.toString();
+		}
+	}
+
+	private final List<Node> nodes = new ArrayList<>();
+
+	private final LoadBalancingPolicy policy;
+
+	/** The clock (ms). */
+	private final LongSupplier clock;
+
+	/** Index of the first server evaluated, rotated to spread ties. */
+	private int next;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param uris
+	 *            the server URIs.
+	 * @param policy
+	 *            the load balancing policy.
+	 */
+	ServerBalancer(List<URI> uris, LoadBalancingPolicy policy) {
+		this(uris, policy, System::currentTimeMillis);
+	}
+
+	ServerBalancer(List<URI> uris, LoadBalancingPolicy policy, LongSupplier clock) {
+		if (uris.isEmpty()) {
+			throw new IllegalArgumentException("Server URI list is empty");
+		}
+		uris.forEach(uri -> nodes.add(new Node(uri)));
+		this.policy = policy;
+		this.clock = clock;
+	}
+
+	/**
+	 * Chooses the server of a new session. If every server is ejected, the one
+	 * with the nearest end of ejection is chosen.
+	 *
+	 * @return the server, which must be released when the session ends.
+	 */
+	synchronized Node acquire() {
+		long now = clock.getAsLong();
+		Node best = null;
+		double bestScore = Double.MAX_VALUE;
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get((next + i) % nodes.size());
+			if (node.ejectedUntil > now) {
+				continue;
+			}
+			double score = score(node, now);
+			if (score < bestScore) {
+				best = node;
+				bestScore = score;
+			}
+		}
+
+		if (best == null) {
+			for (Node node : nodes) {
+				if (best == null || node.ejectedUntil < best.ejectedUntil) {
+					best = node;
+				}
+			}
+		}
+
+		next = (next + 1) % nodes.size();
+		best.sessions++;
+		return best;
+	}
+
+	/**
+	 * Records a session created in the server.
+	 *
+	 * @param node
+	 *            the server.
+	 * @param latencyMillis
+	 *            the session creation latency (ms).
+	 */
+	synchronized void success(Node node, long latencyMillis) {
+		node.failures = 0;
+		node.latency = node.latency == 0 ? latencyMillis
+				: LATENCY_ALPHA * latencyMillis + (1 - LATENCY_ALPHA) * node.latency;
+	}
+
+	/**
+	 * Records a failure of the server (session not created or connection lost).
+	 *
+	 * @param node
+	 *            the server.
+	 */
+	synchronized void failure(Node node) {
+		long now = clock.getAsLong();
+		node.failures++;
+		boolean slowStart = node.ejectedUntil > 0 && now < node.ejectedUntil + SLOW_START_MILLIS;
+		if (node.ejectedUntil <= now && (node.failures >= EJECTION_FAILURES || slowStart)) {
+			node.ejectedUntil = now + EJECTION_MILLIS;
+			node.failures = 0;
+			node.latency = 0;
+			logger.warn("Server {} ejected for {} ms", node, EJECTION_MILLIS);
+		}
+	}
+
+	/**
+	 * Releases the server at the end of a session.
+	 *
+	 * @param node
+	 *            the server.
+	 */
+	synchronized void release(Node node) {
+		if (node.sessions > 0) {
+			node.sessions--;
+		}
+	}
+
+	/**
+	 * @return the number of open sessions by server.
+	 */
+	synchronized List<Integer> getSessions() {
+		List<Integer> sessions = new ArrayList<>();
+		nodes.forEach(node -> sessions.add(node.sessions));
+		return sessions;
+	}
+
+	/**
+	 * Returns the load of a server (lower is better).
+	 */
+	private double score(Node node, long now) {
+		// slow start: o peso cresce linearmente apos o fim da ejecao
+		double weight = 1;
+		if (node.ejectedUntil > 0 && now < node.ejectedUntil + SLOW_START_MILLIS) {
+			weight = Math.max(0.1, (now - node.ejectedUntil) / (double) SLOW_START_MILLIS);
+		}
+
+		double load = node.sessions + 1;
+		if (policy == LoadBalancingPolicy.LATENCY) {
+			// latencia desconhecida: o servidor e experimentado
+			load *= node.latency + 1;
+		}
+		return load / weight;
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The recognition parameters in effect in a server session. The values are
+ * taken from a GET_PARAMETERS snapshot and updated with the values accepted by
+ * SET_PARAMETERS, so a request only needs to carry the parameters that differ
+ * from the session.
+ *
+ */
+class SessionParameters {
+
+	/** The known parameter values, by parameter name. */
+	private final Map<String, String> values = new ConcurrentHashMap<>();
+
+	/**
+	 * Discards the known values (e.g. a new session was created).
+	 */
+	void clear() {
+		values.clear();
+	}
+
+	/**
+	 * Records the values in effect in the session. Empty values are ignored.
+	 *
+	 * @param parameters
+	 *            the parameter values.
+	 */
+	void update(Map<String, String> parameters) {
+		if (parameters == null) {
+			return;
+		}
+		for (Map.Entry<String, String> e : parameters.entrySet()) {
+			if (e.getKey() != null && e.getValue() != null && !e.getValue().trim().isEmpty()) {
+				values.put(e.getKey(), e.getValue().trim());
+			}
+		}
+	}
+
+	/**
+	 * @param name
+	 *            the parameter name.
+	 * @return the value in effect in the session, or null if it is unknown.
+	 */
+	String get(String name) {
+		return values.get(name);
+	}
+
+	/**
+	 * Returns the parameters whose value is unknown or differs from the session.
+	 *
+	 * @param parameters
+	 *            the requested parameter values.
+	 * @return the changed parameters.
+	 */
+	HashMap<String, String> changed(Map<String, String> parameters) {
+		HashMap<String, String> changed = new HashMap<>();
+		if (parameters != null) {
+			for (Map.Entry<String, String> e : parameters.entrySet()) {
+				if (!sameValue(values.get(e.getKey()), e.getValue())) {
+					changed.put(e.getKey(), e.getValue());
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Compares parameter values as the server does: booleans ignore case, numbers
+	 * are compared by value ("0.5" and "0.50") and other values must be equal.
+	 */
+	static boolean sameValue(String current, String value) {
+		if (current == null || value == null) {
+			return false;
+		}
+		String a = current.trim();
+		String b = value.trim();
+		if (a.equals(b)) {
+			return true;
+		} else if (isBoolean(a) && isBoolean(b)) {
+			return a.equalsIgnoreCase(b);
+		}
+		try {
+			return new BigDecimal(a).compareTo(new BigDecimal(b)) == 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static boolean isBoolean(String value) {
+		return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+	}
+}
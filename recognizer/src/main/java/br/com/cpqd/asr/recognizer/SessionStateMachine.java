@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free state machine of the client side recognition session. Every state
+ * change is an atomic compare-and-set over a well defined transition, so
+ * concurrent calls from the application threads and from the websocket
+ * threads never observe an intermediate state.
+ *
+ * <pre>
+ * CLOSED ---&gt; OPENING ---&gt; IDLE ---&gt; LISTENING ---&gt; RECOGNIZING
+ *   ^            |          ^  |          |               |
+ *   |            |          |  +----------+---------------+--&gt; CLOSING
+ *   +------------+          +-------------+---------------+       |
+ *   +-------------------------------------------------------------+
+ * </pre>
+ *
+ * Any open state may also move directly to CLOSED when the connection is lost.
+ *
+ */
+class SessionStateMachine {
+
+	/** The session states. */
+	enum State {
+		/** There is no connection with the server. */
+		CLOSED,
+		/** The connection and the session are being created. */
+		OPENING,
+		/** The session is open and there is no recognition running. */
+		IDLE,
+		/** A recognition was started and the audio is being sent. */
+		LISTENING,
+		/** The audio was sent and the recognition result is pending. */
+		RECOGNIZING,
+		/** The session is being released. */
+		CLOSING
+	}
+
+	/** The allowed transitions. */
+	private static final Map<State, EnumSet<State>> TRANSITIONS = new EnumMap<>(State.class);
+
+	static {
+		TRANSITIONS.put(State.CLOSED, EnumSet.of(State.OPENING));
+		TRANSITIONS.put(State.OPENING, EnumSet.of(State.IDLE, State.CLOSED));
+		TRANSITIONS.put(State.IDLE, EnumSet.of(State.LISTENING, State.CLOSING, State.CLOSED));
+		TRANSITIONS.put(State.LISTENING, EnumSet.of(State.RECOGNIZING, State.IDLE, State.CLOSING, State.CLOSED));
+		TRANSITIONS.put(State.RECOGNIZING, EnumSet.of(State.IDLE, State.CLOSING, State.CLOSED));
+		TRANSITIONS.put(State.CLOSING, EnumSet.of(State.CLOSED));
+	}
+
+	private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+	/**
+	 * Returns the current state.
+	 *
+	 * @return the session state.
+	 */
+	State get() {
+		return state.get();
+	}
+
+	/**
+	 * Verifies if the transition between two states is defined.
+	 *
+	 * @param from
+	 *            the current state.
+	 * @param to
+	 *            the next state.
+	 * @return true if the transition is allowed.
+	 */
+	static boolean isAllowed(State from, State to) {
+		return TRANSITIONS.get(from).contains(to);
+	}
+
+	/**
+	 * Atomically moves the session to the next state, if the current state is the
+	 * expected one.
+	 *
+	 * @param from
+	 *            the expected current state.
+	 * @param to
+	 *            the next state.
+	 * @return true if the transition was performed, false if the session was not
+	 *         in the expected state.
+	 * @throws IllegalStateException
+	 *             if the transition is not defined.
+	 */
+	boolean transition(State from, State to) {
+		if (!isAllowed(from, to)) {
+			throw new IllegalStateException("Invalid session state transition: " + from + " -> " + to);
+		}
+		return compareAndSet(from, to);
+	}
+
+	/**
+	 * Atomically sets the state, if the current state is the expected one.
+	 * Overridden in tests to force an interleaving.
+	 */
+	boolean compareAndSet(State expect, State update) {
+		return state.compareAndSet(expect, update);
+	}
+
+	/**
+	 * Finishes the recognition running, moving the session back to IDLE.
+	 *
+	 * @return true if a recognition was running.
+	 */
+	boolean finishRecognition() {
+		// LISTENING pode mudar para RECOGNIZING entre a leitura e o CAS
+		for (;;) {
+			State current = state.get();
+			if (current != State.LISTENING && current != State.RECOGNIZING) {
+				return false;
+			} else if (compareAndSet(current, State.IDLE)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Moves the session to CLOSING, if it is open.
+	 *
+	 * @return true if the session was open and the calling thread is responsible
+	 *         for releasing it.
+	 */
+	boolean beginClose() {
+		for (;;) {
+			State current = state.get();
+			if (!isAllowed(current, State.CLOSING)) {
+				return false;
+			} else if (compareAndSet(current, State.CLOSING)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Moves the session to CLOSED, from any state. Used when the session was
+	 * released or the connection was lost.
+	 *
+	 * @return the previous state.
+	 */
+	State closed() {
+		return state.getAndSet(State.CLOSED);
+	}
+
+	@Override
+	public String toString() {
+		return state.get().name();
+	}
+}
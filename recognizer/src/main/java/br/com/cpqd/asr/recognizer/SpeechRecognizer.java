@@ -20,9 +20,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
 import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.ws.AsrClientEndpoint;
 
 /**
  * The SpeechRecognizer allows a client application to submit an audio input
@@ -49,6 +51,21 @@ public interface SpeechRecognizer {
 	 */
 	void cancelRecognition() throws IOException, RecognitionException;
 
+	/**
+	 * Opens the session with the server, if it is not open. The session is
+	 * configured with the recognition parameters and the preloaded grammars of
+	 * the Builder, so the next recognition only starts the audio transfer. The
+	 * default implementation does nothing, for recognizers that do not keep a
+	 * session.
+	 *
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             error when creating the session.
+	 */
+	default void warmUp() throws IOException, RecognitionException {
+	}
+
 	/**
 	 * Recognizes an audio source. The recognition session with the server must
 	 * be created previously. The recognition result will be notified in the
@@ -130,6 +147,36 @@ public interface SpeechRecognizer {
 		/** The ASR Server URL. */
 		protected URI uri;
 
+		/** The ASR Server URLs, if there are many servers. */
+		protected List<URI> uris;
+
+		/** The policy used to choose a server. */
+		protected LoadBalancingPolicy loadBalancingPolicy;
+
+		/** Chooses the server of each session, shared by the recognizers. */
+		protected ServerBalancer balancer;
+
+		/** The maximum number of concurrent sessions with a server (0 = unlimited). */
+		protected int maxConcurrentSessions;
+
+		/** The maximum number of requests waiting for a session. */
+		protected int admissionQueueSize;
+
+		/** The maximum wait for a session (ms). */
+		protected int admissionTimeoutMillis;
+
+		/** The scheduling class of the recognitions. */
+		protected RecognitionPriority priority;
+
+		/** The inline grammars defined when the session is created. */
+		protected LanguageModelList preloadGrammars;
+
+		/** If true, only the parameters that differ from the session are sent. */
+		protected boolean changedParametersOnly;
+
+		/** The maximum number of text interpretations waiting for the result. */
+		protected int maxInterpretationsInFlight;
+
 		/** The User Agent data. */
 		protected String userAgent;
 
@@ -168,6 +215,56 @@ public interface SpeechRecognizer {
 		/** The channel identifier for the ASR Resource. */
 		protected String channelIdentifier;
 
+		/** The maximum number of audio bytes buffered for sending. */
+		protected int audioBufferBytes;
+
+		/** The policy applied when the audio buffer is full. */
+		protected OverflowPolicy audioOverflowPolicy;
+
+		/** The maximum number of sessions sharing a websocket connection. */
+		protected int maxSessionsPerConnection;
+
+		/** The TLS configuration of 'wss' connections. */
+		protected SslConfig sslConfig;
+
+		/** The maximum number of results not consumed (0 = unbounded). */
+		protected int resultQueueCapacity;
+
+		/** The policy applied when the result queue is full. */
+		protected OverflowPolicy resultOverflowPolicy;
+
+		/** The executor of the listener callbacks (null = websocket thread). */
+		protected Executor listenerExecutor;
+
+		/** The maximum number of events waiting for the listeners. */
+		protected int listenerQueueCapacity;
+
+		/** The policy applied when the listener queue is full. */
+		protected OverflowPolicy listenerOverflowPolicy;
+
+		/** The listener callback duration logged as slow (ms). */
+		protected int slowListenerMillis;
+
+		/** The maximum number of partial results per second (0 = unlimited). */
+		protected int maxPartialResultsPerSecond;
+
+		/** The number of attempts to recover a session after a connection loss. */
+		protected int reconnectAttempts;
+
+		/** The audio kept for replay in a recovered session (seconds). */
+		protected int replayBufferSeconds;
+
+		/** The sample rate of the raw audio (Hz). */
+		protected int audioSampleRate;
+
+		/** Creates the websocket client of each recognizer. */
+		ClientFactory clientFactory = AsrClientEndpoint::new;
+
+		/** Creates the websocket client of a recognizer. */
+		interface ClientFactory {
+			AsrClientEndpoint create(URI uri, String username, String password) throws URISyntaxException;
+		}
+
 		/**
 		 * Private constructor. Defines default configuration parameters.
 		 *
@@ -175,6 +272,20 @@ public interface SpeechRecognizer {
 		protected Builder() {
 			this.maxWaitSeconds = 30;
 			this.maxSessionIdleSeconds = 30;
+			this.audioBufferBytes = 256 * 1024;
+			this.audioOverflowPolicy = OverflowPolicy.BLOCK;
+			this.maxSessionsPerConnection = 1;
+			this.resultOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+			this.listenerQueueCapacity = 1024;
+			this.listenerOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+			this.slowListenerMillis = 200;
+			this.replayBufferSeconds = 30;
+			this.audioSampleRate = 8000;
+			this.loadBalancingPolicy = LoadBalancingPolicy.LEAST_SESSIONS;
+			this.admissionQueueSize = 100;
+			this.admissionTimeoutMillis = 10000;
+			this.priority = RecognitionPriority.INTERACTIVE;
+			this.maxInterpretationsInFlight = 32;
 		}
 
 		/**
@@ -189,6 +300,11 @@ public interface SpeechRecognizer {
 		 *             error when creating the session.
 		 */
 		public SpeechRecognizer build() throws URISyntaxException, IOException, RecognitionException {
+			synchronized (this) {
+				if (uris != null && uris.size() > 1 && balancer == null) {
+					balancer = new ServerBalancer(uris, loadBalancingPolicy);
+				}
+			}
 			SpeechRecognizerImpl recognizer = new SpeechRecognizerImpl(this);
 			return recognizer;
 		}
@@ -205,6 +321,107 @@ public interface SpeechRecognizer {
 		 */
 		public SpeechRecognizer.Builder serverURL(String url) throws URISyntaxException {
 			this.uri = new URI(url);
+			this.uris = null;
+			this.balancer = null;
+			return this;
+		}
+
+		/**
+		 * Defines the URLs of many equivalent servers. Each new session is created
+		 * in the server chosen by the load balancing policy, considering the
+		 * sessions of all recognizers built by this Builder. A server that fails
+		 * repeatedly is ejected for some time.
+		 *
+		 * @param urls
+		 *            the ASR Server endpoint URLs.
+		 * @return the Builder object
+		 *
+		 * @throws URISyntaxException
+		 *             Invalid URL
+		 */
+		public SpeechRecognizer.Builder serverURLs(String... urls) throws URISyntaxException {
+			List<URI> list = new ArrayList<>();
+			for (String url : urls) {
+				list.add(new URI(url));
+			}
+			if (list.isEmpty()) {
+				throw new URISyntaxException("", "Server URL list is empty");
+			}
+			this.uri = list.get(0);
+			this.uris = list;
+			this.balancer = null;
+			return this;
+		}
+
+		/**
+		 * Sets the policy used to choose the server of a session, when many server
+		 * URLs are defined.
+		 *
+		 * @param policy
+		 *            the load balancing policy (default LEAST_SESSIONS).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder loadBalancingPolicy(LoadBalancingPolicy policy) {
+			this.loadBalancingPolicy = policy;
+			this.balancer = null;
+			return this;
+		}
+
+		/**
+		 * Limits the number of concurrent sessions of the application with each
+		 * server. Over the limit, the session creation waits in a queue; if the
+		 * session is not available in time, the recognition fails with the
+		 * OVERLOADED error code.
+		 *
+		 * @param maxSessions
+		 *            the maximum number of sessions (default 0 = unlimited).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder maxConcurrentSessions(int maxSessions) {
+			this.maxConcurrentSessions = maxSessions;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of session requests waiting when the concurrent
+		 * session limit is reached. Over this size, the request fails immediately.
+		 *
+		 * @param size
+		 *            the number of requests (default 100).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder admissionQueueSize(int size) {
+			this.admissionQueueSize = size;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum wait for a session when the concurrent session limit is
+		 * reached. The request fails immediately if the expected wait is longer.
+		 *
+		 * @param millis
+		 *            the maximum wait (default 10000 ms).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder admissionTimeoutMillis(int millis) {
+			this.admissionTimeoutMillis = millis;
+			return this;
+		}
+
+		/**
+		 * Sets the scheduling class of the recognitions. Batch recognitions use the
+		 * capacity left by the interactive ones: they wait behind the interactive
+		 * requests for a session slot (see {@link #maxConcurrentSessions(int)}),
+		 * their audio is sent after the interactive audio in a shared connection
+		 * (see {@link #maxSessionsPerConnection(int)}) and their listener events
+		 * are delivered one per executor task.
+		 *
+		 * @param priority
+		 *            the priority (default INTERACTIVE).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder priority(RecognitionPriority priority) {
+			this.priority = priority;
 			return this;
 		}
 
@@ -302,6 +519,50 @@ public interface SpeechRecognizer {
 			return this;
 		}
 
+		/**
+		 * Sets the inline grammars defined when the session is created. A
+		 * recognition with these grammars (same id and body) does not define them
+		 * again. The session is kept between recognitions only if auto close is
+		 * not set.
+		 *
+		 * @param grammars
+		 *            the language model list with the inline grammars.
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder preloadGrammars(LanguageModelList grammars) {
+			this.preloadGrammars = grammars;
+			return this;
+		}
+
+		/**
+		 * Sends only the recognition parameters that differ from the values in
+		 * effect in the session. The session values are read with GET_PARAMETERS
+		 * when the session is created and updated by the session configuration,
+		 * so a session reused by many recognitions does not carry the same
+		 * parameters in every START_RECOGNITION. Default is false.
+		 *
+		 * @param changedParametersOnly
+		 *            true to send only the changed parameters.
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder changedParametersOnly(boolean changedParametersOnly) {
+			this.changedParametersOnly = changedParametersOnly;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of text interpretations sent to the server and
+		 * waiting for the result. Default is 32.
+		 *
+		 * @param maxInterpretationsInFlight
+		 *            the number of requests.
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder maxInterpretationsInFlight(int maxInterpretationsInFlight) {
+			this.maxInterpretationsInFlight = Math.max(1, maxInterpretationsInFlight);
+			return this;
+		}
+
 		/**
 		 * Sets the maximum session idle time.
 		 *
@@ -323,6 +584,221 @@ public interface SpeechRecognizer {
 			this.channelIdentifier = channelIdentifier;
 			return this;
 		}
+
+		/**
+		 * Sets the maximum amount of audio buffered for sending to the server.
+		 * Audio packets are written asynchronously, after any pending control
+		 * message.
+		 *
+		 * @param bytes
+		 *            the buffer size in bytes (default 256 KB).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder audioBufferBytes(int bytes) {
+			this.audioBufferBytes = bytes;
+			return this;
+		}
+
+		/**
+		 * Sets the policy applied when the audio buffer is full, e.g. the network
+		 * is slower than the audio source.
+		 *
+		 * @param policy
+		 *            the overflow policy (default BLOCK).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder audioOverflowPolicy(OverflowPolicy policy) {
+			this.audioOverflowPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of ASR sessions multiplexed over a single
+		 * websocket connection. Recognizers with the same server and
+		 * configuration share the connections, reducing the handshake cost when
+		 * many sessions are created.
+		 *
+		 * @param maxSessions
+		 *            the number of sessions per connection (default 1, a
+		 *            dedicated connection per recognizer).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder maxSessionsPerConnection(int maxSessions) {
+			this.maxSessionsPerConnection = maxSessions;
+			return this;
+		}
+
+		/**
+		 * Sets the TLS configuration of 'wss' connections. The configuration
+		 * object should be shared by the recognizers, so the SSL context and its
+		 * TLS session cache are reused by the new connections. If not defined,
+		 * the key store and trust store of the 'recognizer.properties' file are
+		 * used.
+		 *
+		 * @param sslConfig
+		 *            the TLS configuration.
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder sslConfig(SslConfig sslConfig) {
+			this.sslConfig = sslConfig;
+			return this;
+		}
+
+		/**
+		 * Limits the number of recognition results kept until they are consumed
+		 * by {@link SpeechRecognizerImpl#pollRecognitionResult(int)} or
+		 * waitRecognitionResult(). Recommended for long continuous mode sessions.
+		 *
+		 * @param capacity
+		 *            the number of results (default 0, unbounded).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder resultQueueCapacity(int capacity) {
+			this.resultQueueCapacity = capacity;
+			return this;
+		}
+
+		/**
+		 * Sets the policy applied when the result queue is full: DROP_OLDEST
+		 * discards the oldest result and FAIL ends the recognition with an error.
+		 * BLOCK is not supported, as it would hold the connection thread, and
+		 * every session sharing the connection, until a result is consumed.
+		 *
+		 * @param policy
+		 *            the overflow policy (default DROP_OLDEST).
+		 * @return the Builder object.
+		 * @throws IllegalArgumentException
+		 *             if the policy is BLOCK.
+		 */
+		public SpeechRecognizer.Builder resultOverflowPolicy(OverflowPolicy policy) {
+			if (policy == OverflowPolicy.BLOCK) {
+				throw new IllegalArgumentException("The result queue does not support the BLOCK policy");
+			}
+			this.resultOverflowPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Sets the executor of the registered listeners. The events of each
+		 * session are delivered in order, by one executor thread at a time, so
+		 * the websocket I/O threads are not held by the application callbacks.
+		 * If not defined, the listeners are called by the I/O thread.
+		 *
+		 * @param executor
+		 *            the executor (may be shared by many recognizers).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder listenerExecutor(Executor executor) {
+			this.listenerExecutor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of events waiting for the listeners, when an
+		 * executor is defined. If the buffer is full, the listener overflow policy
+		 * is applied.
+		 *
+		 * @param capacity
+		 *            the number of events (default 1024).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder listenerQueueCapacity(int capacity) {
+			this.listenerQueueCapacity = capacity;
+			return this;
+		}
+
+		/**
+		 * Sets the policy applied when the listener queue is full: DROP_OLDEST
+		 * discards the oldest event and FAIL discards the new one. BLOCK is not
+		 * supported, as it would hold the connection thread, and every session
+		 * sharing the connection, until the listeners catch up.
+		 *
+		 * @param policy
+		 *            the overflow policy (default DROP_OLDEST).
+		 * @return the Builder object.
+		 * @throws IllegalArgumentException
+		 *             if the policy is BLOCK.
+		 */
+		public SpeechRecognizer.Builder listenerOverflowPolicy(OverflowPolicy policy) {
+			if (policy == OverflowPolicy.BLOCK) {
+				throw new IllegalArgumentException("The listener queue does not support the BLOCK policy");
+			}
+			this.listenerOverflowPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Sets the listener callback duration that is logged as slow, when an
+		 * executor is defined.
+		 *
+		 * @param millis
+		 *            the callback duration (default 200 ms).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder slowListenerMillis(int millis) {
+			this.slowListenerMillis = millis;
+			return this;
+		}
+
+		/**
+		 * Limits the rate of partial results delivered to the listeners. The
+		 * intermediate results are discarded and the latest one is delivered at the
+		 * end of each interval. The delivered results inform the stable prefix of
+		 * the text.
+		 *
+		 * @param maxPerSecond
+		 *            the maximum number of partial results per second (default 0 =
+		 *            unlimited).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder maxPartialResultsPerSecond(int maxPerSecond) {
+			this.maxPartialResultsPerSecond = maxPerSecond;
+			return this;
+		}
+
+		/**
+		 * Enables the recovery of the session when the connection is lost during a
+		 * recognition. A new session is created and the audio sent after the last
+		 * recognized segment is replayed; the results keep the times and segment
+		 * indexes of the original audio. The listeners are notified with
+		 * 'onListening' when the session is recovered.
+		 *
+		 * Only raw (linear PCM 16 bits) and G.711 audio can be replayed.
+		 *
+		 * @param attempts
+		 *            the number of reconnection attempts (default 0 = disabled).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder reconnectAttempts(int attempts) {
+			this.reconnectAttempts = attempts;
+			return this;
+		}
+
+		/**
+		 * Sets the amount of sent audio kept for replay when the session is
+		 * recovered.
+		 *
+		 * @param seconds
+		 *            the audio duration (default 30 s).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder replayBufferSeconds(int seconds) {
+			this.replayBufferSeconds = seconds;
+			return this;
+		}
+
+		/**
+		 * Sets the sample rate of the raw audio, used to convert the replayed audio
+		 * into time.
+		 *
+		 * @param sampleRate
+		 *            the sample rate (default 8000 Hz).
+		 * @return the Builder object.
+		 */
+		public SpeechRecognizer.Builder audioSampleRate(int sampleRate) {
+			this.audioSampleRate = sampleRate;
+			return this;
+		}
     }
 
 }
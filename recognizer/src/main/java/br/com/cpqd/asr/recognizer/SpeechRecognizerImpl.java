@@ -16,16 +16,19 @@
 package br.com.cpqd.asr.recognizer;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.websocket.DeploymentException;
 import javax.websocket.EncodeException;
@@ -36,7 +39,10 @@ import org.slf4j.LoggerFactory;
 import br.com.cpqd.asr.protocol.CancelRecognition;
 import br.com.cpqd.asr.protocol.CreateSession;
 import br.com.cpqd.asr.protocol.DefineGrammarMessage;
+import br.com.cpqd.asr.protocol.GetParametersMessage;
+import br.com.cpqd.asr.protocol.InterpretText;
 import br.com.cpqd.asr.protocol.LanguageModel;
+import br.com.cpqd.asr.protocol.RecognitionParameters;
 import br.com.cpqd.asr.protocol.ReleaseSession;
 import br.com.cpqd.asr.protocol.ResponseMessage;
 import br.com.cpqd.asr.protocol.ResponseMessage.Result;
@@ -44,11 +50,18 @@ import br.com.cpqd.asr.protocol.SendAudio;
 import br.com.cpqd.asr.protocol.SessionStatus;
 import br.com.cpqd.asr.protocol.SetParametersMessage;
 import br.com.cpqd.asr.protocol.StartRecognition;
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+import br.com.cpqd.asr.recognizer.SessionStateMachine.State;
+import br.com.cpqd.asr.recognizer.jfr.AudioSendEvent;
+import br.com.cpqd.asr.recognizer.jfr.SessionCloseEvent;
+import br.com.cpqd.asr.recognizer.jfr.SessionOpenEvent;
 import br.com.cpqd.asr.recognizer.model.PartialRecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
 import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
 import br.com.cpqd.asr.recognizer.model.RecognitionError;
 import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
 import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.Word;
 import br.com.cpqd.asr.recognizer.ws.AsrClientEndpoint;
 
 /**
@@ -59,8 +72,14 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 
 	private static Logger logger = LoggerFactory.getLogger(SpeechRecognizerImpl.class.getName());
 
+	/** Delay before a reconnection attempt, multiplied by the attempt number (ms). */
+	private static final int RECONNECT_DELAY_MS = 500;
+
 	/** The session handle. */
-	private Long handle;
+	private volatile Long handle;
+
+	/** The session state. */
+	private final SessionStateMachine state = new SessionStateMachine();
 
 	/** The Builder object. */
 	private SpeechRecognizer.Builder builder;
@@ -68,25 +87,51 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	/** the websocket client. */
 	private AsrClientEndpoint client;
 
-	/** blocking queue to read recognition result. */
-	private BlockingQueue<RecognitionResult> sentencesQueue = new LinkedBlockingQueue<RecognitionResult>();
+	/** The current (or last) recognition. */
+	private volatile RecognitionContext context;
+
+	/**
+	 * True if the server rejected the compact audio format of a negotiated source.
+	 * Reset when a new session is created.
+	 */
+	private volatile boolean compactAudioRejected;
+
+	/** The audio sent in the recognition, replayed if the session is recovered. */
+	private volatile ReplayBuffer replay;
 
-	/** Temporarily stores a recognition error. */
-	private RecognitionError error;
+	/** Bytes per second and bytes per sample of the replayed audio. */
+	private volatile int replayBytesPerSecond;
+	private volatile int replayFrameBytes;
 
-	/** the audiosource object. */
-	private AudioSource audio;
+	/** The language model, parameters and audio format of the recognition. */
+	private volatile LanguageModelList recognitionLm;
+	private volatile RecognitionConfig recognitionConfig;
+	private volatile String recognitionContentType;
 
-	/** the asynchronous reader task. */
-	private ReaderTask readerTask;
+	/** True while the session is being recovered in a new connection. */
+	private volatile boolean recovering;
 
-	//** Momento de recebimento do último resultado */
-	private Instant lastResultTime;
+	/** Time (s) and segment index of the recovered session start in the original audio. */
+	private volatile float recoveredTimeOffset;
+	private volatile int recoveredSegmentOffset;
 
-	/** Status definition of the reader task. */
-	private enum ReaderTaskStatus {
-		IDLE, RUNNING, FINISHED, CANCELED
-	};
+	/** Number of segments recognized in the recognition. */
+	private volatile int recognizedSegments;
+
+	/** The server of the session, if there are many servers. */
+	private final AtomicReference<ServerBalancer.Node> server = new AtomicReference<>();
+
+	/** The admission controller holding a slot for the session. */
+	private final AtomicReference<AdmissionController> admission = new AtomicReference<>();
+
+	/** The inline grammars defined in the session (id and body). */
+	private final Map<String, String> definedGrammars = new ConcurrentHashMap<>();
+
+	/** The recognition parameters in effect in the session. */
+	private final SessionParameters sessionParameters = new SessionParameters();
+
+	/** Limits the number of text interpretations waiting for the result. */
+	private final Semaphore interpretationPermits;
 
 	/**
 	 * Constructor.
@@ -104,12 +149,34 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	public SpeechRecognizerImpl(SpeechRecognizer.Builder builder)
 			throws URISyntaxException, IOException, RecognitionException {
 		this.builder = builder;
+		this.interpretationPermits = new Semaphore(builder.maxInterpretationsInFlight);
 
-		client = new AsrClientEndpoint(builder.uri, builder.username, builder.password);
+		client = builder.clientFactory.create(builder.uri, builder.username, builder.password);
 		client.getListeners().add(this);
-		if (!builder.listeners.isEmpty())
-			client.getListeners().addAll(builder.listeners);
+		if (!builder.listeners.isEmpty()) {
+			List<RecognitionListener> listeners = builder.listeners;
+			if (builder.listenerExecutor != null) {
+				// listeners da aplicacao executados fora da thread de I/O
+				listeners = Collections.singletonList(new ListenerDispatcher(listeners, builder.listenerExecutor,
+						builder.listenerQueueCapacity, builder.listenerOverflowPolicy, builder.slowListenerMillis,
+						builder.priority, () -> this.handle));
+			}
+			if (builder.maxPartialResultsPerSecond > 0) {
+				listeners = Collections.singletonList(
+						new PartialResultCoalescer(listeners, builder.maxPartialResultsPerSecond, () -> this.handle,
+								PartialResultCoalescer.newScheduler(builder.listenerExecutor), System::nanoTime));
+			}
+			client.getListeners().addAll(listeners);
+		}
 		client.setSessionTimeoutTime(builder.maxSessionIdleSeconds >= 0 ? builder.maxSessionIdleSeconds * 1000 : -1);
+		client.setAudioBufferBytes(builder.audioBufferBytes);
+		client.setAudioOverflowPolicy(builder.audioOverflowPolicy);
+		client.setMaxSessionsPerConnection(builder.maxSessionsPerConnection);
+		client.setSslConfig(builder.sslConfig);
+		client.setPriority(builder.priority);
+		if (builder.reconnectAttempts > 0) {
+			client.setConnectionLostHandler(this::onConnectionLost);
+		}
 
 		try {
 			if (!builder.connectOnRecognize) {
@@ -129,13 +196,26 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 			return;
 		}
 
-		if (readerTask != null && readerTask.isRunning()) {
-			// cancela a reader task.
-			readerTask.cancel();
+		RecognitionContext context = this.context;
+		if (context != null && context.cancel()) {
+			// cancela a reader task e libera as threads aguardando o resultado
 			logger.debug("[{}] Reader task cancelled.", handle);
 		}
 
+		sendCancel();
+	}
+
+	/**
+	 * Sends the CANCEL_RECOGNITION message, if the server is not idle.
+	 *
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             error when canceling the recognition.
+	 */
+	private void sendCancel() throws IOException, RecognitionException {
 		if (client.getStatus() == SessionStatus.IDLE) {
+			state.finishRecognition();
 			return;
 		}
 
@@ -147,10 +227,12 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 
 			if (response == null) {
 				logger.error("[{}] Timeout canceling recognition.", handle);
+				state.finishRecognition();
 				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Operation timeout");
 
 			} else if (Result.SUCCESS.equals(response.getResult())) {
 				logger.debug("[{}] Recognition canceled ({}).", handle, response.getSessionStatus());
+				state.finishRecognition();
 
 				// cancelamento com sucesso. fecha a sessao
 				if (builder.autoClose) {
@@ -185,62 +267,220 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	 *             error when creating the session.
 	 */
 	private void open() throws DeploymentException, IOException, RecognitionException {
-		logger.debug("[{}] Open called... Reader task is {}. Client is {}.", handle, getReaderTaskStatus(),
-				client.isOpen() ? "opened" : "closed");
+		logger.debug("[{}] Open called... Reader task is {}. Client is {}. State is {}.", handle,
+				getReaderTaskStatus(), client.isOpen() ? "opened" : "closed", state);
 
-		if (!client.isOpen()) {
-			client.open();
+		if (!client.isOpen() && state.transition(State.IDLE, State.CLOSED)) {
+			// a conexao foi encerrada pelo servidor (ex.: timeout de sessao)
+			logger.debug("[{}] Connection was closed by the server.", handle);
+			releaseSession(false);
+		}
 
-			CreateSession message = new CreateSession();
-			message.setUserAgent(this.builder.userAgent);
-			Optional.ofNullable(builder.recogConfig).ifPresent(c -> message.setLoggingTag(c.getLoggingTag()));
-			message.setProtocolVersion(builder.protocolVersion);
-			message.setChannelIdentifier(builder.channelIdentifier);
+		if (state.transition(State.CLOSED, State.OPENING)) {
+			SessionOpenEvent event = JfrSupport.AVAILABLE ? new SessionOpenEvent() : null;
+			if (event != null) {
+				event.begin();
+			}
 
+			boolean success = false;
 			try {
-				ResponseMessage response = client.sendMessageAndWait(message);
-
-				if (response == null) {
-					logger.error("Timeout creating session.");
-					this.handle = null;
-					throw new RecognitionException(RecognitionErrorCode.FAILURE, "Operation timeout");
-				} else if (Result.SUCCESS.equals(response.getResult())
-						&& SessionStatus.IDLE.equals(response.getSessionStatus())) {
-					this.handle = response.getHandle();
-					logger.trace("[{}] Session created ({}).", handle, response.getSessionStatus());
-
-					if (builder.recogConfig != null) {
-						setRecognitionParameters(builder.recogConfig);
+				createSession();
+				success = true;
+			} finally {
+				if (success) {
+					state.transition(State.OPENING, State.IDLE);
+				} else {
+					state.transition(State.OPENING, State.CLOSED);
+					client.close();
+				}
+
+				if (event != null && event.shouldCommit()) {
+					event.serverUri = client.getUri().toString();
+					event.handle = success ? handle : 0;
+					event.success = success;
+					event.commit();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new session. If there are many servers, the session is created in
+	 * the server chosen by the balancer. If the number of concurrent sessions is
+	 * limited, waits for a free slot.
+	 *
+	 * @throws DeploymentException
+	 *             error when starting the endpoint.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             error when creating the session.
+	 */
+	private void createSession() throws DeploymentException, IOException, RecognitionException {
+		releaseSession(false);
+
+		ServerBalancer balancer = builder.balancer;
+		ServerBalancer.Node node = balancer != null ? balancer.acquire() : null;
+		if (node != null) {
+			client.setUri(node.getUri());
+			logger.debug("Creating session in {}", node);
+		}
+
+		AdmissionController controller = null;
+		long start = 0;
+		boolean success = false;
+		try {
+			if (builder.maxConcurrentSessions > 0) {
+				AdmissionController candidate = AdmissionController.get(client.getUri(),
+						builder.maxConcurrentSessions, builder.admissionQueueSize);
+				try {
+					candidate.acquire(builder.admissionTimeoutMillis, builder.priority);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RecognitionException(RecognitionErrorCode.FAILURE,
+							"Interrupted waiting for a session slot", e);
+				}
+				controller = candidate;
+			}
+
+			start = System.currentTimeMillis();
+			openSession();
+			success = true;
+		} finally {
+			if (success) {
+				server.set(node);
+				admission.set(controller);
+				if (node != null) {
+					balancer.success(node, System.currentTimeMillis() - start);
+				}
+			} else {
+				if (controller != null) {
+					controller.release();
+				}
+				if (node != null) {
+					// a recusa por excesso de sessoes nao e falha do servidor
+					if (start > 0) {
+						balancer.failure(node);
 					}
+					balancer.release(node);
+				}
+			}
+		}
+	}
 
-				} else {
-                    logger.error("Error creating session ({}): {}", response.getSessionStatus(),
-                            response.getErrorMessage());
-					handle = null;
-					throw new RecognitionException(RecognitionErrorCode.FAILURE, response.getErrorMessage());
+	/**
+	 * Releases the resources held by the session: the admission slot and the
+	 * server, if there are many servers.
+	 *
+	 * @param failed
+	 *            true if the session ended by a server failure.
+	 */
+	private void releaseSession(boolean failed) {
+		AdmissionController controller = admission.getAndSet(null);
+		if (controller != null) {
+			controller.release();
+		}
+
+		ServerBalancer.Node node = server.getAndSet(null);
+		if (node != null) {
+			if (failed) {
+				builder.balancer.failure(node);
+			}
+			builder.balancer.release(node);
+		}
+	}
+
+	/**
+	 * Connects to the server and sends the CREATE_SESSION message.
+	 *
+	 * @throws DeploymentException
+	 *             error when starting the endpoint.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             error when creating the session.
+	 */
+	private void openSession() throws DeploymentException, IOException, RecognitionException {
+		definedGrammars.clear();
+		sessionParameters.clear();
+		// uma nova sessao pode aceitar o formato compacto
+		compactAudioRejected = false;
+		client.open();
+
+		CreateSession message = new CreateSession();
+		message.setUserAgent(this.builder.userAgent);
+		Optional.ofNullable(builder.recogConfig).ifPresent(c -> message.setLoggingTag(c.getLoggingTag()));
+		message.setProtocolVersion(builder.protocolVersion);
+		message.setChannelIdentifier(builder.channelIdentifier);
+
+		try {
+			ResponseMessage response = client.sendMessageAndWait(message);
+
+			if (response == null) {
+				logger.error("Timeout creating session.");
+				this.handle = null;
+				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Operation timeout");
+			} else if (Result.SUCCESS.equals(response.getResult())
+					&& SessionStatus.IDLE.equals(response.getSessionStatus())) {
+				this.handle = response.getHandle();
+				logger.trace("[{}] Session created ({}).", handle, response.getSessionStatus());
+
+				if (builder.changedParametersOnly) {
+					readSessionParameters();
+				}
+
+				if (builder.recogConfig != null) {
+					setRecognitionParameters(builder.recogConfig);
+				}
+
+				if (builder.preloadGrammars != null && builder.preloadGrammars.getGrammarList() != null) {
+					for (String[] grammar : builder.preloadGrammars.getGrammarList()) {
+						defineInlineGrammar(grammar[0], grammar[1]);
+					}
 				}
 
-			} catch (EncodeException e) {
-				logger.error("Encode error", e);
+			} else {
+				logger.error("Error creating session ({}): {}", response.getSessionStatus(),
+						response.getErrorMessage());
 				handle = null;
-				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Encode error", e);
+				throw new RecognitionException(RecognitionErrorCode.FAILURE, response.getErrorMessage());
 			}
+
+		} catch (EncodeException e) {
+			logger.error("Encode error", e);
+			handle = null;
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Encode error", e);
 		}
 	}
 
 	@Override
 	public void close() throws IOException {
-		logger.debug("[{}] Close called... Reader task is {}. Client is {}.", handle, getReaderTaskStatus(),
-				client.isOpen() ? "opened" : "closed");
+		logger.debug("[{}] Close called... Reader task is {}. Client is {}. State is {}.", handle,
+				getReaderTaskStatus(), client.isOpen() ? "opened" : "closed", state);
 
-		if (!client.isOpen()) {
+		if (!state.beginClose()) {
+			// sessao ja encerrada ou sendo encerrada por outra thread
+			return;
+		} else if (!client.isOpen()) {
+			state.closed();
+			releaseSession(false);
 			return;
 		}
 
 		// encerra thread de leitura se estiver sendo executada
-		if (readerTask != null && readerTask.isRunning()) {
-			readerTask.cancel();
-			logger.trace("[{}] Reader task cancelled.", handle);
+		RecognitionContext context = this.context;
+		if (context != null) {
+			if (context.isAudioRunning()) {
+				context.cancel();
+				logger.trace("[{}] Reader task cancelled.", handle);
+			} else {
+				context.complete();
+			}
+		}
+
+		SessionCloseEvent event = JfrSupport.AVAILABLE ? new SessionCloseEvent() : null;
+		if (event != null) {
+			event.begin();
 		}
 
 		ReleaseSession message = new ReleaseSession();
@@ -260,6 +500,28 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 			logger.error("[{}] Error calling release session: {}", handle, e.getMessage());
 		} finally {
 			client.close();
+			state.closed();
+			releaseSession(false);
+
+			if (event != null && event.shouldCommit()) {
+				event.serverUri = client.getUri().toString();
+				event.handle = handle != null ? handle : 0;
+				event.commit();
+			}
+		}
+	}
+
+	@Override
+	public void warmUp() throws IOException, RecognitionException {
+		logger.debug("[{}] Warm up called... Client is {}. State is {}.", handle,
+				client.isOpen() ? "opened" : "closed", state);
+
+		if (state.get() != State.IDLE || !client.isOpen()) {
+			try {
+				open();
+			} catch (DeploymentException e) {
+				throw new IOException(e);
+			}
 		}
 	}
 
@@ -269,17 +531,131 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	}
 
 	@Override
-	public synchronized void recognize(AudioSource audio, LanguageModelList lm, RecognitionConfig recogConfig)
+	public void recognize(AudioSource audio, LanguageModelList lm, RecognitionConfig recogConfig)
 			throws IOException, RecognitionException {
-		logger.debug("[{}] Recognize called... Reader task is {}. Client is {}.", handle, getReaderTaskStatus(),
-				client.isOpen() ? "opened" : "closed");
+		logger.debug("[{}] Recognize called... Reader task is {}. Client is {}. State is {}.", handle,
+				getReaderTaskStatus(), client.isOpen() ? "opened" : "closed", state);
+
+		if (state.get() != State.IDLE || !client.isOpen()) {
+			try {
+				open();
+			} catch (DeploymentException e) {
+				throw new IOException(e);
+			}
+		}
 
-		if (readerTask != null && readerTask.isRunning()) {
-			logger.warn("[{}] Another recognition is running [{}]", this.handle, readerTask.getThreadName());
-			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Another recognition is running");
+		if (client.getPendingInterpretations() > 0) {
+			// os resultados das interpretacoes seriam confundidos com o do reconhecimento
+			logger.warn("[{}] Text interpretation in progress", this.handle);
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Text interpretation in progress");
 		}
 
-		if (!client.isOpen()) {
+		if (!state.transition(State.IDLE, State.LISTENING)) {
+			State current = state.get();
+			if (current == State.LISTENING || current == State.RECOGNIZING) {
+				logger.warn("[{}] Another recognition is running [{}]", this.handle, getReaderTaskStatus());
+				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Another recognition is running");
+			} else {
+				logger.warn("[{}] Session is not ready for recognition ({})", this.handle, current);
+				throw new RecognitionException(RecognitionErrorCode.FAILURE,
+						"Session is not ready for recognition (" + current + ")");
+			}
+		}
+
+		// novo contexto: resultados e sinais do reconhecimento anterior sao descartados
+		RecognitionContext context = new RecognitionContext(audio, builder.resultQueueCapacity,
+				builder.resultOverflowPolicy);
+		this.context = context;
+
+		recognitionLm = lm;
+		recognitionConfig = recogConfig;
+
+		boolean started = false;
+		try {
+			started = startRecognition(lm, recogConfig, prepareReplay(negotiateContentType(audio)));
+		} catch (RecognitionException e) {
+			// o servidor recusou o formato compacto: repete com o formato alternativo
+			if (audio instanceof NegotiatedAudioSource && client.isOpen() && isMediaTypeRejection(e)
+					&& ((NegotiatedAudioSource) audio).useFallbackFormat()) {
+				logger.info("[{}] Audio format rejected ({}), using {}", this.handle, e.getMessage(),
+						audio.getContentType());
+				compactAudioRejected = true;
+				started = startRecognition(lm, recogConfig, prepareReplay(audio.getContentType()));
+			} else {
+				throw e;
+			}
+		} finally {
+			if (!started) {
+				context.cancel();
+				state.transition(State.LISTENING, State.IDLE);
+			}
+		}
+	}
+
+	/**
+	 * Returns the next recognition result (speech segment) as soon as it is
+	 * available, for the streaming consumption of continuous mode recognitions.
+	 * The results returned are removed from the recognizer, so the memory used by
+	 * long sessions remains bounded (see
+	 * {@link SpeechRecognizer.Builder#resultQueueCapacity(int)}). The results not
+	 * consumed are returned by {@link #waitRecognitionResult()}.
+	 *
+	 * @param timeout
+	 *            the max wait time for the next result (in seconds).
+	 * @return the next result, or null if the recognition has finished and all its
+	 *         results were consumed, or the timeout elapsed.
+	 * @throws RecognitionException
+	 *             in case an error in the recognition occurs.
+	 */
+	public RecognitionResult pollRecognitionResult(int timeout) throws RecognitionException {
+		RecognitionContext context = this.context;
+		if (context == null) {
+			return null;
+		}
+
+		RecognitionResult result;
+		try {
+			result = context.pollResult(timeout, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Interrupted waiting for recognition result",
+					e);
+		}
+
+		if (result == null && context.getError() != null) {
+			throw new RecognitionException(context.getError());
+		}
+		return result;
+	}
+
+	/**
+	 * Interprets a text with the grammars of the language model (INTERPRET_TEXT),
+	 * without audio. The request is sent without waiting for the previous ones,
+	 * up to the limit of
+	 * {@link SpeechRecognizer.Builder#maxInterpretationsInFlight(int)}; above it,
+	 * the method blocks. Inline grammars already defined in the session are not
+	 * defined again. A recognition cannot be started while there are pending
+	 * interpretations.
+	 *
+	 * @param text
+	 *            the text to interpret.
+	 * @param lm
+	 *            the language model to use.
+	 * @return the future interpretation result, completed when the server
+	 *         answers.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the operation fails.
+	 */
+	public CompletableFuture<RecognitionResult> interpretText(String text, LanguageModelList lm)
+			throws IOException, RecognitionException {
+		if (state.get() != State.IDLE || !client.isOpen()) {
+			State current = state.get();
+			if (current == State.LISTENING || current == State.RECOGNIZING) {
+				logger.warn("[{}] Another recognition is running [{}]", this.handle, getReaderTaskStatus());
+				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Another recognition is running");
+			}
 			try {
 				open();
 			} catch (DeploymentException e) {
@@ -287,84 +663,126 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 			}
 		}
 
-		// limpa eventual lixo na fila de resposta
-		sentencesQueue.clear();
-		this.error = null;
-		this.audio = audio;
+		List<String> uriList = Optional.ofNullable(lm.getUriList()).map(ArrayList::new).orElse(new ArrayList<>());
+		// gramaticas inline ja definidas na sessao sao reaproveitadas
+		if (Optional.ofNullable(lm.getGrammarList()).isPresent()) {
+			for (String[] grammar : lm.getGrammarList()) {
+				defineInlineGrammar(grammar[0], grammar[1]);
+				uriList.add("session:" + grammar[0]);
+			}
+		}
+
+		InterpretText message = new InterpretText();
+		message.setHandle(this.handle);
+		message.setProtocolVersion(builder.protocolVersion);
+		message.setText(text);
+		message.setLanguageModel(new LanguageModel(uriList.toArray(new String[uriList.size()])));
 
-		// cria uma thread para ler o audio source e enviar os pacotes para o servidor
-		readerTask = new ReaderTask(audio);
+		try {
+			interpretationPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a text interpretation slot");
+		}
+
+		CompletableFuture<RecognitionResult> future;
+		try {
+			future = client.sendInterpretText(message);
+		} catch (IOException | RuntimeException e) {
+			interpretationPermits.release();
+			throw e;
+		}
+		future.whenComplete((r, e) -> interpretationPermits.release());
+		return future;
+	}
 
-		startRecognition(lm, recogConfig, audio.getContentType());
+	/**
+	 * Interprets a batch of texts with the grammars of the language model. The
+	 * requests are pipelined in the session (see
+	 * {@link #interpretText(String, LanguageModelList)}) and each future is
+	 * completed as its result arrives.
+	 *
+	 * @param texts
+	 *            the texts to interpret.
+	 * @param lmList
+	 *            the language model to use.
+	 * @return the future interpretation results, in the order of the texts.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws RecognitionException
+	 *             in case the operation fails.
+	 */
+	public List<CompletableFuture<RecognitionResult>> interpretText(List<String> texts, LanguageModelList lmList)
+			throws IOException, RecognitionException {
+		List<CompletableFuture<RecognitionResult>> results = new ArrayList<>(texts.size());
+		for (String text : texts) {
+			results.add(interpretText(text, lmList));
+		}
+		return results;
 	}
 
 	@Override
-	public synchronized List<RecognitionResult> waitRecognitionResult() throws RecognitionException {
+	public List<RecognitionResult> waitRecognitionResult() throws RecognitionException {
 		return waitRecognitionResult(builder.maxWaitSeconds);
 	}
 
 	@Override
-	public synchronized List<RecognitionResult> waitRecognitionResult(int timeout) throws RecognitionException {
-		logger.debug("[{}] Wait called... Reader task is {}. Client is {}. Status = {}", handle, getReaderTaskStatus(),
-				client.isOpen() ? "opened" : "closed", client.getStatus());
+	public List<RecognitionResult> waitRecognitionResult(int timeout) throws RecognitionException {
+		logger.debug("[{}] Wait called... Reader task is {}. Client is {}. Status = {}. State is {}.", handle,
+				getReaderTaskStatus(), client.isOpen() ? "opened" : "closed", client.getStatus(), state);
 
-		if (readerTask == null || (readerTask != null && readerTask.isCancelled())) {
+		// copia local: o campo pode ser alterado por um novo reconhecimento
+		RecognitionContext context = this.context;
+		if (context == null || (context.isCancelled() && context.getError() == null)) {
 			// chamou wait sem executar um reconhecimento
 			return new ArrayList<>(0);
 		}
 
-		// se o audio está sendo enviado, bloqueia a thread aguardando o fim do processo
-		while (!readerTask.hasFinished()) {
-			try {
-				synchronized (audio) {
-					audio.wait(3000);
-				}
-			} catch (InterruptedException e) {
-			}
-		}
-
-		if (readerTask.isCancelled()) {
-			logger.debug("Audio transfer canceled");
-			// se tarefa foi cancelada, devolve resultado vazio
-			return new ArrayList<>(0);
-		}
+		boolean completed;
+		try {
+			// se o audio está sendo enviado, bloqueia a thread aguardando o fim do processo
+			context.awaitAudio();
 
-		// Espera todos os resultados chegarem
-		boolean isTimeoutWaitingResult = false;
-		while (client.isOpen() && client.getStatus() != SessionStatus.IDLE) {
-			try {
-				synchronized (sentencesQueue) {
-					sentencesQueue.wait(2000);
-				}
-				// Verifica se o timeout por resultado foi atingido
-				if (Duration.ofSeconds(timeout).minus(Duration.between(lastResultTime, Instant.now())).isNegative()) {
-					isTimeoutWaitingResult = true;
-					break;
-				}
-			} catch (InterruptedException e) {
+			if (context.isCancelled() && context.getError() == null) {
+				logger.debug("Audio transfer canceled");
+				// se tarefa foi cancelada, devolve resultado vazio
+				return new ArrayList<>(0);
 			}
-		}
 
-		readerTask = null;
+			// Espera todos os resultados chegarem. O prazo conta a partir do ultimo resultado
+			completed = context.awaitCompletion(timeout, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Interrupted waiting for recognition result",
+					e);
+		}
 
-		if (isTimeoutWaitingResult) {
+		if (context.isCancelled() && context.getError() == null) {
+			return new ArrayList<>(0);
+		} else if (!completed) {
 			logger.warn("[{}] Timeout waiting for recognition result.", this.handle);
+			RecognitionError error = new RecognitionError(RecognitionErrorCode.FAILURE, "Recognition timeout");
+			context.fail(error);
+			state.finishRecognition();
 			for (RecognitionListener listener : client.getListeners()) {
-				listener.onError(new RecognitionError(RecognitionErrorCode.FAILURE, "Recognition timeout"));
+				listener.onError(error);
 			}
 			throw new RecognitionException(RecognitionErrorCode.FAILURE, "Recognition timeout");
-		} else if (error != null) {
-			throw new RecognitionException(error);
+		} else if (context.getError() != null) {
+			throw new RecognitionException(context.getError());
 		} else {
-			return Arrays.asList(sentencesQueue.toArray(new RecognitionResult[sentencesQueue.size()]));
+			return context.getResults();
 		}
 
 	}
 
 	@Override
 	public void onListening() {
-		readerTask.readerStatus = ReaderTaskStatus.RUNNING;
-		new Thread(readerTask).start();
+		RecognitionContext context = this.context;
+		if (context != null && context.startAudio()) {
+			// cria uma thread para ler o audio source e enviar os pacotes para o servidor
+			new Thread(new ReaderTask(context)).start();
+		}
 		logger.debug("[{}] Server is listening.", handle);
 	}
 
@@ -383,24 +801,54 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 		logger.debug("[{}] Recognition result (last={}): {}", this.handle, result.isLastSpeechSegment(),
 				result);
 
-		this.lastResultTime = Instant.now();
+		RecognitionContext context = this.context;
+		if (context == null) {
+			return;
+		}
+
+		ReplayBuffer replay = this.replay;
+		if (replay != null) {
+			// tempos e indices relativos ao audio original, se a sessao foi recuperada
+			if (recoveredTimeOffset > 0 || recoveredSegmentOffset > 0) {
+				shiftResult(result, recoveredTimeOffset, recoveredSegmentOffset);
+			}
+			recognizedSegments = result.getSpeechSegmentIndex() + 1;
+
+			// o audio do segmento reconhecido nao precisa ser reenviado
+			long position = (long) (result.getSegmentEndTime() * replayBytesPerSecond);
+			replay.release(position - position % replayFrameBytes);
+		}
+
+		if (context.getAudio() instanceof VadAudioSource) {
+			// tempos relativos ao audio original (este listener e notificado primeiro)
+			((VadAudioSource) context.getAudio()).rebase(result);
+		}
 
-		if (!sentencesQueue.offer(result)) {
+		if (!context.addResult(result)) {
 			logger.warn("[{}] Messsage discarded, sentences queue is full: {}", this.handle, result);
+			if (builder.resultOverflowPolicy == OverflowPolicy.FAIL) {
+				context.fail(new RecognitionError(RecognitionErrorCode.FAILURE, "Result queue is full"));
+			}
+		}
+
+		if (!result.isLastSpeechSegment() && client.getStatus() == SessionStatus.IDLE) {
+			// o servidor encerrou o reconhecimento sem indicar o ultimo segmento
+			state.finishRecognition();
+			context.complete();
 		}
 
 		// recebeu resultado final do ultimo segmento. fecha a sessao
 		if (result.isLastSpeechSegment()) {
+			state.finishRecognition();
+
 			// O servidor nao esta mais ouvindo. Encerra o envio de audio
 			try {
-				this.audio.finish();
+				context.getAudio().finish();
 			} catch (Exception e) {
 				logger.error("[{}] Error calling finish audio.", this.handle, e);
 			}
 
-			synchronized (sentencesQueue) {
-				sentencesQueue.notifyAll();
-			}
+			context.complete();
 
 			if (builder.autoClose) {
 				new Thread(() -> {
@@ -419,28 +867,46 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	@Override
 	public void onPartialRecognitionResult(PartialRecognitionResult result) {
 		logger.debug("[{}] Partial recognition result: {}", this.handle, result);
+
+		if (replay != null && recoveredSegmentOffset > 0) {
+			result.setSpeechSegmentIndex(result.getSpeechSegmentIndex() + recoveredSegmentOffset);
+		}
 	}
 
 	@Override
 	public void onError(RecognitionError error) {
+		RecognitionContext context = this.context;
 		if (error.getCode() == RecognitionErrorCode.SESSION_TIMEOUT) {
-			// ignora evento de timeout de sessao
+			// ignora evento de timeout de sessao, mas a conexao foi encerrada
+			state.closed();
+			releaseSession(false);
+			if (context != null) {
+				context.fail(error);
+			}
 			return;
 		}
 
 		logger.warn("[{}] Recognition error: {}", this.handle, error);
 
-		if (readerTask != null && readerTask.isRunning()) {
-			// o servidor nao esta mais ouvindo. Encerra o envio de audio
-			try {
-				this.audio.finish();
-			} catch (Exception e) {
-				logger.error("[{}] Error calling finish audio.", this.handle, e);
-			}
+		if (error.getCode() == RecognitionErrorCode.CONNECTION_FAILURE) {
+			// conexao perdida: a sessao nao existe mais no servidor
+			state.closed();
+			releaseSession(true);
+		} else {
+			state.finishRecognition();
+		}
 
-			synchronized (sentencesQueue) {
-				sentencesQueue.notifyAll();
+		if (context != null) {
+			if (context.isAudioRunning()) {
+				// o servidor nao esta mais ouvindo. Encerra o envio de audio
+				try {
+					context.getAudio().finish();
+				} catch (Exception e) {
+					logger.error("[{}] Error calling finish audio.", this.handle, e);
+				}
 			}
+
+			context.fail(error);
 		}
 
 		if (builder.autoClose) {
@@ -461,7 +927,8 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	 */
 	private boolean isListening() {
 		try {
-			return client.getStatus() == SessionStatus.LISTENING;
+			// durante a recuperacao da sessao o envio de audio fica suspenso
+			return recovering || (state.get() == State.LISTENING && client.getStatus() == SessionStatus.LISTENING);
 		} catch (Exception e) {
 			return false;
 		}
@@ -482,10 +949,19 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 			return;
 		}
 
+		HashMap<String, String> map = parameters.getParameterMap();
+		if (builder.changedParametersOnly) {
+			map = sessionParameters.changed(map);
+			if (map.isEmpty()) {
+				logger.trace("[{}] Session parameters unchanged.", handle);
+				return;
+			}
+		}
+
 		SetParametersMessage message = new SetParametersMessage();
 		message.setHandle(this.handle);
 		message.setProtocolVersion(builder.protocolVersion);
-		message.setRecognitionParameters(parameters.getParameterMap());
+		message.setRecognitionParameters(map);
 
 		try {
 			ResponseMessage response = client.sendMessageAndWait(message);
@@ -494,6 +970,7 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 				throw new RecognitionException(RecognitionErrorCode.FAILURE, "Operation timeout");
 			} else if (response.getResult().equals(Result.SUCCESS)) {
 				logger.trace("[{}] Session configured.", handle);
+				sessionParameters.update(map);
 			} else {
 				logger.error("[{}] Error configuring session parameters: {} {}", handle, response.getSessionStatus(),
 						response.getErrorMessage());
@@ -507,6 +984,61 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 
 	}
 
+	/**
+	 * Reads the recognition parameters in effect in the session. If the request
+	 * fails, the parameters are sent as usual.
+	 *
+	 * @throws IOException
+	 *             in case an I/O error occurs.
+	 */
+	private void readSessionParameters() throws IOException {
+		GetParametersMessage message = new GetParametersMessage();
+		message.setHandle(this.handle);
+		message.setProtocolVersion(builder.protocolVersion);
+		message.setRecognitionParameters(RecognitionParameters.getParameters());
+
+		try {
+			ResponseMessage response = client.sendMessageAndWait(message);
+			if (response != null && Result.SUCCESS.equals(response.getResult())) {
+				sessionParameters.update(response.getRecognitionParameters());
+				logger.trace("[{}] Session parameters: {}", handle, response.getRecognitionParameters());
+			} else {
+				logger.warn("[{}] Error reading session parameters: {}", handle,
+						response != null ? response.getErrorMessage() : "Operation timeout");
+			}
+		} catch (EncodeException e) {
+			logger.warn("[{}] Encode error", this.handle, e);
+		}
+	}
+
+	/**
+	 * Defines an inline grammar in the session, if it was not defined yet with the
+	 * same body.
+	 *
+	 * @param id
+	 *            the grammar id.
+	 * @param body
+	 *            the grammar definition.
+	 * @throws IOException
+	 *             in case an I/O error occurs.
+	 * @throws RecognitionException
+	 *             some error in the recogniton process.
+	 */
+	private void defineInlineGrammar(String id, String body) throws IOException, RecognitionException {
+		if (body != null && body.equals(definedGrammars.get(id))) {
+			logger.trace("[{}] Grammar {} already defined", handle, id);
+			return;
+		}
+
+		LanguageModel lm = new LanguageModel();
+		lm.setId(id);
+		lm.setDefinition(body);
+		defineGrammar(lm);
+		if (body != null) {
+			definedGrammars.put(id, body);
+		}
+	}
+
 	private void defineGrammar(LanguageModel languageModel) throws IOException, RecognitionException {
 		if (languageModel == null) {
 			return;
@@ -543,6 +1075,39 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 		}
 	}
 
+	/**
+	 * Verifies if the START_RECOGNITION error was caused by the audio media type.
+	 * Other errors (e.g. timeout, invalid grammar) do not trigger the fallback
+	 * format.
+	 *
+	 * @param e
+	 *            the error starting the recognition.
+	 * @return true if the server rejected the media type.
+	 */
+	static boolean isMediaTypeRejection(RecognitionException e) {
+		if (e.getErrorCode() != RecognitionErrorCode.FAILURE || e.getMessage() == null) {
+			return false;
+		}
+		String message = e.getMessage().toLowerCase();
+		return message.contains("media type") || message.contains("media-type") || message.contains("mediatype")
+				|| message.contains("content type") || message.contains("content-type");
+	}
+
+	/**
+	 * Returns the audio format of the recognition. A negotiated source uses the
+	 * fallback format if the server has already rejected its compact format.
+	 *
+	 * @param audio
+	 *            the audio source.
+	 * @return the audio MIME type.
+	 */
+	private String negotiateContentType(AudioSource audio) {
+		if (compactAudioRejected && audio instanceof NegotiatedAudioSource) {
+			((NegotiatedAudioSource) audio).useFallbackFormat();
+		}
+		return audio.getContentType();
+	}
+
 	/**
 	 * Sends a message to the server to start listening for audio.
 	 *
@@ -560,7 +1125,6 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 	private boolean startRecognition(LanguageModelList lmList, RecognitionConfig parameters, String mediaType)
 			throws IOException, RecognitionException {
 
-		this.lastResultTime = Instant.now();
 		StartRecognition message = new StartRecognition();
 		message.setHandle(this.handle);
 		message.setProtocolVersion(builder.protocolVersion);
@@ -568,14 +1132,12 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 			message.setMediaType(mediaType);
 		}
 
-		List<String> uriList = Optional.ofNullable(lmList.getUriList()).orElse(new ArrayList<>());
+		// copia: o modelo pode ser usado por outras sessoes ao mesmo tempo
+		List<String> uriList = Optional.ofNullable(lmList.getUriList()).map(ArrayList::new).orElse(new ArrayList<>());
 		// define multiplas gramaticas
 		if (Optional.ofNullable(lmList.getGrammarList()).isPresent()) {
 			for (String[] grammar : lmList.getGrammarList()) {
-				LanguageModel lm = new LanguageModel();
-				lm.setId(grammar[0]);
-				lm.setDefinition(grammar[1]);
-				defineGrammar(lm);
+				defineInlineGrammar(grammar[0], grammar[1]);
 				uriList.add("session:" + grammar[0]);
 			}
 		}
@@ -583,9 +1145,13 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 		LanguageModel languageModel = new LanguageModel(uriList.toArray(new String[uriList.size()]));
 		message.setLanguageModel(languageModel);
 
-		// define os parametros do reconhecimento
+		// define os parametros do reconhecimento; os parametros de START_RECOGNITION
+		// valem apenas para o reconhecimento e nao alteram o estado da sessao
 		if (parameters != null) {
 			HashMap<String, String> map = parameters.getParameterMap();
+			if (builder.changedParametersOnly) {
+				map = sessionParameters.changed(map);
+			}
 			message.setRecognitionParameters(map);
 		}
 
@@ -638,19 +1204,223 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 		}
 	}
 
+	/**
+	 * Sends an audio packet of the recognition, keeping it for replay if the
+	 * session may be recovered. While the session is being recovered, waits for
+	 * the replay of the buffered audio.
+	 *
+	 * @param context
+	 *            the recognition.
+	 * @param audio
+	 *            audio buffer
+	 * @param audioLength
+	 *            the number of bytes of the audio buffer to send.
+	 * @param contentType
+	 *            the audio MIME type.
+	 * @param lastPacket
+	 *            true if this is the last audio packet.
+	 * @throws IOException
+	 *             in case an I/O error occurs.
+	 */
+	private void sendAudio(RecognitionContext context, byte[] audio, int audioLength, String contentType,
+			boolean lastPacket) throws IOException {
+		ReplayBuffer replay = this.replay;
+		if (replay == null || this.context != context) {
+			sendAudio(audio, audioLength, contentType, lastPacket);
+			return;
+		}
+
+		synchronized (replay) {
+			while (recovering && !context.isCancelled()) {
+				try {
+					replay.wait(1000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted waiting for session recovery");
+				}
+			}
+
+			if (lastPacket) {
+				replay.end();
+			} else {
+				replay.append(audio, audioLength);
+			}
+			sendAudio(audio, audioLength, contentType, lastPacket);
+		}
+	}
+
+	/**
+	 * Creates the replay buffer of a recognition, if the session recovery is
+	 * enabled and the audio format can be replayed.
+	 *
+	 * @param contentType
+	 *            the audio MIME type.
+	 * @return the audio MIME type.
+	 */
+	private String prepareReplay(String contentType) {
+		int frameBytes = 0;
+		int bytesPerSecond = 0;
+		if (contentType == null || AudioSource.AUDIO_TYPE_RAW.equals(contentType)) {
+			frameBytes = 2;
+			bytesPerSecond = builder.audioSampleRate * 2;
+		} else if (G711.Law.ULAW.getMediaType().equals(contentType)
+				|| G711.Law.ALAW.getMediaType().equals(contentType)) {
+			frameBytes = 1;
+			bytesPerSecond = 8000;
+		}
+
+		recognitionContentType = contentType;
+		recoveredTimeOffset = 0;
+		recoveredSegmentOffset = 0;
+		recognizedSegments = 0;
+		replayBytesPerSecond = bytesPerSecond;
+		replayFrameBytes = frameBytes;
+		if (builder.reconnectAttempts > 0 && bytesPerSecond > 0) {
+			replay = new ReplayBuffer(builder.replayBufferSeconds * bytesPerSecond);
+		} else {
+			replay = null;
+		}
+		return contentType;
+	}
+
+	/**
+	 * Called when the connection is lost. Starts the recovery of the session if a
+	 * recognition is running.
+	 *
+	 * @param error
+	 *            the connection failure.
+	 * @return true if the session will be recovered.
+	 */
+	private boolean onConnectionLost(RecognitionError error) {
+		RecognitionContext context = this.context;
+		ReplayBuffer replay = this.replay;
+		State current = state.get();
+		if (recovering) {
+			// a tentativa em andamento vai falhar e ser repetida
+			return true;
+		} else if (replay == null || context == null || context.isCancelled() || context.isCompleted()
+				|| (current != State.LISTENING && current != State.RECOGNIZING)) {
+			return false;
+		}
+
+		recovering = true;
+		releaseSession(true);
+		new Thread(() -> recoverSession(context, replay, error), "asr-recover-" + handle).start();
+		return true;
+	}
+
+	/**
+	 * Creates a new session, restarts the recognition and replays the audio sent
+	 * after the last recognized segment.
+	 *
+	 * @param context
+	 *            the recognition.
+	 * @param replay
+	 *            the audio of the recognition.
+	 * @param error
+	 *            the connection failure, notified if the session is not
+	 *            recovered.
+	 */
+	private void recoverSession(RecognitionContext context, ReplayBuffer replay, RecognitionError error) {
+		String contentType = recognitionContentType;
+		for (int attempt = 1; attempt <= builder.reconnectAttempts; attempt++) {
+			try {
+				Thread.sleep((long) RECONNECT_DELAY_MS * attempt);
+				State current = state.get();
+				if (context.isCancelled() || this.context != context
+						|| (current != State.LISTENING && current != State.RECOGNIZING)) {
+					logger.debug("[{}] Recognition finished, session not recovered", handle);
+					break;
+				}
+
+				createSession();
+
+				// os resultados da nova sessao sao relativos ao inicio do audio reenviado
+				long position = replay.getStart();
+				recoveredTimeOffset = position / (float) replayBytesPerSecond;
+				recoveredSegmentOffset = recognizedSegments;
+				startRecognition(recognitionLm, recognitionConfig, contentType);
+
+				synchronized (replay) {
+					byte[] chunk = new byte[ReaderTask.AUDIO_CHUNK];
+					int read;
+					while ((read = replay.read(position, chunk)) > 0) {
+						sendAudio(chunk, read, contentType, false);
+						position += read;
+					}
+					if (replay.isEnded()) {
+						sendAudio(new byte[] {}, 0, contentType, true);
+					}
+					if (!client.isOpen()) {
+						throw new IOException("Connection lost");
+					}
+
+					recovering = false;
+					replay.notifyAll();
+				}
+				logger.info("[{}] Session recovered (attempt {}), {} s of audio replayed", handle, attempt,
+						(position / (float) replayBytesPerSecond) - recoveredTimeOffset);
+				return;
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				logger.warn("[{}] Error recovering session (attempt {}): {}", handle, attempt, e.getMessage());
+				client.close();
+			}
+		}
+
+		synchronized (replay) {
+			recovering = false;
+			replay.notifyAll();
+		}
+
+		logger.warn("[{}] Session not recovered", handle);
+		for (RecognitionListener listener : client.getListeners()) {
+			listener.onError(error);
+		}
+	}
+
+	/**
+	 * Shifts the times and segment index of a result.
+	 *
+	 * @param result
+	 *            the recognition result.
+	 * @param time
+	 *            the time offset (s).
+	 * @param segments
+	 *            the segment index offset.
+	 */
+	private static void shiftResult(RecognitionResult result, float time, int segments) {
+		result.setSpeechSegmentIndex(result.getSpeechSegmentIndex() + segments);
+		result.setSegmentStartTime(result.getSegmentStartTime() + time);
+		result.setSegmentEndTime(result.getSegmentEndTime() + time);
+		for (RecognitionAlternative alternative : result.getAlternatives()) {
+			for (Word word : alternative.getWords()) {
+				word.setStartTime(word.getStartTime() + time);
+				word.setEndTime(word.getEndTime() + time);
+			}
+		}
+	}
+
 	/**
 	 * Para fins de log.
 	 *
 	 * @return o estado de execução da thread.
 	 */
 	private String getReaderTaskStatus() {
-		if (readerTask == null) {
+		RecognitionContext context = this.context;
+		if (context == null) {
 			return "null";
-		} else if (readerTask.isRunning()) {
+		}
+
+		switch (context.getAudioStatus()) {
+		case RUNNING:
 			return "running";
-		} else if (readerTask.isCancelled()) {
+		case CANCELED:
 			return "cancelled";
-		} else {
+		default:
 			return "stopped";
 		}
 	}
@@ -664,60 +1434,50 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 
 		private static final int AUDIO_CHUNK = 4000;
 
-		/** Status of the reader task. */
-		private ReaderTaskStatus readerStatus;
+		/** The recognition of this task. */
+		private final RecognitionContext context;
 
-		private AudioSource audio;
+		private final AudioSource audio;
 
-		private String threadName;
+		private volatile String threadName;
 
-		public ReaderTask(AudioSource audio) {
+		public ReaderTask(RecognitionContext context) {
 			super();
-			this.audio = audio;
-			this.readerStatus = ReaderTaskStatus.IDLE;
-		}
-
-		public String getThreadName() {
-			return this.threadName;
-		}
-
-		public boolean isCancelled() {
-			return readerStatus == ReaderTaskStatus.CANCELED;
-		}
-
-		public boolean hasFinished() {
-			return readerStatus != ReaderTaskStatus.IDLE && readerStatus != ReaderTaskStatus.RUNNING;
-		}
-
-		public boolean isRunning() {
-			return readerStatus == ReaderTaskStatus.RUNNING;
-		}
-
-		public void cancel() {
-			readerStatus = ReaderTaskStatus.CANCELED;
+			this.context = context;
+			this.audio = context.getAudio();
 		}
 
 		@Override
 		public void run() {
-			readerStatus = ReaderTaskStatus.RUNNING;
 			this.threadName = Thread.currentThread().getName();
 
+			AudioSendEvent event = JfrSupport.AVAILABLE ? new AudioSendEvent() : null;
+			if (event != null) {
+				event.begin();
+			}
+
 			int length = 0;
+			int packets = 0;
 			int read = 0;
 			byte[] buffer = new byte[AUDIO_CHUNK];
 			if (logger.isDebugEnabled())
 				logger.debug("[{}] sending audio with packet size = {} bytes)", handle, AUDIO_CHUNK);
 			try {
-				while (isListening() && read != -1 && !isCancelled()) {
+				while (isListening() && read != -1 && !context.isCancelled()) {
 
 					long start = System.currentTimeMillis();
 					read = audio.read(buffer);
 
 					if (read > 0) {
 						length += read;
-						sendAudio(buffer, read, audio.getContentType(), false);
+						packets++;
+						sendAudio(context, buffer, read, audio.getContentType(), false);
 					} else if (read < 0) {
-						sendAudio(new byte[] {}, 0, audio.getContentType(), true);
+						packets++;
+						sendAudio(context, new byte[] {}, 0, audio.getContentType(), true);
+						if (SpeechRecognizerImpl.this.context == context) {
+							state.transition(State.LISTENING, State.RECOGNIZING);
+						}
 					}
 
 					logger.trace("[{}] read = {}; last = {}; sleep = {}; listening = {};", handle, read, (read <= 0),
@@ -725,14 +1485,31 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 				}
 			} catch (Exception e) {
 				logger.error("[{}] Error reading audio source", handle, e);
+
+				if (!context.isCancelled() && SpeechRecognizerImpl.this.context == context) {
+					// o audio nao pode ser enviado (ex.: buffer de envio cheio): encerra o reconhecimento
+					context.fail(new RecognitionError(RecognitionErrorCode.FAILURE,
+							"Error sending audio: " + e.getMessage()));
+					try {
+						sendCancel();
+					} catch (Exception ex) {
+						logger.warn("[{}] Error canceling recognition: {}", handle, ex.getMessage());
+					}
+				}
 			} finally {
 				logger.debug("[{}] {} bytes sent. Reader task finished.", handle, length);
 
-				synchronized (audio) {
-					readerStatus = ReaderTaskStatus.FINISHED;
-					audio.notifyAll();
+				if (event != null && event.shouldCommit()) {
+					event.handle = handle != null ? handle : 0;
+					event.packets = packets;
+					event.bytes = length;
+					event.cancelled = context.isCancelled();
+					event.commit();
 				}
 
+				// libera a thread aguardando o fim do envio de audio
+				context.audioFinished();
+
 				try {
 					audio.close();
 				} catch (Exception e) {
@@ -743,7 +1520,7 @@ public class SpeechRecognizerImpl implements SpeechRecognizer, RecognitionListen
 
 		@Override
 		public String toString() {
-			return "SendAudioTask [threadName=" + threadName + ", status=" + readerStatus + "]";
+			return "SendAudioTask [threadName=" + threadName + ", status=" + context.getAudioStatus() + "]";
 		}
 	}
 }
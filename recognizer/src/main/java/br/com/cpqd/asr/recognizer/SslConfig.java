@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+
+import br.com.cpqd.asr.recognizer.config.Config;
+
+/**
+ * Immutable TLS configuration of 'wss' connections. The SSLContext is created
+ * once and shared by every connection using the configuration, so its client
+ * session cache allows the TLS sessions to be resumed, avoiding a full handshake
+ * on each new connection.
+ *
+ */
+public class SslConfig {
+
+	private static volatile SslConfig defaultConfig;
+
+	private final String keyStoreFile;
+	private final char[] keyStorePassword;
+	private final String keyStoreType;
+	private final String trustStoreFile;
+	private final char[] trustStorePassword;
+	private final String trustStoreType;
+	private final String protocol;
+	private final String[] enabledProtocols;
+	private final String[] enabledCipherSuites;
+	private final boolean hostVerification;
+	private final int sessionCacheSize;
+	private final int sessionTimeoutSeconds;
+
+	/** The shared SSL context, created on first use. */
+	private volatile SSLContext sslContext;
+
+	private SslConfig(Builder builder) {
+		this.keyStoreFile = builder.keyStoreFile;
+		this.keyStorePassword = builder.keyStorePassword;
+		this.keyStoreType = builder.keyStoreType;
+		this.trustStoreFile = builder.trustStoreFile;
+		this.trustStorePassword = builder.trustStorePassword;
+		this.trustStoreType = builder.trustStoreType;
+		this.protocol = builder.protocol;
+		this.enabledProtocols = builder.enabledProtocols;
+		this.enabledCipherSuites = builder.enabledCipherSuites;
+		this.hostVerification = builder.hostVerification;
+		this.sessionCacheSize = builder.sessionCacheSize;
+		this.sessionTimeoutSeconds = builder.sessionTimeoutSeconds;
+	}
+
+	/**
+	 * Creates a new instance of the object builder.
+	 *
+	 * @return the Builder object.
+	 */
+	public static SslConfig.Builder builder() {
+		return new SslConfig.Builder();
+	}
+
+	/**
+	 * Returns the configuration defined in the 'recognizer.properties' file. The
+	 * standard 'javax.net.ssl' system properties are used when the key store is
+	 * not defined in the file. The system properties are not modified.
+	 *
+	 * @return the default configuration.
+	 */
+	public static SslConfig getDefault() {
+		SslConfig config = defaultConfig;
+		if (config == null) {
+			synchronized (SslConfig.class) {
+				config = defaultConfig;
+				if (config == null) {
+					Builder builder = builder();
+					if (Config.getKeystore() != null) {
+						builder.keyStore(Config.getKeystore(), Config.getKeystorePasswd());
+					} else if (System.getProperty("javax.net.ssl.keyStore") != null) {
+						builder.keyStore(System.getProperty("javax.net.ssl.keyStore"),
+								System.getProperty("javax.net.ssl.keyStorePassword"));
+					}
+					if (Config.getTruststore() != null) {
+						builder.trustStore(Config.getTruststore(), Config.getTruststorePasswd());
+					}
+					config = builder.build();
+					defaultConfig = config;
+				}
+			}
+		}
+		return config;
+	}
+
+	/**
+	 * Returns the shared SSL context, creating it on first use.
+	 *
+	 * @return the SSL context.
+	 * @throws IOException
+	 *             if the key store or trust store can not be loaded.
+	 */
+	public SSLContext getSslContext() throws IOException {
+		SSLContext context = sslContext;
+		if (context == null) {
+			synchronized (this) {
+				context = sslContext;
+				if (context == null) {
+					context = createSslContext();
+					sslContext = context;
+				}
+			}
+		}
+		return context;
+	}
+
+	private SSLContext createSslContext() throws IOException {
+		try {
+			KeyManager[] keyManagers = null;
+			if (keyStoreFile != null) {
+				KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+				kmf.init(loadKeyStore(keyStoreFile, keyStoreType, keyStorePassword), keyStorePassword);
+				keyManagers = kmf.getKeyManagers();
+			}
+
+			// sem truststore, o TrustManager padrao da JVM e utilizado
+			TrustManager[] trustManagers = null;
+			if (trustStoreFile != null) {
+				TrustManagerFactory tmf = TrustManagerFactory
+						.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+				tmf.init(loadKeyStore(trustStoreFile, trustStoreType, trustStorePassword));
+				trustManagers = tmf.getTrustManagers();
+			}
+
+			SSLContext context = SSLContext.getInstance(protocol);
+			context.init(keyManagers, trustManagers, null);
+
+			SSLSessionContext sessionContext = context.getClientSessionContext();
+			if (sessionCacheSize > 0) {
+				sessionContext.setSessionCacheSize(sessionCacheSize);
+			}
+			if (sessionTimeoutSeconds > 0) {
+				sessionContext.setSessionTimeout(sessionTimeoutSeconds);
+			}
+			return context;
+		} catch (GeneralSecurityException e) {
+			throw new IOException("Error creating SSL context: " + e.getMessage(), e);
+		}
+	}
+
+	private static KeyStore loadKeyStore(String file, String type, char[] password)
+			throws IOException, GeneralSecurityException {
+		KeyStore store = KeyStore.getInstance(type);
+		try (InputStream in = new FileInputStream(file)) {
+			store.load(in, password);
+		}
+		return store;
+	}
+
+	/**
+	 * @return the enabled TLS protocols, or null for the provider defaults.
+	 */
+	public String[] getEnabledProtocols() {
+		return enabledProtocols != null ? enabledProtocols.clone() : null;
+	}
+
+	/**
+	 * @return the enabled cipher suites, or null for the provider defaults.
+	 */
+	public String[] getEnabledCipherSuites() {
+		return enabledCipherSuites != null ? enabledCipherSuites.clone() : null;
+	}
+
+	/**
+	 * @return true if the server host name is verified.
+	 */
+	public boolean isHostVerification() {
+		return hostVerification;
+	}
+
+	/**
+	 * The Builder object.
+	 *
+	 */
+	public static class Builder {
+		private String keyStoreFile;
+		private char[] keyStorePassword;
+		private String keyStoreType = KeyStore.getDefaultType();
+		private String trustStoreFile;
+		private char[] trustStorePassword;
+		private String trustStoreType = KeyStore.getDefaultType();
+		private String protocol = "TLS";
+		private String[] enabledProtocols;
+		private String[] enabledCipherSuites;
+		private boolean hostVerification;
+		private int sessionCacheSize;
+		private int sessionTimeoutSeconds;
+
+		/**
+		 * Creates a new instance of the SslConfig object.
+		 *
+		 * @return a SslConfig instance.
+		 */
+		public SslConfig build() {
+			return new SslConfig(this);
+		}
+
+		/**
+		 * Defines the key store with the client certificate.
+		 *
+		 * @param file
+		 *            the key store file path.
+		 * @param password
+		 *            the key store password.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder keyStore(String file, String password) {
+			this.keyStoreFile = file;
+			this.keyStorePassword = password != null ? password.toCharArray() : null;
+			return this;
+		}
+
+		/**
+		 * Defines the key store type (default is the JVM default type).
+		 *
+		 * @param type
+		 *            the key store type (e.g. 'JKS', 'PKCS12').
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder keyStoreType(String type) {
+			this.keyStoreType = type;
+			return this;
+		}
+
+		/**
+		 * Defines the trust store with the server certificates. If not defined,
+		 * the JVM default trust store is used.
+		 *
+		 * @param file
+		 *            the trust store file path.
+		 * @param password
+		 *            the trust store password.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder trustStore(String file, String password) {
+			this.trustStoreFile = file;
+			this.trustStorePassword = password != null ? password.toCharArray() : null;
+			return this;
+		}
+
+		/**
+		 * Defines the trust store type (default is the JVM default type).
+		 *
+		 * @param type
+		 *            the trust store type (e.g. 'JKS', 'PKCS12').
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder trustStoreType(String type) {
+			this.trustStoreType = type;
+			return this;
+		}
+
+		/**
+		 * Defines the SSLContext protocol (default 'TLS').
+		 *
+		 * @param protocol
+		 *            the protocol name.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder protocol(String protocol) {
+			this.protocol = protocol;
+			return this;
+		}
+
+		/**
+		 * Restricts the TLS protocol versions (e.g. 'TLSv1.2', 'TLSv1.3').
+		 *
+		 * @param protocols
+		 *            the enabled protocols.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder enabledProtocols(String... protocols) {
+			this.enabledProtocols = protocols != null ? protocols.clone() : null;
+			return this;
+		}
+
+		/**
+		 * Restricts the cipher suites.
+		 *
+		 * @param cipherSuites
+		 *            the enabled cipher suites.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder enabledCipherSuites(String... cipherSuites) {
+			this.enabledCipherSuites = cipherSuites != null ? cipherSuites.clone() : null;
+			return this;
+		}
+
+		/**
+		 * Enables the server host name verification (default false).
+		 *
+		 * @param hostVerification
+		 *            true to verify the host name.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder hostVerification(boolean hostVerification) {
+			this.hostVerification = hostVerification;
+			return this;
+		}
+
+		/**
+		 * Sets the number of TLS sessions kept for resumption (default is the JVM
+		 * default).
+		 *
+		 * @param size
+		 *            the session cache size.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder sessionCacheSize(int size) {
+			this.sessionCacheSize = size;
+			return this;
+		}
+
+		/**
+		 * Sets the time a TLS session can be resumed (default is the JVM default).
+		 *
+		 * @param seconds
+		 *            the session timeout in seconds.
+		 * @return the builder object.
+		 */
+		public SslConfig.Builder sessionTimeoutSeconds(int seconds) {
+			this.sessionTimeoutSeconds = seconds;
+			return this;
+		}
+	}
+}
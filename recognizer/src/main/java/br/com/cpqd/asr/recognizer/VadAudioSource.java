@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.Word;
+
+/**
+ * AudioSource decorator that suppresses the silence of a RAW audio source (Linear
+ * PCM, signed 16 bits, little endian, mono) before it is sent to the server.
+ *
+ * The audio is split in frames, classified by their energy. Speech frames are
+ * sent with a head margin (the silence frames preceding the speech) and a tail
+ * margin (the silence frames following the speech), so the server endpointer
+ * still finds the speech boundaries. The remaining silence frames are dropped.
+ *
+ * The times reported by the server refer to the audio actually sent. Use
+ * {@link #toSourceTime(float)} or {@link #rebase(RecognitionResult)} to convert
+ * them to the time of the original audio. The results must be rebased in order:
+ * the offsets preceding the segment of a rebased result are discarded.
+ *
+ */
+public class VadAudioSource implements AudioSource {
+
+	/** The default head margin (ms). */
+	public static final int DEFAULT_HEAD_MARGIN = 500;
+
+	/** The default tail margin (ms), covering the server end of speech wait. */
+	public static final int DEFAULT_TAIL_MARGIN = 1000;
+
+	/** The default speech energy threshold (dBFS). */
+	public static final double DEFAULT_THRESHOLD = -45.0;
+
+	/** The frame length (ms). */
+	private static final int FRAME_MS = 20;
+
+	private final AudioSource source;
+
+	private final int sampleRate;
+
+	private final int frameBytes;
+
+	/** Minimum mean square value of a speech frame. */
+	private final double threshold;
+
+	/** Number of silence frames kept after the speech. */
+	private final int tailFrames;
+
+	/** Silence frames kept before the speech (circular buffer). */
+	private final byte[][] head;
+	private final long[] headPosition;
+	private int headStart;
+	private int headCount;
+
+	/** The frame being filled. */
+	private final byte[] frame;
+	private int frameFill;
+
+	/** Position (sample) of the current frame in the source audio. */
+	private long framePosition;
+
+	/** Audio read from the source, not yet consumed. */
+	private final byte[] input;
+	private int inputPos;
+	private int inputLen;
+
+	/** Audio ready to be delivered. */
+	private final byte[] output;
+	private int outputPos;
+	private int outputLen;
+
+	private int tailRemaining;
+
+	private boolean eof;
+
+	/** Number of samples sent. */
+	private long sentSamples;
+
+	/** Source position (sample) following the last frame sent. */
+	private long nextSourceSample;
+
+	/** Number of samples dropped. */
+	private long droppedSamples;
+
+	/**
+	 * Offset map: each entry is {sent sample, source sample}, registered when the
+	 * sent audio skips a silence interval. Pruned by
+	 * {@link #rebase(RecognitionResult)}.
+	 */
+	private final List<long[]> offsets = new ArrayList<>();
+
+	/**
+	 * Creates a new instance with the default margins and threshold.
+	 *
+	 * @param source
+	 *            the RAW audio source.
+	 * @param sampleRate
+	 *            the sample rate (Hz).
+	 */
+	public VadAudioSource(AudioSource source, int sampleRate) {
+		this(source, sampleRate, DEFAULT_HEAD_MARGIN, DEFAULT_TAIL_MARGIN, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new instance with the margins of the recognition configuration.
+	 * The tail margin covers the endpointer tail margin and end of speech wait
+	 * time, so the server still detects the end of each speech segment.
+	 *
+	 * @param source
+	 *            the RAW audio source.
+	 * @param sampleRate
+	 *            the sample rate (Hz).
+	 * @param config
+	 *            the recognition configuration.
+	 */
+	public VadAudioSource(AudioSource source, int sampleRate, RecognitionConfig config) {
+		this(source, sampleRate, headMargin(config), tailMargin(config), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param source
+	 *            the RAW audio source.
+	 * @param sampleRate
+	 *            the sample rate (Hz).
+	 * @param headMargin
+	 *            the silence kept before the speech (ms).
+	 * @param tailMargin
+	 *            the silence kept after the speech (ms).
+	 * @param threshold
+	 *            the speech energy threshold (dBFS).
+	 */
+	public VadAudioSource(AudioSource source, int sampleRate, int headMargin, int tailMargin, double threshold) {
+		if (!AUDIO_TYPE_RAW.equals(source.getContentType())) {
+			throw new IllegalArgumentException("Voice activity detection requires RAW audio");
+		}
+		this.source = source;
+		this.sampleRate = sampleRate;
+		this.frameBytes = sampleRate * FRAME_MS / 1000 * 2;
+		this.threshold = Math.pow(10, threshold / 10) * 32768.0 * 32768.0;
+
+		int headFrames = (headMargin + FRAME_MS - 1) / FRAME_MS;
+		this.tailFrames = (tailMargin + FRAME_MS - 1) / FRAME_MS;
+		this.head = new byte[headFrames][frameBytes];
+		this.headPosition = new long[headFrames];
+		this.frame = new byte[frameBytes];
+		this.input = new byte[frameBytes * 4];
+		this.output = new byte[(headFrames + 1) * frameBytes];
+	}
+
+	private static int headMargin(RecognitionConfig config) {
+		Integer head = config != null ? config.getHeadMarginMiliseconds() : null;
+		return head != null ? head : DEFAULT_HEAD_MARGIN;
+	}
+
+	private static int tailMargin(RecognitionConfig config) {
+		Integer tail = config != null ? config.getTailMarginMiliseconds() : null;
+		Integer waitEnd = config != null ? config.getWaitEndMiliseconds() : null;
+		if (tail == null && waitEnd == null) {
+			return DEFAULT_TAIL_MARGIN;
+		}
+		return Math.max(tail != null ? tail : 0, waitEnd != null ? waitEnd : 0) + FRAME_MS;
+	}
+
+	@Override
+	public int read(byte[] b) throws IOException, NullPointerException {
+		while (outputLen == 0) {
+			if (eof) {
+				return -1;
+			}
+			if (!fillFrame()) {
+				// a fonte nao tem audio disponivel no momento
+				return 0;
+			}
+		}
+
+		int len = Math.min(b.length, outputLen);
+		System.arraycopy(output, outputPos, b, 0, len);
+		outputPos += len;
+		outputLen -= len;
+		return len;
+	}
+
+	/**
+	 * Reads the next frame from the source and classifies it.
+	 *
+	 * @return false if the source returned no data before the frame was
+	 *         complete (the partial frame is kept).
+	 */
+	private boolean fillFrame() throws IOException {
+		while (frameFill < frameBytes) {
+			if (inputLen == 0) {
+				int n = source.read(input);
+				if (n < 0) {
+					eof = true;
+					break;
+				} else if (n == 0) {
+					return false;
+				}
+				inputPos = 0;
+				inputLen = n;
+				continue;
+			}
+			int len = Math.min(frameBytes - frameFill, inputLen);
+			System.arraycopy(input, inputPos, frame, frameFill, len);
+			frameFill += len;
+			inputPos += len;
+			inputLen -= len;
+		}
+
+		// descarta o byte incompleto de uma amostra no final do audio
+		int length = frameFill & ~1;
+		frameFill = 0;
+		if (length == 0) {
+			dropHead();
+			return true;
+		}
+
+		outputPos = 0;
+		if (isSpeech(length)) {
+			// envia a margem inicial antes da fala
+			for (int i = 0; i < headCount; i++) {
+				int index = (headStart + i) % head.length;
+				emit(head[index], frameBytes, headPosition[index]);
+			}
+			headStart = 0;
+			headCount = 0;
+			emit(frame, length, framePosition);
+			tailRemaining = tailFrames;
+		} else if (tailRemaining > 0) {
+			emit(frame, length, framePosition);
+			tailRemaining--;
+		} else if (head.length > 0 && length == frameBytes) {
+			if (headCount == head.length) {
+				headStart = (headStart + 1) % head.length;
+				headCount--;
+				droppedSamples += frameBytes / 2;
+			}
+			int index = (headStart + headCount) % head.length;
+			System.arraycopy(frame, 0, head[index], 0, frameBytes);
+			headPosition[index] = framePosition;
+			headCount++;
+		} else {
+			droppedSamples += length / 2;
+		}
+		framePosition += length / 2;
+
+		if (eof) {
+			dropHead();
+		}
+		return true;
+	}
+
+	/**
+	 * Discards the head margin at the end of the audio, as no speech follows it.
+	 */
+	private void dropHead() {
+		droppedSamples += headCount * (frameBytes / 2);
+		headCount = 0;
+	}
+
+	/**
+	 * Verifies if the mean square value of the frame exceeds the threshold.
+	 */
+	private boolean isSpeech(int length) {
+		double sum = 0;
+		for (int i = 0; i < length; i += 2) {
+			int sample = (short) ((frame[i] & 0xff) | (frame[i + 1] << 8));
+			sum += (double) sample * sample;
+		}
+		return sum / (length / 2) > threshold;
+	}
+
+	/**
+	 * Appends a frame to the output, registering an offset when the audio skips
+	 * a silence interval.
+	 */
+	private void emit(byte[] data, int length, long position) {
+		synchronized (offsets) {
+			if (position != nextSourceSample || offsets.isEmpty()) {
+				offsets.add(new long[] { sentSamples, position });
+			}
+			sentSamples += length / 2;
+			nextSourceSample = position + length / 2;
+		}
+		System.arraycopy(data, 0, output, outputLen, length);
+		outputLen += length;
+	}
+
+	/**
+	 * Converts a sample position of the audio sent to the server to the position
+	 * in the source audio.
+	 *
+	 * @param sample
+	 *            the sample position in the audio sent.
+	 * @return the sample position in the source audio.
+	 */
+	public long toSourceSample(long sample) {
+		synchronized (offsets) {
+			// busca binaria do ultimo trecho iniciado antes da amostra
+			int low = 0;
+			int high = offsets.size() - 1;
+			int found = -1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (offsets.get(mid)[0] <= sample) {
+					found = mid;
+					low = mid + 1;
+				} else {
+					high = mid - 1;
+				}
+			}
+			if (found < 0) {
+				return sample;
+			}
+			long[] offset = offsets.get(found);
+			return offset[1] + (sample - offset[0]);
+		}
+	}
+
+	/**
+	 * Converts a time of the audio sent to the server to the time in the source
+	 * audio.
+	 *
+	 * @param seconds
+	 *            the time in the audio sent (s).
+	 * @return the time in the source audio (s).
+	 */
+	public float toSourceTime(float seconds) {
+		long sample = Math.round((double) seconds * sampleRate);
+		return (float) ((double) toSourceSample(sample) / sampleRate);
+	}
+
+	/**
+	 * Converts the segment and word times of a recognition result to the time of
+	 * the source audio.
+	 *
+	 * @param result
+	 *            the recognition result.
+	 */
+	public void rebase(RecognitionResult result) {
+		prune(Math.round((double) result.getSegmentStartTime() * sampleRate));
+		result.setSegmentStartTime(toSourceTime(result.getSegmentStartTime()));
+		result.setSegmentEndTime(toSourceTime(result.getSegmentEndTime()));
+		for (RecognitionAlternative alternative : result.getAlternatives()) {
+			for (Word word : alternative.getWords()) {
+				word.setStartTime(toSourceTime(word.getStartTime()));
+				word.setEndTime(toSourceTime(word.getEndTime()));
+			}
+		}
+	}
+
+	/**
+	 * Discards the offsets that precede the one covering a sample position.
+	 *
+	 * @param sample
+	 *            the sample position in the audio sent.
+	 */
+	private void prune(long sample) {
+		synchronized (offsets) {
+			int count = 0;
+			while (count + 1 < offsets.size() && offsets.get(count + 1)[0] <= sample) {
+				count++;
+			}
+			if (count > 0) {
+				offsets.subList(0, count).clear();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of entries of the offset map.
+	 */
+	int getOffsetCount() {
+		synchronized (offsets) {
+			return offsets.size();
+		}
+	}
+
+	/**
+	 * @return the number of samples dropped.
+	 */
+	public long getDroppedSamples() {
+		return droppedSamples;
+	}
+
+	/**
+	 * @return the number of samples sent.
+	 */
+	public long getSentSamples() {
+		synchronized (offsets) {
+			return sentSamples;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		source.finish();
+	}
+
+	@Override
+	public String getContentType() {
+		return source.getContentType();
+	}
+
+	@Override
+	public String toString() {
+		return "VadAudioSource [" + source + "]";
+	}
+
+}
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming reader of RIFF/WAVE files. The header is parsed once, with no
+ * provider lookup, and the audio samples of the 'data' chunk are read as they
+ * are, in the encoding of the file (Linear PCM, IEEE float, A-law or μ-law,
+ * including the WAVE_FORMAT_EXTENSIBLE variants).
+ *
+ * The samples may be read into direct buffers ({@link #read(ByteBuffer)}), so
+ * a file opened with {@link #open(File)} is copied straight from the file
+ * channel.
+ *
+ */
+public class WavReader implements Closeable {
+
+	/** The sample encoding. */
+	public enum Encoding {
+		PCM, FLOAT, ALAW, ULAW
+	}
+
+	private static final int WAVE_FORMAT_PCM = 0x0001;
+	private static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
+	private static final int WAVE_FORMAT_ALAW = 0x0006;
+	private static final int WAVE_FORMAT_MULAW = 0x0007;
+	private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+	/** Data length of a file written as a stream (unknown length). */
+	private static final long UNKNOWN_LENGTH = 0xFFFFFFFFL;
+
+	private final ReadableByteChannel channel;
+
+	private Encoding encoding;
+
+	private int channels;
+
+	private int sampleRate;
+
+	private int bitsPerSample;
+
+	private int blockAlign;
+
+	/** The length of the audio data (bytes), or -1 if unknown. */
+	private long dataLength;
+
+	/** The number of audio bytes not read yet. */
+	private long remaining;
+
+	/**
+	 * Opens a WAV file.
+	 *
+	 * @param file
+	 *            the file.
+	 * @return the reader, positioned at the first audio sample.
+	 * @throws IOException
+	 *             if an I/O error occurs or the file is not a supported WAV
+	 *             file.
+	 */
+	public static WavReader open(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			return new WavReader(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a reader of a WAV stream.
+	 *
+	 * @param in
+	 *            the input stream.
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is not a supported WAV
+	 *             stream.
+	 */
+	public WavReader(InputStream in) throws IOException {
+		this(Channels.newChannel(in));
+	}
+
+	/**
+	 * Creates a reader of a WAV channel.
+	 *
+	 * @param channel
+	 *            the channel, positioned at the RIFF header.
+	 * @throws IOException
+	 *             if an I/O error occurs or the channel is not a supported WAV
+	 *             stream.
+	 */
+	public WavReader(ReadableByteChannel channel) throws IOException {
+		this.channel = channel;
+		parseHeader();
+	}
+
+	private void parseHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(header);
+		if (header.getInt(0) != fourCC("RIFF") || header.getInt(8) != fourCC("WAVE")) {
+			throw new IOException("Not a RIFF/WAVE stream");
+		}
+
+		while (true) {
+			ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(chunk);
+			int id = chunk.getInt(0);
+			long size = chunk.getInt(4) & 0xFFFFFFFFL;
+
+			if (id == fourCC("fmt ")) {
+				if (size < 16 || size > 1024) {
+					throw new IOException("Invalid fmt chunk size: " + size);
+				}
+				ByteBuffer fmt = ByteBuffer.allocate((int) (size + (size & 1))).order(ByteOrder.LITTLE_ENDIAN);
+				readFully(fmt);
+				parseFormat(fmt, (int) size);
+			} else if (id == fourCC("data")) {
+				if (encoding == null) {
+					throw new IOException("WAV data chunk before fmt chunk");
+				}
+				// arquivos gravados em stream nao informam o tamanho
+				dataLength = size == UNKNOWN_LENGTH ? -1 : size;
+				remaining = size == UNKNOWN_LENGTH ? Long.MAX_VALUE : size;
+				return;
+			} else {
+				// LIST, fact, cue etc: chunks alinhados em 2 bytes
+				skip(size + (size & 1));
+			}
+		}
+	}
+
+	private void parseFormat(ByteBuffer fmt, int size) throws IOException {
+		int tag = fmt.getShort(0) & 0xFFFF;
+		channels = fmt.getShort(2) & 0xFFFF;
+		sampleRate = fmt.getInt(4);
+		blockAlign = fmt.getShort(12) & 0xFFFF;
+		bitsPerSample = fmt.getShort(14) & 0xFFFF;
+
+		if (tag == WAVE_FORMAT_EXTENSIBLE) {
+			if (size < 40) {
+				throw new IOException("Invalid WAVE_FORMAT_EXTENSIBLE fmt chunk");
+			}
+			// os 2 primeiros bytes do GUID do sub formato sao o codigo do formato
+			tag = fmt.getShort(24) & 0xFFFF;
+		}
+
+		switch (tag) {
+		case WAVE_FORMAT_PCM:
+			encoding = Encoding.PCM;
+			break;
+		case WAVE_FORMAT_IEEE_FLOAT:
+			encoding = Encoding.FLOAT;
+			break;
+		case WAVE_FORMAT_ALAW:
+			encoding = Encoding.ALAW;
+			break;
+		case WAVE_FORMAT_MULAW:
+			encoding = Encoding.ULAW;
+			break;
+		default:
+			throw new IOException("Unsupported WAV format: 0x" + Integer.toHexString(tag));
+		}
+
+		if (channels == 0 || sampleRate <= 0 || blockAlign == 0) {
+			throw new IOException("Invalid WAV format: " + channels + " channels, " + sampleRate + " Hz");
+		}
+	}
+
+	/**
+	 * Reads audio data into the buffer.
+	 *
+	 * @param dst
+	 *            the buffer (heap or direct).
+	 * @return the number of bytes read, or -1 at the end of the audio data.
+	 * @throws IOException
+	 *             if an I/O error occurs.
+	 */
+	public int read(ByteBuffer dst) throws IOException {
+		if (remaining == 0) {
+			return -1;
+		} else if (!dst.hasRemaining()) {
+			return 0;
+		}
+
+		// metodos de Buffer (e nao de ByteBuffer) para manter compatibilidade com Java 8
+		Buffer buffer = dst;
+		int limit = buffer.limit();
+		if (buffer.remaining() > remaining) {
+			buffer.limit(buffer.position() + (int) remaining);
+		}
+		try {
+			int read = channel.read(dst);
+			if (read < 0) {
+				remaining = 0;
+			} else {
+				remaining -= read;
+			}
+			return read;
+		} finally {
+			buffer.limit(limit);
+		}
+	}
+
+	/**
+	 * Reads audio data into the array.
+	 *
+	 * @param b
+	 *            the buffer.
+	 * @param off
+	 *            the offset of the first byte.
+	 * @param len
+	 *            the maximum number of bytes.
+	 * @return the number of bytes read, or -1 at the end of the audio data.
+	 * @throws IOException
+	 *             if an I/O error occurs.
+	 */
+	public int read(byte[] b, int off, int len) throws IOException {
+		return read(ByteBuffer.wrap(b, off, len));
+	}
+
+	/**
+	 * @return the sample encoding.
+	 */
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * @return the number of channels.
+	 */
+	public int getChannels() {
+		return channels;
+	}
+
+	/**
+	 * @return the sample rate (Hz).
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * @return the number of bits of each sample.
+	 */
+	public int getBitsPerSample() {
+		return bitsPerSample;
+	}
+
+	/**
+	 * @return the number of bytes of a frame (one sample of each channel).
+	 */
+	public int getBlockAlign() {
+		return blockAlign;
+	}
+
+	/**
+	 * @return the length of the audio data (bytes), or -1 if the file does not
+	 *         inform it.
+	 */
+	public long getDataLength() {
+		return dataLength;
+	}
+
+	/**
+	 * @return the audio duration (seconds), or -1 if it is unknown.
+	 */
+	public float getDuration() {
+		return dataLength < 0 ? -1 : (float) dataLength / blockAlign / sampleRate;
+	}
+
+	/**
+	 * @return true if the audio is Linear PCM, signed 16 bits and mono, as
+	 *         expected by the server ('audio/raw').
+	 */
+	public boolean isRawCompatible() {
+		return encoding == Encoding.PCM && bitsPerSample == 16 && channels == 1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void readFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Truncated WAV header");
+			}
+		}
+	}
+
+	private void skip(long n) throws IOException {
+		if (channel instanceof SeekableByteChannel) {
+			SeekableByteChannel seekable = (SeekableByteChannel) channel;
+			seekable.position(seekable.position() + n);
+			return;
+		}
+		byte[] scratch = new byte[(int) Math.min(n, 4096)];
+		while (n > 0) {
+			int read = channel.read(ByteBuffer.wrap(scratch, 0, (int) Math.min(n, scratch.length)));
+			if (read < 0) {
+				throw new EOFException("Truncated WAV stream");
+			}
+			n -= read;
+		}
+	}
+
+	private static int fourCC(String id) {
+		return (id.charAt(0)) | (id.charAt(1) << 8) | (id.charAt(2) << 16) | (id.charAt(3) << 24);
+	}
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+
+/**
+ * Flight Recorder event for the reader task loop, which reads the audio source
+ * and sends the audio packets to the server.
+ *
+ */
+@Name("br.com.cpqd.asr.AudioSend")
+@Label("ASR Audio Send")
+@Category({ JfrSupport.CATEGORY, "Session" })
+@Description("Audio streaming loop of a recognition")
+@StackTrace(false)
+public class AudioSendEvent extends jdk.jfr.Event {
+
+	@Label("Handle")
+	public long handle;
+
+	@Label("Packets")
+	public int packets;
+
+	@Label("Audio Sent")
+	@DataAmount
+	public long bytes;
+
+	@Label("Cancelled")
+	public boolean cancelled;
+
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+
+/**
+ * Flight Recorder event for the execution of a registered RecognitionListener
+ * callback.
+ *
+ */
+@Name("br.com.cpqd.asr.ListenerCallback")
+@Label("ASR Listener Callback")
+@Category({ JfrSupport.CATEGORY, "Listener" })
+@Description("Execution of a RecognitionListener callback")
+@StackTrace(false)
+public class ListenerCallbackEvent extends jdk.jfr.Event {
+
+	@Label("Callback")
+	public String callback;
+
+	@Label("Listener Class")
+	public String listenerClass;
+
+	@Label("Handle")
+	public long handle;
+
+}
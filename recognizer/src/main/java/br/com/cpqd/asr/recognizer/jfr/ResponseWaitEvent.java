@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+
+/**
+ * Flight Recorder event for a request sent by 'sendMessageAndWait', covering
+ * the wait for the server response.
+ *
+ */
+@Name("br.com.cpqd.asr.ResponseWait")
+@Label("ASR Response Wait")
+@Category({ JfrSupport.CATEGORY, "Session" })
+@Description("Time blocked waiting for the server response of a request message")
+@StackTrace(false)
+public class ResponseWaitEvent extends jdk.jfr.Event {
+
+	@Label("Message Type")
+	public String messageType;
+
+	@Label("Handle")
+	public long handle;
+
+	@Label("Timed Out")
+	public boolean timedOut;
+
+}
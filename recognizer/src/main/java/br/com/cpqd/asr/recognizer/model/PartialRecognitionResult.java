@@ -28,6 +28,9 @@ public class PartialRecognitionResult {
 	/** the recognized text. */
 	private String text;
 
+	/** the length of the text prefix already delivered in the previous partial result. */
+	private int stableLength;
+
 	public int getSpeechSegmentIndex() {
 		return speechSegmentIndex;
 	}
@@ -44,6 +47,34 @@ public class PartialRecognitionResult {
 		this.text = text;
 	}
 
+	public int getStableLength() {
+		return stableLength;
+	}
+
+	public void setStableLength(int stableLength) {
+		this.stableLength = stableLength;
+	}
+
+	/**
+	 * Returns the beginning of the text that is equal to the previous partial
+	 * result of the segment.
+	 *
+	 * @return the stable prefix (empty if not computed).
+	 */
+	public String getStablePrefix() {
+		return text != null ? text.substring(0, Math.min(stableLength, text.length())) : "";
+	}
+
+	/**
+	 * Returns the end of the text that has changed since the previous partial
+	 * result of the segment.
+	 *
+	 * @return the changed tail (the whole text if the prefix is not computed).
+	 */
+	public String getChangedTail() {
+		return text != null ? text.substring(Math.min(stableLength, text.length())) : "";
+	}
+
 	@Override
 	public String toString() {
 		return text;
@@ -21,6 +21,6 @@ package br.com.cpqd.asr.recognizer.model;
  */
 public enum RecognitionErrorCode {
 
-	SESSION_TIMEOUT, CONNECTION_FAILURE, FAILURE;
+	SESSION_TIMEOUT, CONNECTION_FAILURE, FAILURE, OVERLOADED;
 
 }
@@ -18,32 +18,23 @@ package br.com.cpqd.asr.recognizer.ws;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-import javax.websocket.ClientEndpoint;
 import javax.websocket.CloseReason;
 import javax.websocket.CloseReason.CloseCodes;
 import javax.websocket.DeploymentException;
 import javax.websocket.EncodeException;
-import javax.websocket.OnClose;
-import javax.websocket.OnError;
-import javax.websocket.OnMessage;
-import javax.websocket.OnOpen;
-import javax.websocket.Session;
-
-import org.glassfish.tyrus.client.ClientManager;
-import org.glassfish.tyrus.client.ClientProperties;
-import org.glassfish.tyrus.client.SslContextConfigurator;
-import org.glassfish.tyrus.client.SslEngineConfigurator;
-import org.glassfish.tyrus.client.ThreadPoolConfig;
-import org.glassfish.tyrus.client.auth.AuthConfig;
-import org.glassfish.tyrus.client.auth.Credentials;
-import org.glassfish.tyrus.container.grizzly.client.GrizzlyClientProperties;
-import org.glassfish.tyrus.core.TyrusWebSocketEngine;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,16 +44,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.cpqd.asr.protocol.AsrMessage;
 import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
 import br.com.cpqd.asr.protocol.EndOfSpeechMessage;
+import br.com.cpqd.asr.protocol.InterpretText;
 import br.com.cpqd.asr.protocol.RecogWord;
 import br.com.cpqd.asr.protocol.RecognitionResult;
 import br.com.cpqd.asr.protocol.RecognitionResultMessage;
+import br.com.cpqd.asr.protocol.ReleaseSession;
 import br.com.cpqd.asr.protocol.ResponseMessage;
 import br.com.cpqd.asr.protocol.ResponseMessage.Result;
 import br.com.cpqd.asr.protocol.SessionStatus;
 import br.com.cpqd.asr.protocol.StartOfSpeechMessage;
-import br.com.cpqd.asr.protocol.encoder.AsrProtocolEncoder;
+import br.com.cpqd.asr.protocol.jfr.JfrSupport;
+import br.com.cpqd.asr.recognizer.OverflowPolicy;
+import br.com.cpqd.asr.recognizer.RecognitionException;
 import br.com.cpqd.asr.recognizer.RecognitionListener;
+import br.com.cpqd.asr.recognizer.RecognitionPriority;
+import br.com.cpqd.asr.recognizer.SslConfig;
 import br.com.cpqd.asr.recognizer.config.Config;
+import br.com.cpqd.asr.recognizer.jfr.ListenerCallbackEvent;
+import br.com.cpqd.asr.recognizer.jfr.ResponseWaitEvent;
 import br.com.cpqd.asr.recognizer.model.Interpretation;
 import br.com.cpqd.asr.recognizer.model.PartialRecognitionResult;
 import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
@@ -72,10 +71,11 @@ import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
 import br.com.cpqd.asr.recognizer.model.Word;
 
 /**
- * Websocket endpoint (JSR 356) for communicating with the ASR server.
+ * ASR session with the server. The session is carried by a websocket
+ * connection ({@link AsrConnection}), which may be shared by other sessions
+ * with the same server and configuration.
  *
  */
-@ClientEndpoint(decoders = { AsrProtocolEncoder.class }, encoders = { AsrProtocolEncoder.class })
 public class AsrClientEndpoint {
 
 	private static Logger logger = LoggerFactory.getLogger(AsrClientEndpoint.class.getName());
@@ -86,19 +86,56 @@ public class AsrClientEndpoint {
 
 	private URI uri;
 
-	private ClientManager clientManager;
+	private String username;
+
+	private String password;
+
+	/** The connection carrying the session. */
+	private volatile AsrConnection connection;
 
-	private Session session;
+	/** The session handle, assigned by the server. */
+	private volatile long handle;
 
-	private List<RecognitionListener> listeners = new ArrayList<>();
+	private List<RecognitionListener> listeners = new CopyOnWriteArrayList<>();
 
-	private SessionStatus status;
+	/** Last session status reported by the server. */
+	private volatile SessionStatus status;
+
+	/** True from the start of a recognition to its last final result. */
+	private volatile boolean recognizing;
 
 	private BlockingQueue<AsrMessage> responseQueue = new ArrayBlockingQueue<AsrMessage>(1);
 
+	/** Queued when the connection is closed, to release the thread waiting for a response. */
+	private static final ResponseMessage CONNECTION_CLOSED = new ResponseMessage();
+
 	private int sessionTimeoutTime = -1;
 
-	private boolean closeCalled;
+	/** The time of the last message sent or received by the session (ns). */
+	private volatile long lastActivity;
+
+	private volatile boolean closeCalled;
+
+	/** The maximum number of audio bytes waiting to be sent. */
+	private int audioBufferBytes = 256 * 1024;
+
+	/** The policy applied when the audio buffer is full. */
+	private OverflowPolicy audioOverflowPolicy = OverflowPolicy.BLOCK;
+
+	/** The maximum number of sessions sharing a connection (1 = dedicated). */
+	private int maxSessionsPerConnection = 1;
+
+	/** The TLS configuration of 'wss' connections. */
+	private SslConfig sslConfig;
+
+	/** The priority of the session audio in a shared connection. */
+	private RecognitionPriority priority = RecognitionPriority.INTERACTIVE;
+
+	/** Decides if a lost session will be recovered (the listeners are not notified). */
+	private Predicate<RecognitionError> connectionLostHandler;
+
+	/** The text interpretations waiting for the result, in request order. */
+	private final Deque<CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult>> interpretations = new ArrayDeque<>();
 
 	/**
 	 * Constructor.
@@ -121,51 +158,13 @@ public class AsrClientEndpoint {
 		}
 
 		this.uri = uri;
-
-		clientManager = ClientManager.createClient();
-
-		clientManager.getProperties().put(GrizzlyClientProperties.SELECTOR_THREAD_POOL_CONFIG,
-				ThreadPoolConfig.defaultConfig().setMaxPoolSize(Config.getSelectorThreads()));
-		clientManager.getProperties().put(GrizzlyClientProperties.WORKER_THREAD_POOL_CONFIG,
-				ThreadPoolConfig.defaultConfig().setMaxPoolSize(Config.getWorkerThreads()));
-		clientManager.getProperties().put(TyrusWebSocketEngine.INCOMING_BUFFER_SIZE, Config.getIncomingBufferSize());
-
-		if (uri.getScheme().toLowerCase().equals("wss")) {
-
-			System.getProperties().put("javax.net.debug", Config.getDebugLevel());
-
-			if (Config.getKeystore() != null) {
-				System.getProperties().put(SslContextConfigurator.KEY_STORE_FILE, Config.getKeystore());
-				System.getProperties().put(SslContextConfigurator.KEY_STORE_PASSWORD, Config.getKeystorePasswd());
-			}
-
-			if (Config.getTruststore() != null) {
-				System.getProperties().put(SslContextConfigurator.TRUST_STORE_FILE, Config.getTruststore());
-				System.getProperties().put(SslContextConfigurator.TRUST_STORE_PASSWORD, Config.getTruststorePasswd());
-			}
-
-			SslContextConfigurator defaultConfig = new SslContextConfigurator();
-			defaultConfig.retrieve(System.getProperties());
-
-			boolean clientMode = true;
-			boolean needClientAuth = false;
-			boolean wantClientAuth = false;
-			SslEngineConfigurator sslEngineConfigurator = new SslEngineConfigurator(defaultConfig, clientMode,
-					needClientAuth, wantClientAuth);
-			sslEngineConfigurator.setHostVerificationEnabled(false);
-			clientManager.getProperties().put(ClientProperties.SSL_ENGINE_CONFIGURATOR, sslEngineConfigurator);
-		}
-
-		if (username != null && password != null) {
-			AuthConfig authConfig = AuthConfig.Builder.create().build();
-			clientManager.getProperties().put(ClientProperties.AUTH_CONFIG, authConfig);
-			clientManager.getProperties().put(ClientProperties.CREDENTIALS,
-					new Credentials(username, password.getBytes()));
-		}
+		this.username = username;
+		this.password = password;
 	}
 
 	/**
-	 * Opens a websocket connection with the server.
+	 * Opens a websocket connection with the server, or joins a shared connection
+	 * with a free slot.
 	 *
 	 * @throws IOException
 	 *             some sort of I/O exception has ocurred.
@@ -173,8 +172,28 @@ public class AsrClientEndpoint {
 	 *             error when starting the endpoint.
 	 */
 	public void open() throws DeploymentException, IOException {
-		this.session = clientManager.connectToServer(this, uri);
-		this.session.setMaxIdleTimeout(sessionTimeoutTime);
+		// conexoes so sao compartilhadas entre sessoes com a mesma configuracao
+		SslConfig ssl = sslConfig != null ? sslConfig : SslConfig.getDefault();
+		Object key = Arrays.asList(uri, username, password, maxSessionsPerConnection, audioBufferBytes,
+				audioOverflowPolicy, ssl);
+		attach(AsrConnectionPool.acquire(key, () -> new AsrConnection(uri, username, password,
+				maxSessionsPerConnection, audioBufferBytes, audioOverflowPolicy, ssl), this));
+	}
+
+	/**
+	 * Starts a new session in an open connection.
+	 *
+	 * @param connection
+	 *            the connection.
+	 */
+	void attach(AsrConnection connection) {
+		this.closeCalled = false;
+		this.status = null;
+		this.recognizing = false;
+		this.handle = 0;
+		this.responseQueue.clear();
+		this.lastActivity = System.nanoTime();
+		this.connection = connection;
 	}
 
 	/**
@@ -192,7 +211,8 @@ public class AsrClientEndpoint {
 	 * @return true if the connection is open.
 	 */
 	public boolean isOpen() {
-		if (session != null && session.isOpen()) {
+		AsrConnection connection = this.connection;
+		if (connection != null && connection.isOpen()) {
 			return true;
 		} else {
 			return false;
@@ -200,17 +220,18 @@ public class AsrClientEndpoint {
 	}
 
 	/**
-	 * Closes the connection.
+	 * Leaves the connection. A dedicated connection, or the last session of a
+	 * shared one, is closed.
 	 */
 	public void close() {
-		try {
-			if (isOpen()) {
-				closeCalled = true;
-				session.close(new CloseReason(CloseCodes.NORMAL_CLOSURE, "Close called"));
-			}
-		} catch (IOException e) {
-			logger.error("Error while closing session: " + e.getMessage());
+		AsrConnection connection = this.connection;
+		if (connection != null) {
+			closeCalled = true;
+			this.connection = null;
+			connection.unregister(this, handle);
+			AsrConnectionPool.release(connection, this);
 		}
+		failInterpretations("Session closed");
 	}
 
 	/**
@@ -226,53 +247,222 @@ public class AsrClientEndpoint {
 	 *             error when encoding the ASR message to binary message.
 	 */
 	public synchronized ResponseMessage sendMessageAndWait(AsrMessage message) throws IOException, EncodeException {
-		session.getBasicRemote().sendObject(message);
+		ResponseWaitEvent event = JfrSupport.AVAILABLE ? new ResponseWaitEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+
+		ResponseMessage response = null;
 		try {
-			ResponseMessage response = (ResponseMessage) responseQueue.poll(Config.getExecutorTimeout(),
-					TimeUnit.SECONDS);
+			AsrConnection connection = getConnection();
+			lastActivity = System.nanoTime();
+			if (message.getmType() == AsrMessageType.CREATE_SESSION) {
+				response = connection.createSession(this, message,
+						TimeUnit.SECONDS.toMillis(Config.getExecutorTimeout()));
+				return response;
+			} else if (message.getmType() == AsrMessageType.CANCEL_RECOGNITION
+					|| message.getmType() == AsrMessageType.RELEASE_SESSION) {
+				// o audio pendente seria rejeitado pelo servidor
+				connection.discardAudio(message.getHandle());
+			}
+			connection.send(message);
+			response = pollResponse();
 			return response;
 		} catch (InterruptedException e) {
 			return null;
+		} finally {
+			if (event != null && event.shouldCommit()) {
+				event.messageType = message.getmType().name();
+				event.handle = message.getHandle();
+				event.timedOut = response == null;
+				event.commit();
+			}
 		}
 	}
 
 	/**
-	 * Send a binary message to the server, via websocket connection.
+	 * Sends a text interpretation request without waiting for the result. Many
+	 * requests may be in flight; the server answers them in order, so each
+	 * result completes the oldest pending request.
 	 *
 	 * @param message
-	 *            the protocol message object.
+	 *            the INTERPRET_TEXT message.
+	 * @return the future interpretation result.
 	 * @throws IOException
 	 *             if some sort or I/O error has ocurred.
+	 */
+	public CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> sendInterpretText(
+			InterpretText message) throws IOException {
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> future = new CompletableFuture<>();
+		// o envio e feito sob o lock para manter a ordem da fila igual a ordem das mensagens
+		synchronized (interpretations) {
+			AsrConnection connection = getConnection();
+			lastActivity = System.nanoTime();
+			interpretations.add(future);
+			try {
+				connection.send(message);
+			} catch (IOException | RuntimeException e) {
+				interpretations.removeLastOccurrence(future);
+				throw e;
+			}
+		}
+		return future;
+	}
+
+	/**
+	 * @return the number of text interpretations waiting for the result.
+	 */
+	public int getPendingInterpretations() {
+		synchronized (interpretations) {
+			return interpretations.size();
+		}
+	}
+
+	/**
+	 * Completes the oldest pending text interpretation.
+	 *
+	 * @return false if there is no pending interpretation.
+	 */
+	private boolean completeInterpretation(br.com.cpqd.asr.recognizer.model.RecognitionResult result,
+			RecognitionException error) {
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> future;
+		synchronized (interpretations) {
+			future = interpretations.poll();
+		}
+		if (future == null) {
+			return false;
+		} else if (error != null) {
+			future.completeExceptionally(error);
+		} else {
+			future.complete(result);
+		}
+		return true;
+	}
+
+	/**
+	 * Fails the pending text interpretations (e.g. the connection was closed).
+	 */
+	private void failInterpretations(String reason) {
+		while (completeInterpretation(null,
+				new RecognitionException(RecognitionErrorCode.CONNECTION_FAILURE, reason))) {
+			// todas as requisicoes pendentes sao encerradas
+		}
+	}
+
+	/**
+	 * Send a binary message to the server, via websocket connection. The message
+	 * is queued and written asynchronously; audio packets are subject to the
+	 * outbound audio buffer limit.
+	 *
+	 * @param message
+	 *            the protocol message object.
+	 * @throws IOException
+	 *             if some sort or I/O error has ocurred, or the audio buffer is
+	 *             full with the FAIL policy.
 	 * @throws EncodeException
 	 *             error when encoding the ASR message to binary message.
 	 */
-	public synchronized void sendMessage(AsrMessage message) throws IOException, EncodeException {
-		session.getBasicRemote().sendObject(message);
+	public void sendMessage(AsrMessage message) throws IOException, EncodeException {
+		AsrConnection connection = getConnection();
+		lastActivity = System.nanoTime();
+		connection.send(message);
+	}
+
+	private AsrConnection getConnection() throws IOException {
+		AsrConnection connection = this.connection;
+		if (connection == null) {
+			throw new IOException("Connection not open");
+		}
+		return connection;
+	}
+
+	/**
+	 * Waits for the response of the last request.
+	 *
+	 * @return the response message, or null on timeout.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	ResponseMessage pollResponse() throws InterruptedException {
+		return pollResponse(TimeUnit.SECONDS.toNanos(Config.getExecutorTimeout()));
+	}
+
+	/**
+	 * Waits for the response of the last request.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait (ns).
+	 * @return the response message, or null on timeout.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	ResponseMessage pollResponse(long timeout) throws InterruptedException {
+		AsrMessage response = responseQueue.poll(timeout, TimeUnit.NANOSECONDS);
+		return response != CONNECTION_CLOSED ? (ResponseMessage) response : null;
 	}
 
 	/**
-	 * Call back method called when the websocket connection is opened.
+	 * Binds the handle assigned by the server to the session.
 	 *
-	 * @param session
-	 *            the websocket session.
+	 * @param handle
+	 *            the session handle.
+	 */
+	void setHandle(long handle) {
+		this.handle = handle;
+	}
+
+	/**
+	 * @return the session handle.
 	 */
-	@OnOpen
-	public void onOpen(Session session) {
-		logger.trace("[{}] Connection opened", session.getId());
-		this.session = session;
+	long getHandle() {
+		return handle;
 	}
 
 	/**
-	 * Call back method called when the websocket connection is closed.
+	 * Verifies if the session idle timeout has expired.
+	 *
+	 * @param now
+	 *            the current time (ns).
+	 * @return true if there was no message sent or received during the session
+	 *         timeout.
+	 */
+	boolean isIdle(long now) {
+		return sessionTimeoutTime > 0 && now - lastActivity > TimeUnit.MILLISECONDS.toNanos(sessionTimeoutTime);
+	}
+
+	/**
+	 * Called when the session idle timeout expires. The session is released and
+	 * detached from the connection, which may still carry other sessions.
+	 */
+	void onIdleTimeout() {
+		AsrConnection connection = this.connection;
+		if (connection == null) {
+			return;
+		}
+		logger.debug("[{}] Session idle timeout", handle);
+
+		ReleaseSession message = new ReleaseSession();
+		message.setHandle(handle);
+		try {
+			connection.send(message);
+		} catch (IOException e) {
+			logger.debug("[{}] Error releasing idle session: {}", handle, e.getMessage());
+		}
+		connection.unregister(this, handle);
+		onConnectionClosed(new CloseReason(CloseCodes.CLOSED_ABNORMALLY,
+				"Session closed because of the idle timeout."));
+		AsrConnectionPool.release(connection, this);
+	}
+
+	/**
+	 * Called when the websocket connection carrying the session is closed.
 	 *
-	 * @param session
-	 *            the websocket session.
 	 * @param closeReason
 	 *            the close reason defined by the server.
 	 */
-	@OnClose
-	public void onClose(Session session, CloseReason closeReason) {
-		logger.trace("Connection closed because of {}", closeReason);
+	void onConnectionClosed(CloseReason closeReason) {
+		logger.trace("[{}] Connection closed because of {}", handle, closeReason);
+		this.connection = null;
 		// notificar os listeners caso a sessao tenha sido encerrada abrutamente
 		// encerrar reconhecimentos em andamento
 		if (!closeCalled) {
@@ -286,87 +476,66 @@ public class AsrClientEndpoint {
 				code = RecognitionErrorCode.CONNECTION_FAILURE;
 			}
 
-			for (RecognitionListener listener : this.listeners) {
-				listener.onError(new RecognitionError(code, closeStr));
+			RecognitionError error = new RecognitionError(code, closeStr);
+			if (code == RecognitionErrorCode.CONNECTION_FAILURE && connectionLostHandler != null
+					&& connectionLostHandler.test(error)) {
+				// a sessao sera recuperada em uma nova conexao
+				logger.info("[{}] Connection lost ({}), recovering session", handle, closeStr);
+			} else {
+				notifyListeners("onError", handle, listener -> listener.onError(error));
 			}
 		}
 
-		synchronized (responseQueue) {
-			// notifica alguma thread que esteja aguardando resposta no método
-			// sendMessageAndWait()
-			responseQueue.notifyAll();
-		}
+		failInterpretations("Connection closed");
+
+		// libera alguma thread que esteja aguardando resposta no método
+		// sendMessageAndWait()
+		responseQueue.clear();
+		responseQueue.offer(CONNECTION_CLOSED);
 	}
 
 	/**
-	 * Call back method called when a protocol message is received.
+	 * Called when a protocol message of the session is received.
 	 *
 	 * @param message
 	 *            the protocol message.
-	 * @param session
-	 *            the websocket session.
 	 */
-	@OnMessage
-	public void onMessage(AsrMessage message, Session session) {
+	void onMessage(AsrMessage message) {
+		lastActivity = System.nanoTime();
 
 		if (message instanceof RecognitionResultMessage) {
 
 			RecognitionResultMessage recogResult = (RecognitionResultMessage) message;
 
+			// atualiza status da sessao antes de notificar os listeners
+			status = recogResult.getSessionStatus();
+
 			if (recogResult.isFinalResult()) {
 				// notifica resultado final do reconhecimento (RECOGNIZED ou
 				// NO_MATCH, NO_INPUT_TIMEOUT, MAX_SPEECH, NO_SPEECH, EARLY_SPEECH,
 				// RECOGNITION_TIMEOUT
 				// FAILURE)
-				RecognitionResult result = recogResult.getRecognitionResult();
-
-				br.com.cpqd.asr.recognizer.model.RecognitionResult aResult = new br.com.cpqd.asr.recognizer.model.RecognitionResult();
-				aResult.setResultCode(RecognitionResultCode.valueOf(result.getRecognitionStatus().toString()));
-				aResult.setSpeechSegmentIndex(result.getSegmentIndex());
-				aResult.setLastSpeechSegment(result.isLastSegment());
-				aResult.setSegmentEndTime(result.getEndTime());
-				aResult.setSegmentStartTime(result.getStartTime());
-
-				for (br.com.cpqd.asr.protocol.RecognitionAlternative s : result.getAlternatives()) {
-					RecognitionAlternative alt = new RecognitionAlternative();
-					alt.setLanguageModel(s.getLm());
-					alt.setText(s.getText());
-					alt.setConfidence(s.getConfidence());
-
-					// copy interpretations
-					for (int i = 0; i < s.getInterpretations().size(); i++) {
-						Interpretation interp = new Interpretation();
-						Object interpObj = s.getInterpretations().get(i);
-						try {
-							interp.setInterpretation(jsonMapper.writeValueAsString(interpObj));
-							interp.setInterpretationConfidence(s.getInterpretationScoreList().get(i));
-							alt.getInterpretations().add(interp);
-						} catch (Exception e) {
-							logger.error("Error serializing intepretation obj to JSON [{}]: {}", e.getMessage(),
-									interpObj.toString());
-						}
-					}
-
-					// populate word alignment and confidence
-					for (RecogWord word : s.getWords()) {
-						Word w = new Word();
-						w.setConfidence(word.getConfidence());
-						w.setEndTime(word.getEndTime());
-						w.setStartTime(word.getStartTime());
-						w.setWord(word.getText());
-						alt.getWords().add(w);
-					}
+				br.com.cpqd.asr.recognizer.model.RecognitionResult aResult = toRecognitionResult(
+						recogResult.getRecognitionResult());
 
-					aResult.getAlternatives().add(alt);
+				boolean recognition = recognizing;
+				if (status != SessionStatus.LISTENING && status != SessionStatus.RECOGNIZING) {
+					recognizing = false;
 				}
 
-				for (RecognitionListener listener : listeners) {
-					try {
-						listener.onRecognitionResult(aResult);
-					} catch (Exception e) {
-						logger.warn("Error notifying listener of final result", e);
+				if (!recognition) {
+					// resultado de uma interpretacao de texto nao e notificado aos listeners
+					if (completeInterpretation(aResult, null)) {
+						return;
 					}
+				} else if (getPendingInterpretations() > 0) {
+					// as interpretacoes continuam aguardando os seus resultados
+					logger.warn("[{}] Recognition result received with {} text interpretations pending",
+							message.getHandle(), getPendingInterpretations());
 				}
+
+				notifyListeners("onRecognitionResult", message.getHandle(),
+						listener -> listener.onRecognitionResult(aResult));
 			} else {
 				// reconhecimento parcial
 				if (recogResult.getRecognitionResult() != null
@@ -375,19 +544,11 @@ public class AsrClientEndpoint {
 					partialResult.setSpeechSegmentIndex(recogResult.getRecognitionResult().getSegmentIndex());
 					partialResult.setText(recogResult.getRecognitionResult().getAlternative(0).getText());
 
-					for (RecognitionListener listener : listeners) {
-						try {
-							listener.onPartialRecognitionResult(partialResult);
-						} catch (Exception e) {
-							logger.warn("Error notifying listener of partial result", e);
-						}
-					}
+					notifyListeners("onPartialRecognitionResult", message.getHandle(),
+							listener -> listener.onPartialRecognitionResult(partialResult));
 				}
 			}
 
-			// atualiza status da sessao
-			status = recogResult.getSessionStatus();
-
 		} else if (message instanceof ResponseMessage) {
 			ResponseMessage resp = (ResponseMessage) message;
 
@@ -399,6 +560,13 @@ public class AsrClientEndpoint {
 				// prejudicar comunicacao do cliente com servidor)
 				logger.debug("[{}] Audio packet rejected by server", resp.getHandle());
 
+			} else if (resp.getMethod().equals(AsrMessageType.INTERPRET_TEXT)) {
+				// a resposta de sucesso e seguida pelo resultado da interpretacao
+				if (!resp.getResult().equals(Result.SUCCESS)) {
+					completeInterpretation(null,
+							new RecognitionException(RecognitionErrorCode.FAILURE, resp.getErrorMessage()));
+				}
+
 			} else {
 				// ao receber a mensagem do servidor, adiciona na fila
 				try {
@@ -411,41 +579,107 @@ public class AsrClientEndpoint {
 			}
 
 			// notifica o evento de LISTENING
-			if (resp.getMethod().equals(AsrMessageType.START_RECOGNITION)
+			if (resp.getMethod().equals(AsrMessageType.CANCEL_RECOGNITION)) {
+				recognizing = false;
+			} else if (resp.getMethod().equals(AsrMessageType.START_RECOGNITION)
 					&& resp.getSessionStatus().equals(SessionStatus.LISTENING)) {
-				for (RecognitionListener listener : listeners) {
-					listener.onListening();
-				}
+				recognizing = true;
+				notifyListeners("onListening", message.getHandle(), listener -> listener.onListening());
 			}
 
 		} else if (message instanceof StartOfSpeechMessage) {
-			for (RecognitionListener listener : listeners) {
-				int time = 0; // TODO for future implementation
-				try {
-					listener.onSpeechStart(time);
-				} catch (Exception e) {
-				}
-			}
+			int time = 0; // TODO for future implementation
+			notifyListeners("onSpeechStart", message.getHandle(), listener -> listener.onSpeechStart(time));
 
 		} else if (message instanceof EndOfSpeechMessage) {
 			// atualiza status da sessao
 			status = ((EndOfSpeechMessage) message).getSessionStatus();
-			for (RecognitionListener listener : listeners) {
-				int time = 0; // TODO for future implementation
+			int time = 0; // TODO for future implementation
+			notifyListeners("onSpeechStop", message.getHandle(), listener -> listener.onSpeechStop(time));
+		}
+	}
+
+	/**
+	 * Converts a protocol recognition result to the result model.
+	 *
+	 * @param result
+	 *            the protocol result.
+	 * @return the recognition result.
+	 */
+	private br.com.cpqd.asr.recognizer.model.RecognitionResult toRecognitionResult(RecognitionResult result) {
+		br.com.cpqd.asr.recognizer.model.RecognitionResult aResult = new br.com.cpqd.asr.recognizer.model.RecognitionResult();
+		aResult.setResultCode(RecognitionResultCode.valueOf(result.getRecognitionStatus().toString()));
+		aResult.setSpeechSegmentIndex(result.getSegmentIndex());
+		aResult.setLastSpeechSegment(result.isLastSegment());
+		aResult.setSegmentEndTime(result.getEndTime());
+		aResult.setSegmentStartTime(result.getStartTime());
+
+		for (br.com.cpqd.asr.protocol.RecognitionAlternative s : result.getAlternatives()) {
+			RecognitionAlternative alt = new RecognitionAlternative();
+			alt.setLanguageModel(s.getLm());
+			alt.setText(s.getText());
+			alt.setConfidence(s.getConfidence());
+
+			// copy interpretations
+			for (int i = 0; i < s.getInterpretations().size(); i++) {
+				Interpretation interp = new Interpretation();
+				Object interpObj = s.getInterpretations().get(i);
 				try {
-					listener.onSpeechStop(time);
+					interp.setInterpretation(jsonMapper.writeValueAsString(interpObj));
+					interp.setInterpretationConfidence(s.getInterpretationScoreList().get(i));
+					alt.getInterpretations().add(interp);
 				} catch (Exception e) {
+					logger.error("Error serializing intepretation obj to JSON [{}]: {}", e.getMessage(),
+							interpObj.toString());
 				}
 			}
+
+			// populate word alignment and confidence
+			for (RecogWord word : s.getWords()) {
+				Word w = new Word();
+				w.setConfidence(word.getConfidence());
+				w.setEndTime(word.getEndTime());
+				w.setStartTime(word.getStartTime());
+				w.setWord(word.getText());
+				alt.getWords().add(w);
+			}
+
+			aResult.getAlternatives().add(alt);
 		}
+
+		return aResult;
 	}
 
-	@OnError
-	public void onError(Session session, Throwable thr) {
-		if (!session.isOpen()) {
-			logger.warn("Socket closed because of {}", thr.getMessage());
-		} else {
-			logger.warn("Unexpected error", thr);
+	/**
+	 * Notifies the registered listeners of a recognition event. An exception
+	 * thrown by a listener does not prevent the notification of the others.
+	 *
+	 * @param callback
+	 *            the callback method name (for logging and monitoring).
+	 * @param handle
+	 *            the session handle.
+	 * @param action
+	 *            the callback invocation.
+	 */
+	private void notifyListeners(String callback, long handle, Consumer<RecognitionListener> action) {
+		for (RecognitionListener listener : listeners) {
+			ListenerCallbackEvent event = JfrSupport.AVAILABLE ? new ListenerCallbackEvent() : null;
+			if (event != null) {
+				event.begin();
+			}
+
+			try {
+				action.accept(listener);
+			} catch (Exception e) {
+				logger.warn("[{}] Error notifying listener ({})", handle, callback, e);
+			} finally {
+				if (event != null && event.shouldCommit()) {
+					event.callback = callback;
+					event.listenerClass = listener.getClass().getName();
+					event.handle = handle;
+					event.commit();
+				}
+			}
 		}
 	}
 
@@ -455,8 +689,9 @@ public class AsrClientEndpoint {
 	 * @return the websocket session id.
 	 */
 	public String getSessionId() {
-		if (isOpen()) {
-			return session.getId();
+		AsrConnection connection = this.connection;
+		if (connection != null && connection.isOpen()) {
+			return connection.getSessionId();
 		}
 		return null;
 	}
@@ -485,4 +720,92 @@ public class AsrClientEndpoint {
 		this.sessionTimeoutTime = sessionTimeoutTime;
 	}
 
+	/**
+	 * Sets the maximum number of audio bytes waiting to be sent. Applied on the
+	 * next connection.
+	 *
+	 * @param audioBufferBytes
+	 *            the buffer size in bytes.
+	 */
+	public void setAudioBufferBytes(int audioBufferBytes) {
+		this.audioBufferBytes = audioBufferBytes;
+	}
+
+	/**
+	 * Sets the policy applied when the outbound audio buffer is full. Applied on
+	 * the next connection.
+	 *
+	 * @param audioOverflowPolicy
+	 *            the overflow policy.
+	 */
+	public void setAudioOverflowPolicy(OverflowPolicy audioOverflowPolicy) {
+		this.audioOverflowPolicy = audioOverflowPolicy;
+	}
+
+	/**
+	 * Sets the maximum number of sessions sharing a websocket connection. Applied
+	 * on the next connection.
+	 *
+	 * @param maxSessionsPerConnection
+	 *            the number of sessions (1 = dedicated connection).
+	 */
+	public void setMaxSessionsPerConnection(int maxSessionsPerConnection) {
+		this.maxSessionsPerConnection = Math.max(1, maxSessionsPerConnection);
+	}
+
+	/**
+	 * Sets the TLS configuration of 'wss' connections. If not defined, the
+	 * configuration of the 'recognizer.properties' file is used.
+	 *
+	 * @param sslConfig
+	 *            the TLS configuration.
+	 */
+	public void setSslConfig(SslConfig sslConfig) {
+		this.sslConfig = sslConfig;
+	}
+
+	/**
+	 * @return the server URI.
+	 */
+	public URI getUri() {
+		return uri;
+	}
+
+	/**
+	 * Sets the server URI. Applied on the next connection.
+	 *
+	 * @param uri
+	 *            the websocket server endpoint URI.
+	 */
+	public void setUri(URI uri) {
+		this.uri = uri;
+	}
+
+	RecognitionPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Sets the priority of the session audio, when the connection is shared by
+	 * many sessions.
+	 *
+	 * @param priority
+	 *            the session priority.
+	 */
+	public void setPriority(RecognitionPriority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * Sets the handler of an unexpected connection loss. If the handler returns
+	 * true, the session will be recovered and the listeners are not notified of
+	 * the failure.
+	 *
+	 * @param connectionLostHandler
+	 *            the handler.
+	 */
+	public void setConnectionLostHandler(Predicate<RecognitionError> connectionLostHandler) {
+		this.connectionLostHandler = connectionLostHandler;
+	}
+
 }
@@ -0,0 +1,494 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.ws;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLEngine;
+import javax.websocket.ClientEndpoint;
+import javax.websocket.CloseReason;
+import javax.websocket.CloseReason.CloseCodes;
+import javax.websocket.DeploymentException;
+import javax.websocket.OnClose;
+import javax.websocket.OnError;
+import javax.websocket.OnMessage;
+import javax.websocket.OnOpen;
+import javax.websocket.Session;
+
+import org.glassfish.tyrus.client.ClientManager;
+import org.glassfish.tyrus.client.ClientProperties;
+import org.glassfish.tyrus.client.SslEngineConfigurator;
+import org.glassfish.tyrus.client.ThreadPoolConfig;
+import org.glassfish.tyrus.client.auth.AuthConfig;
+import org.glassfish.tyrus.client.auth.Credentials;
+import org.glassfish.tyrus.container.grizzly.client.GrizzlyClientProperties;
+import org.glassfish.tyrus.core.TyrusWebSocketEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.protocol.AsrMessage;
+import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
+import br.com.cpqd.asr.protocol.ResponseMessage;
+import br.com.cpqd.asr.protocol.ResponseMessage.Result;
+import br.com.cpqd.asr.protocol.SendAudio;
+import br.com.cpqd.asr.protocol.encoder.AsrProtocolEncoder;
+import br.com.cpqd.asr.recognizer.OverflowPolicy;
+import br.com.cpqd.asr.recognizer.RecognitionPriority;
+import br.com.cpqd.asr.recognizer.SslConfig;
+import br.com.cpqd.asr.recognizer.config.Config;
+
+/**
+ * Websocket connection (JSR 356) with the ASR server. A connection carries one
+ * or more ASR sessions ({@link AsrClientEndpoint}); the messages received are
+ * routed to the session by the 'Handle' header.
+ *
+ * The server assigns the handle in the CREATE_SESSION response, so session
+ * creations are serialized on each connection to correlate the responses. Each
+ * caller waits for its turn no longer than its own response timeout.
+ *
+ * The idle timeout is a property of each session: an idle session is released
+ * and detached from the connection, without affecting the other sessions.
+ *
+ */
+@ClientEndpoint(decoders = { AsrProtocolEncoder.class }, encoders = { AsrProtocolEncoder.class })
+public class AsrConnection {
+
+	private static Logger logger = LoggerFactory.getLogger(AsrConnection.class.getName());
+
+	/** Interval between the checks of idle sessions (ms). */
+	private static final long IDLE_CHECK_INTERVAL = 1000;
+
+	/** Checks the idle sessions of all connections. */
+	private static final ScheduledExecutorService idleTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "asr-session-idle-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final URI uri;
+
+	private final ClientManager clientManager;
+
+	/** The TLS configuration, shared with other connections. */
+	private final SslConfig sslConfig;
+
+	/** The maximum number of ASR sessions carried by the connection. */
+	private final int maxSessions;
+
+	/** Written by the websocket threads, read by the application threads. */
+	private volatile Session session;
+
+	private final OutboundQueue outbound;
+
+	/** The open ASR sessions, by handle. */
+	private final Map<Long, AsrClientEndpoint> sessions = new ConcurrentHashMap<>();
+
+	/** The endpoints using the connection (guarded by the pool). */
+	final Set<AsrClientEndpoint> attached = new HashSet<>();
+
+	/** Serializes the session creation. */
+	private final ReentrantLock createLock = new ReentrantLock();
+
+	/** The periodic check of idle sessions. */
+	private volatile ScheduledFuture<?> idleCheck;
+
+	/** The endpoint waiting for the CREATE_SESSION response. */
+	private volatile AsrClientEndpoint pendingCreate;
+
+	/** True after the connection is closed. */
+	private volatile boolean closed;
+
+	/** True after the sessions were notified of the connection loss. */
+	private final AtomicBoolean lost = new AtomicBoolean();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param uri
+	 *            the websocket server endpoint URI.
+	 * @param username
+	 *            Username to have access to API.
+	 * @param password
+	 *            Password to have access to API.
+	 * @param maxSessions
+	 *            the maximum number of ASR sessions in the connection.
+	 * @param audioBufferBytes
+	 *            the maximum number of audio bytes waiting to be sent, per
+	 *            session.
+	 * @param audioOverflowPolicy
+	 *            the policy applied when the audio buffer is full.
+	 * @param sslConfig
+	 *            the TLS configuration, used by 'wss' connections.
+	 */
+	AsrConnection(URI uri, String username, String password, int maxSessions, int audioBufferBytes,
+			OverflowPolicy audioOverflowPolicy, SslConfig sslConfig) {
+		this.uri = uri;
+		this.sslConfig = sslConfig;
+		this.maxSessions = maxSessions;
+		this.outbound = new OutboundQueue((message, handler) -> session.getAsyncRemote().sendObject(message, handler),
+				audioBufferBytes, audioOverflowPolicy, this::onSendFailure);
+
+		clientManager = ClientManager.createClient();
+
+		clientManager.getProperties().put(GrizzlyClientProperties.SELECTOR_THREAD_POOL_CONFIG,
+				ThreadPoolConfig.defaultConfig().setMaxPoolSize(Config.getSelectorThreads()));
+		clientManager.getProperties().put(GrizzlyClientProperties.WORKER_THREAD_POOL_CONFIG,
+				ThreadPoolConfig.defaultConfig().setMaxPoolSize(Config.getWorkerThreads()));
+		clientManager.getProperties().put(TyrusWebSocketEngine.INCOMING_BUFFER_SIZE, Config.getIncomingBufferSize());
+
+		if (username != null && password != null) {
+			AuthConfig authConfig = AuthConfig.Builder.create().build();
+			clientManager.getProperties().put(ClientProperties.AUTH_CONFIG, authConfig);
+			clientManager.getProperties().put(ClientProperties.CREDENTIALS,
+					new Credentials(username, password.getBytes()));
+		}
+	}
+
+	/**
+	 * Opens the websocket connection, if it is not open yet. Concurrent callers
+	 * wait for the first one to connect.
+	 *
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws DeploymentException
+	 *             error when starting the endpoint.
+	 */
+	synchronized void connect() throws DeploymentException, IOException {
+		if (closed) {
+			throw new IOException("Connection closed");
+		} else if (session == null) {
+			if (uri.getScheme().toLowerCase().equals("wss")) {
+				clientManager.getProperties().put(ClientProperties.SSL_ENGINE_CONFIGURATOR,
+						new ResumableSslEngineConfigurator(sslConfig, uri));
+			}
+			this.session = clientManager.connectToServer(this, uri);
+			this.idleCheck = idleTimer.scheduleWithFixedDelay(this::checkIdleSessions, IDLE_CHECK_INTERVAL,
+					IDLE_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Verifies if the connection is open.
+	 *
+	 * @return true if the connection is open.
+	 */
+	boolean isOpen() {
+		Session session = this.session;
+		return !closed && session != null && session.isOpen();
+	}
+
+	/**
+	 * Verifies if the connection was closed and can not be used anymore.
+	 *
+	 * @return true if the connection is closed.
+	 */
+	boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Verifies if the connection may carry one more ASR session.
+	 *
+	 * @return true if there is a free slot.
+	 */
+	boolean hasFreeSlot() {
+		return !closed && attached.size() < maxSessions;
+	}
+
+	/**
+	 * Closes the websocket connection.
+	 */
+	void close() {
+		closed = true;
+		outbound.close();
+		cancelIdleCheck();
+		try {
+			Session session = this.session;
+			if (session != null && session.isOpen()) {
+				session.close(new CloseReason(CloseCodes.NORMAL_CLOSURE, "Close called"));
+			}
+		} catch (IOException e) {
+			logger.error("Error while closing session: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends a message to the server. Audio packets are subject to the outbound
+	 * audio buffer limit.
+	 *
+	 * @param message
+	 *            the protocol message.
+	 * @throws IOException
+	 *             if the connection is closed or the audio buffer is full.
+	 */
+	void send(AsrMessage message) throws IOException {
+		if (message instanceof SendAudio) {
+			outbound.sendAudio((SendAudio) message);
+		} else {
+			outbound.sendControl(message);
+		}
+	}
+
+	/**
+	 * Discards the audio packets of a session waiting to be sent.
+	 *
+	 * @param handle
+	 *            the session handle.
+	 */
+	void discardAudio(long handle) {
+		outbound.discardAudio(handle);
+	}
+
+	/**
+	 * Sends the CREATE_SESSION message and waits for the response. The handle
+	 * returned by the server is bound to the endpoint. The time waiting for other
+	 * session creations counts towards the response timeout.
+	 *
+	 * @param endpoint
+	 *            the session endpoint.
+	 * @param message
+	 *            the CREATE_SESSION message.
+	 * @param timeout
+	 *            the maximum time to wait for the response (ms).
+	 * @return the response message, or null on timeout.
+	 * @throws IOException
+	 *             if the connection is closed.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted.
+	 */
+	ResponseMessage createSession(AsrClientEndpoint endpoint, AsrMessage message, long timeout)
+			throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		if (!createLock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+			logger.warn("[{}] Timeout waiting for other session creations", getSessionId());
+			return null;
+		}
+		try {
+			pendingCreate = endpoint;
+			outbound.sendControl(message);
+			return endpoint.pollResponse(Math.max(0, deadline - System.nanoTime()));
+		} finally {
+			pendingCreate = null;
+			createLock.unlock();
+		}
+	}
+
+	/**
+	 * Unbinds the session handle of the endpoint.
+	 *
+	 * @param endpoint
+	 *            the session endpoint.
+	 * @param handle
+	 *            the session handle.
+	 */
+	void unregister(AsrClientEndpoint endpoint, long handle) {
+		sessions.remove(handle, endpoint);
+		outbound.discardAudio(handle);
+		outbound.setBatch(handle, false);
+	}
+
+	/**
+	 * Releases the idle sessions. Called periodically by the idle timer.
+	 */
+	private void checkIdleSessions() {
+		long now = System.nanoTime();
+		for (AsrClientEndpoint endpoint : sessions.values()) {
+			if (endpoint.isIdle(now)) {
+				try {
+					endpoint.onIdleTimeout();
+				} catch (RuntimeException e) {
+					logger.warn("[{}] Error releasing idle session", endpoint.getHandle(), e);
+				}
+			}
+		}
+	}
+
+	private void cancelIdleCheck() {
+		ScheduledFuture<?> idleCheck = this.idleCheck;
+		if (idleCheck != null) {
+			idleCheck.cancel(false);
+		}
+	}
+
+	/**
+	 * Returns the websocket session id.
+	 *
+	 * @return the websocket session id.
+	 */
+	String getSessionId() {
+		Session session = this.session;
+		return session != null ? session.getId() : null;
+	}
+
+	/**
+	 * Call back method called when the websocket connection is opened.
+	 *
+	 * @param session
+	 *            the websocket session.
+	 */
+	@OnOpen
+	public void onOpen(Session session) {
+		logger.trace("[{}] Connection opened", session.getId());
+		this.session = session;
+	}
+
+	/**
+	 * Call back method called when the websocket connection is closed.
+	 *
+	 * @param session
+	 *            the websocket session.
+	 * @param closeReason
+	 *            the close reason defined by the server.
+	 */
+	@OnClose
+	public void onClose(Session session, CloseReason closeReason) {
+		logger.trace("Connection closed because of {}", closeReason);
+		connectionLost(closeReason);
+	}
+
+	/**
+	 * Called by the outbound queue when a message can not be written. The
+	 * connection is closed and the sessions are notified at once, so the threads
+	 * waiting for a response are released.
+	 *
+	 * @param error
+	 *            the write error.
+	 */
+	private void onSendFailure(Throwable error) {
+		logger.warn("[{}] Closing connection after write error: {}", getSessionId(), error.getMessage());
+		CloseReason reason = new CloseReason(CloseCodes.UNEXPECTED_CONDITION, "Error sending message");
+		connectionLost(reason);
+		try {
+			Session session = this.session;
+			if (session != null && session.isOpen()) {
+				session.close(reason);
+			}
+		} catch (IOException e) {
+			logger.debug("Error while closing session: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes the connection and notifies the sessions carried by it. Only the
+	 * first call has effect.
+	 *
+	 * @param closeReason
+	 *            the close reason.
+	 */
+	private void connectionLost(CloseReason closeReason) {
+		closed = true;
+		outbound.close();
+		cancelIdleCheck();
+		if (!lost.compareAndSet(false, true)) {
+			return;
+		}
+
+		// notifica todas as sessoes carregadas pela conexao
+		List<AsrClientEndpoint> endpoints = AsrConnectionPool.remove(this);
+		for (AsrClientEndpoint endpoint : endpoints) {
+			endpoint.onConnectionClosed(closeReason);
+		}
+		sessions.clear();
+	}
+
+	/**
+	 * Call back method called when a protocol message is received.
+	 *
+	 * @param message
+	 *            the protocol message.
+	 * @param session
+	 *            the websocket session.
+	 */
+	@OnMessage
+	public void onMessage(AsrMessage message, Session session) {
+		AsrClientEndpoint endpoint;
+		if (message instanceof ResponseMessage
+				&& AsrMessageType.CREATE_SESSION.equals(((ResponseMessage) message).getMethod())) {
+			// a resposta do CREATE_SESSION define o handle da sessao
+			endpoint = pendingCreate;
+			if (endpoint != null && Result.SUCCESS.equals(((ResponseMessage) message).getResult())) {
+				sessions.put(message.getHandle(), endpoint);
+				endpoint.setHandle(message.getHandle());
+				if (endpoint.getPriority() == RecognitionPriority.BATCH) {
+					outbound.setBatch(message.getHandle(), true);
+				}
+			}
+		} else {
+			endpoint = sessions.get(message.getHandle());
+		}
+
+		if (endpoint != null) {
+			endpoint.onMessage(message);
+		} else if (message instanceof ResponseMessage
+				&& AsrMessageType.RELEASE_SESSION.equals(((ResponseMessage) message).getMethod())) {
+			// resposta da liberacao de uma sessao ociosa, ja desvinculada da conexao
+			logger.debug("[{}] Idle session released", message.getHandle());
+		} else {
+			logger.warn("[{}] Message discarded, unknown session: {}", message.getHandle(), message.getmType());
+		}
+	}
+
+	@OnError
+	public void onError(Session session, Throwable thr) {
+		if (!session.isOpen()) {
+			logger.warn("Socket closed because of {}", thr.getMessage());
+		} else {
+			logger.warn("Unexpected error", thr);
+		}
+	}
+
+	/**
+	 * Creates the SSL engines from the shared SSLContext, with the server host and
+	 * port as peer information. The JSSE client session cache is indexed by the
+	 * peer, so a new connection to the same server resumes the TLS session.
+	 */
+	private static class ResumableSslEngineConfigurator extends SslEngineConfigurator {
+
+		private final int port;
+
+		ResumableSslEngineConfigurator(SslConfig config, URI uri) throws IOException {
+			super(config.getSslContext(), true, false, false);
+			this.port = uri.getPort() != -1 ? uri.getPort() : 443;
+			setHostVerificationEnabled(config.isHostVerification());
+			if (config.getEnabledProtocols() != null) {
+				setEnabledProtocols(config.getEnabledProtocols());
+			}
+			if (config.getEnabledCipherSuites() != null) {
+				setEnabledCipherSuites(config.getEnabledCipherSuites());
+			}
+		}
+
+		@Override
+		public SSLEngine createSSLEngine(String serverHost) {
+			SSLEngine engine = getSslContext().createSSLEngine(serverHost, port);
+			configure(engine);
+			return engine;
+		}
+	}
+
+}
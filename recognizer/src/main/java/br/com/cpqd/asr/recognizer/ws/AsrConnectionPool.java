@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.ws;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.websocket.DeploymentException;
+
+/**
+ * Shared websocket connections, grouped by server and configuration. A session
+ * is placed in an open connection with a free slot, or a new connection is
+ * created.
+ *
+ */
+final class AsrConnectionPool {
+
+	/** The connections by configuration key. */
+	private static final Map<Object, List<AsrConnection>> connections = new HashMap<>();
+
+	private AsrConnectionPool() {
+	}
+
+	/**
+	 * Attaches the endpoint to a connection, opening a new connection if needed.
+	 *
+	 * @param key
+	 *            the connection configuration key (server, credentials and
+	 *            options).
+	 * @param factory
+	 *            creates a new connection.
+	 * @param endpoint
+	 *            the session endpoint.
+	 * @return the open connection.
+	 * @throws IOException
+	 *             some sort of I/O exception has ocurred.
+	 * @throws DeploymentException
+	 *             error when starting the endpoint.
+	 */
+	static AsrConnection acquire(Object key, Supplier<AsrConnection> factory, AsrClientEndpoint endpoint)
+			throws DeploymentException, IOException {
+		AsrConnection connection = null;
+		synchronized (connections) {
+			List<AsrConnection> list = connections.computeIfAbsent(key, k -> new ArrayList<>());
+			for (AsrConnection c : list) {
+				if (c.hasFreeSlot()) {
+					connection = c;
+					break;
+				}
+			}
+			if (connection == null) {
+				connection = factory.get();
+				list.add(connection);
+			}
+			connection.attached.add(endpoint);
+		}
+
+		// a conexao e aberta fora do lock do pool
+		try {
+			connection.connect();
+			return connection;
+		} catch (DeploymentException | IOException | RuntimeException e) {
+			release(connection, endpoint);
+			throw e;
+		}
+	}
+
+	/**
+	 * Detaches the endpoint from the connection. The connection is closed when the
+	 * last endpoint is detached.
+	 *
+	 * @param connection
+	 *            the connection.
+	 * @param endpoint
+	 *            the session endpoint.
+	 */
+	static void release(AsrConnection connection, AsrClientEndpoint endpoint) {
+		boolean last;
+		synchronized (connections) {
+			last = connection.attached.remove(endpoint) && connection.attached.isEmpty();
+			if (last) {
+				remove(connection);
+			}
+		}
+
+		if (last) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Removes a closed connection from the pool.
+	 *
+	 * @param connection
+	 *            the connection.
+	 * @return the endpoints that were attached to the connection.
+	 */
+	static List<AsrClientEndpoint> remove(AsrConnection connection) {
+		synchronized (connections) {
+			connections.values().forEach(list -> list.remove(connection));
+			connections.values().removeIf(List::isEmpty);
+			if (connection.attached.isEmpty()) {
+				return Collections.emptyList();
+			}
+			return new ArrayList<>(connection.attached);
+		}
+	}
+}
@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.ws;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.cpqd.asr.protocol.AsrMessage;
+import br.com.cpqd.asr.protocol.SendAudio;
+import br.com.cpqd.asr.recognizer.OverflowPolicy;
+
+/**
+ * Outbound message queue of a websocket connection. Messages are written with
+ * the asynchronous remote endpoint, one at a time, so the calling threads are
+ * never blocked by a slow network peer.
+ *
+ * Control messages have priority over audio packets, and the audio of
+ * interactive sessions has priority over the audio of batch sessions. The
+ * amount of buffered audio of each session (handle) is limited by a byte budget; when it is
+ * exceeded, the overflow policy defines if the reader is blocked, the oldest
+ * packets of the session are discarded or the new packet is rejected.
+ *
+ * A failed write closes the queue: the remaining messages can not be delivered
+ * in order, so the failure is reported to the connection.
+ *
+ */
+class OutboundQueue {
+
+	private static Logger logger = LoggerFactory.getLogger(OutboundQueue.class.getName());
+
+	/** Writes a message to the connection. */
+	interface Sender {
+		void send(AsrMessage message, SendHandler handler);
+	}
+
+	private final Sender sender;
+
+	/** Called once when a write fails. */
+	private final Consumer<Throwable> failureHandler;
+
+	/** The maximum number of audio bytes waiting to be sent, per session. */
+	private final int budget;
+
+	private final OverflowPolicy policy;
+
+	private final Deque<AsrMessage> control = new ArrayDeque<>();
+
+	private final Deque<SendAudio> audio = new ArrayDeque<>();
+
+	/** Audio packets of the batch sessions, sent when there is no other message. */
+	private final Deque<SendAudio> batchAudio = new ArrayDeque<>();
+
+	/** The handles of the batch sessions. */
+	private final Set<Long> batchHandles = new HashSet<>();
+
+	/** Number of audio bytes waiting to be sent. */
+	private int audioBytes;
+
+	/** Number of audio bytes waiting to be sent, by session handle. */
+	private final Map<Long, Integer> sessionBytes = new HashMap<>();
+
+	/** Number of audio packets discarded by the DROP_OLDEST policy. */
+	private long droppedPackets;
+
+	/** True while a message is being written. */
+	private boolean sending;
+
+	private boolean closed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param sender
+	 *            writes the messages to the connection.
+	 * @param budget
+	 *            the maximum number of buffered audio bytes per session.
+	 * @param policy
+	 *            the overflow policy.
+	 */
+	OutboundQueue(Sender sender, int budget, OverflowPolicy policy) {
+		this(sender, budget, policy, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param sender
+	 *            writes the messages to the connection.
+	 * @param budget
+	 *            the maximum number of buffered audio bytes per session.
+	 * @param policy
+	 *            the overflow policy.
+	 * @param failureHandler
+	 *            called when a write fails, after the queue is closed (may be
+	 *            null).
+	 */
+	OutboundQueue(Sender sender, int budget, OverflowPolicy policy, Consumer<Throwable> failureHandler) {
+		this.sender = sender;
+		this.budget = budget;
+		this.policy = policy;
+		this.failureHandler = failureHandler;
+	}
+
+	/**
+	 * Queues a control message. Control messages are sent before any buffered
+	 * audio.
+	 *
+	 * @param message
+	 *            the protocol message.
+	 * @throws IOException
+	 *             if the queue is closed.
+	 */
+	void sendControl(AsrMessage message) throws IOException {
+		synchronized (this) {
+			if (closed) {
+				throw new IOException("Connection closed");
+			}
+			control.add(message);
+		}
+		dispatch();
+	}
+
+	/**
+	 * Queues an audio packet. The audio content is copied, so the caller can
+	 * reuse its buffer.
+	 *
+	 * @param message
+	 *            the audio message.
+	 * @throws IOException
+	 *             if the queue is closed, the budget is exceeded with the FAIL
+	 *             policy or the thread is interrupted while blocked.
+	 */
+	void sendAudio(SendAudio message) throws IOException {
+		int length = message.getContentLength();
+		long handle = message.getHandle();
+		if (message.getContent() != null) {
+			message.setContent(Arrays.copyOf(message.getContent(), length));
+		}
+
+		synchronized (this) {
+			if (closed) {
+				throw new IOException("Connection closed");
+			}
+
+			// um pacote maior que o buffer e aceito se a fila da sessao estiver vazia
+			int pending;
+			while ((pending = getAudioBytes(handle)) > 0 && pending + length > budget) {
+				if (policy == OverflowPolicy.FAIL) {
+					throw new IOException("Outbound audio buffer is full (" + pending + " bytes)");
+				} else if (policy == OverflowPolicy.DROP_OLDEST) {
+					// descarta o pacote mais antigo da mesma sessao
+					for (Iterator<SendAudio> it = audioQueue(handle).iterator(); it.hasNext();) {
+						SendAudio dropped = it.next();
+						if (dropped.getHandle() == handle) {
+							it.remove();
+							removed(dropped);
+							droppedPackets++;
+							break;
+						}
+					}
+				} else {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted waiting for outbound audio buffer");
+					}
+					if (closed) {
+						throw new IOException("Connection closed");
+					}
+				}
+			}
+
+			audioQueue(handle).add(message);
+			audioBytes += length;
+			sessionBytes.merge(handle, length, Integer::sum);
+		}
+		dispatch();
+	}
+
+	/**
+	 * Discards the buffered audio packets of a session (e.g. the recognition was
+	 * cancelled).
+	 *
+	 * @param handle
+	 *            the session handle.
+	 */
+	synchronized void discardAudio(long handle) {
+		int count = 0;
+		for (Iterator<SendAudio> it = audioQueue(handle).iterator(); it.hasNext();) {
+			SendAudio packet = it.next();
+			if (packet.getHandle() == handle) {
+				it.remove();
+				removed(packet);
+				count++;
+			}
+		}
+		if (count > 0) {
+			logger.debug("[{}] {} audio packets discarded", handle, count);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Sets the priority of the audio of a session.
+	 *
+	 * @param handle
+	 *            the session handle.
+	 * @param batch
+	 *            true if the session is a batch one.
+	 */
+	synchronized void setBatch(long handle, boolean batch) {
+		if (batch) {
+			batchHandles.add(handle);
+		} else if (batchHandles.remove(handle)) {
+			// pacotes pendentes voltam para a fila normal, mantendo a ordem
+			for (Iterator<SendAudio> it = batchAudio.iterator(); it.hasNext();) {
+				SendAudio packet = it.next();
+				if (packet.getHandle() == handle) {
+					it.remove();
+					audio.add(packet);
+				}
+			}
+		}
+	}
+
+	private Deque<SendAudio> audioQueue(long handle) {
+		return batchHandles.contains(handle) ? batchAudio : audio;
+	}
+
+	/**
+	 * Updates the byte counters after a packet leaves the queue.
+	 */
+	private void removed(SendAudio packet) {
+		int length = packet.getContentLength();
+		audioBytes -= length;
+		sessionBytes.computeIfPresent(packet.getHandle(), (k, v) -> v - length > 0 ? v - length : null);
+	}
+
+	/**
+	 * Closes the queue, discarding every pending message and releasing the blocked
+	 * threads.
+	 */
+	synchronized void close() {
+		closed = true;
+		control.clear();
+		audio.clear();
+		batchAudio.clear();
+		batchHandles.clear();
+		audioBytes = 0;
+		sessionBytes.clear();
+		notifyAll();
+	}
+
+	/**
+	 * @return true if the queue is closed.
+	 */
+	synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return the number of audio bytes waiting to be sent.
+	 */
+	synchronized int getAudioBytes() {
+		return audioBytes;
+	}
+
+	/**
+	 * @param handle
+	 *            the session handle.
+	 * @return the number of audio bytes of the session waiting to be sent.
+	 */
+	synchronized int getAudioBytes(long handle) {
+		return sessionBytes.getOrDefault(handle, 0);
+	}
+
+	/**
+	 * @return the number of audio packets discarded by the DROP_OLDEST policy.
+	 */
+	synchronized long getDroppedPackets() {
+		return droppedPackets;
+	}
+
+	/**
+	 * Starts writing the next message, if there is no other write in progress.
+	 */
+	private void dispatch() {
+		AsrMessage next;
+		synchronized (this) {
+			if (sending || closed) {
+				return;
+			}
+			next = control.poll();
+			if (next == null) {
+				SendAudio packet = audio.poll();
+				if (packet == null) {
+					packet = batchAudio.poll();
+				}
+				if (packet != null) {
+					removed(packet);
+					notifyAll();
+				}
+				next = packet;
+			}
+			if (next == null) {
+				return;
+			}
+			sending = true;
+		}
+
+		final AsrMessage message = next;
+		try {
+			sender.send(message, result -> onSent(message, result));
+		} catch (Exception e) {
+			onSent(message, new SendResult(e));
+		}
+	}
+
+	/**
+	 * Completion handler of the asynchronous write.
+	 */
+	private void onSent(AsrMessage message, SendResult result) {
+		if (!result.isOK()) {
+			Throwable error = result.getException() != null ? result.getException()
+					: new IOException("Error sending message");
+			logger.warn("[{}] Error sending {} message: {}", message.getHandle(), message.getmType(),
+					error.getMessage());
+
+			boolean first;
+			synchronized (this) {
+				sending = false;
+				first = !closed;
+			}
+			// as mensagens seguintes nao podem ser entregues em ordem
+			close();
+			if (first && failureHandler != null) {
+				failureHandler.accept(error);
+			}
+			return;
+		}
+
+		synchronized (this) {
+			sending = false;
+		}
+		dispatch();
+	}
+}
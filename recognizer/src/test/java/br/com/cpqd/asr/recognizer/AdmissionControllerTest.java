@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+
+public class AdmissionControllerTest {
+
+	@Test
+	public void waitForFreeSlot() throws Exception {
+		AdmissionController controller = new AdmissionController(1, 1);
+		controller.acquire(100);
+
+		CountDownLatch admitted = new CountDownLatch(1);
+		new Thread(() -> {
+			try {
+				controller.acquire(5000);
+				admitted.countDown();
+			} catch (Exception e) {
+				// falha detectada pelo latch
+			}
+		}).start();
+
+		Thread.sleep(100);
+		assertTrue(controller.getWaiting() == 1);
+		controller.release();
+		assertTrue(admitted.await(2, TimeUnit.SECONDS));
+		assertTrue(controller.getSessions() == 1);
+	}
+
+	@Test
+	public void failFast() throws Exception {
+		AdmissionController controller = new AdmissionController(1, 0);
+		controller.acquire(100);
+		try {
+			controller.acquire(5000);
+			fail("Queue is full");
+		} catch (RecognitionException e) {
+			assertTrue(e.getErrorCode() == RecognitionErrorCode.OVERLOADED);
+		}
+	}
+
+	@Test
+	public void deadline() throws Exception {
+		AdmissionController controller = new AdmissionController(1, 10);
+		controller.acquire(100);
+		long start = System.currentTimeMillis();
+		try {
+			controller.acquire(200);
+			fail("Deadline expired");
+		} catch (RecognitionException e) {
+			assertTrue(e.getErrorCode() == RecognitionErrorCode.OVERLOADED);
+			assertTrue(System.currentTimeMillis() - start >= 200);
+		}
+		assertTrue(controller.getWaiting() == 0);
+	}
+
+	@Test
+	public void interactiveFirst() throws Exception {
+		AdmissionController controller = new AdmissionController(1, 1);
+		controller.acquire(100);
+
+		List<RecognitionPriority> admitted = Collections.synchronizedList(new ArrayList<>());
+		List<RecognitionErrorCode> errors = Collections.synchronizedList(new ArrayList<>());
+		Thread batch = new Thread(() -> {
+			try {
+				controller.acquire(5000, RecognitionPriority.BATCH);
+				admitted.add(RecognitionPriority.BATCH);
+			} catch (RecognitionException e) {
+				errors.add(e.getErrorCode());
+			} catch (InterruptedException e) {
+				// fim do teste
+			}
+		});
+		batch.start();
+		Thread.sleep(100);
+
+		// a fila cheia de requisicoes batch nao bloqueia uma interativa
+		Thread interactive = new Thread(() -> {
+			try {
+				controller.acquire(5000, RecognitionPriority.INTERACTIVE);
+				admitted.add(RecognitionPriority.INTERACTIVE);
+			} catch (Exception e) {
+				// falha detectada pela lista
+			}
+		});
+		interactive.start();
+		batch.join(2000);
+		assertTrue(errors.equals(Collections.singletonList(RecognitionErrorCode.OVERLOADED)));
+
+		controller.release();
+		interactive.join(2000);
+		assertTrue(admitted.equals(Collections.singletonList(RecognitionPriority.INTERACTIVE)));
+	}
+
+	@Test
+	public void sharedByServer() throws Exception {
+		AdmissionController controller = AdmissionController.get("server-a", 2, 10);
+		controller.acquire(100);
+
+		// outra configuracao para o mesmo servidor: vale o menor limite
+		AdmissionController other = AdmissionController.get("server-a", 1, 0);
+		assertTrue(other == controller);
+		try {
+			other.acquire(5000);
+			fail("Session limit reached");
+		} catch (RecognitionException e) {
+			assertTrue(e.getErrorCode() == RecognitionErrorCode.OVERLOADED);
+		}
+		AdmissionController server = AdmissionController.get("server-b", 1, 0);
+		assertTrue(server != controller);
+		server.acquire(100);
+		server.release();
+
+		// sem sessoes nem requisicoes, o controlador e removido
+		controller.release();
+		AdmissionController next = AdmissionController.get("server-a", 2, 10);
+		assertTrue(next != controller);
+		next.acquire(100);
+		next.release();
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class FlacAudioSourceTest {
+
+	private static final String AUDIO = "src/test/resources/audio/";
+
+	private static byte[] readAll(AudioSource source) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] b = new byte[3200];
+		int read;
+		while ((read = source.read(b)) >= 0) {
+			out.write(b, 0, read);
+		}
+		source.close();
+		return out.toByteArray();
+	}
+
+	private static short[] wavSamples() throws IOException {
+		byte[] wav = Files.readAllBytes(new File(AUDIO + "cpf_8k.wav").toPath());
+		short[] samples = new short[(wav.length - 44) / 2];
+		ByteBuffer.wrap(wav, 44, samples.length * 2).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+		return samples;
+	}
+
+	@Test
+	public void decodeMono() throws IOException {
+		byte[] wav = Files.readAllBytes(new File(AUDIO + "cpf_8k.wav").toPath());
+		FlacAudioSource source = new FlacAudioSource(new File(AUDIO + "cpf_8k.flac"));
+		assertTrue(source.getDecoder().getSampleRate() == 8000 && source.getDecoder().getChannels() == 1);
+		assertTrue(source.getDecoder().getTotalSamples() == (wav.length - 44) / 2);
+
+		byte[] pcm = readAll(source);
+		assertTrue(Arrays.equals(pcm, Arrays.copyOfRange(wav, 44, 44 + pcm.length)));
+		assertTrue(pcm.length == wav.length - 44);
+	}
+
+	@Test
+	public void decodeStereoModes() throws IOException {
+		short[] x = wavSamples();
+		byte[] pcm = readAll(new FlacAudioSource(new File(AUDIO + "stereo_16k.flac")));
+		assertTrue(pcm.length == (4 * 1152 + 300) * 2);
+
+		ByteBuffer b = ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < pcm.length / 2; i++) {
+			int left = x[8000 + i];
+			int right = Math.floorDiv(left * 3, 4) + 7;
+			assertTrue(b.getShort() == (left + right) / 2);
+		}
+	}
+
+	@Test
+	public void decodeConstantAndWastedBits() throws IOException {
+		FlacAudioSource source = new FlacAudioSource(new File(AUDIO + "synthetic_8k.flac"));
+		ByteBuffer b = ByteBuffer.wrap(readAll(source)).order(ByteOrder.LITTLE_ENDIAN);
+		assertTrue(b.remaining() == (1152 * 2 + 500) * 2);
+		for (int i = 0; i < 1152; i++) {
+			assertTrue(b.getShort() == 123);
+		}
+		for (int i = 0; i < 1152; i++) {
+			assertTrue(b.getShort() == ((i * 37) % 2000 - 1000) * 4);
+		}
+		for (int i = 0; i < 500; i++) {
+			assertTrue(b.getShort() == (i * i) % 30000 - 15000);
+		}
+	}
+
+	@Test
+	public void parallelDecode() throws IOException {
+		byte[] sequential = readAll(new FlacAudioSource(new File(AUDIO + "cpf_8k.flac")));
+		byte[] parallel = readAll(new FlacAudioSource(new File(AUDIO + "cpf_8k.flac"), 4));
+		assertTrue(Arrays.equals(sequential, parallel));
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.G711.Law;
+
+public class G711Test {
+
+	@Test
+	public void knownValues() {
+		assertTrue(G711.decode(Law.ULAW, (byte) 0xff) == 0);
+		assertTrue(G711.decode(Law.ULAW, (byte) 0x00) == -32124);
+		assertTrue(G711.decode(Law.ALAW, (byte) 0xd5) == 8);
+		assertTrue(G711.decode(Law.ALAW, (byte) 0x55) == -8);
+		assertTrue(G711.encode(Law.ULAW, (short) 0) == (byte) 0xff);
+		assertTrue(G711.encode(Law.ALAW, (short) 0) == (byte) 0xd5);
+	}
+
+	@Test
+	public void codesAreStable() {
+		for (Law law : Law.values()) {
+			for (int code = 0; code < 256; code++) {
+				short sample = G711.decode(law, (byte) code);
+				assertTrue(G711.decode(law, G711.encode(law, sample)) == sample);
+			}
+		}
+	}
+
+	@Test
+	public void quantizationError() {
+		for (Law law : Law.values()) {
+			for (int sample = -32000; sample <= 32000; sample += 7) {
+				short decoded = G711.decode(law, G711.encode(law, (short) sample));
+				// erro relativo do segmento logaritmico
+				assertTrue(Math.abs(decoded - sample) <= Math.max(16, Math.abs(sample) / 16));
+			}
+		}
+	}
+
+	@Test
+	public void encoderSourceKeepsOddBytes() throws IOException {
+		byte[] linear = new byte[200];
+		for (int i = 0; i < 100; i++) {
+			short sample = (short) (i * 300 - 15000);
+			linear[2 * i] = (byte) sample;
+			linear[2 * i + 1] = (byte) (sample >> 8);
+		}
+
+		// fonte que entrega no maximo 3 bytes por leitura
+		ByteArrayInputStream in = new ByteArrayInputStream(linear);
+		AudioSource source = new InputStreamAudioSource(in) {
+			@Override
+			public int read(byte[] b) throws IOException {
+				return in.read(b, 0, Math.min(3, b.length));
+			}
+		};
+
+		G711EncoderAudioSource encoder = new G711EncoderAudioSource(source, Law.ULAW);
+		G711AudioSource decoder = new G711AudioSource(encoder, Law.ULAW, true);
+		byte[] buffer = new byte[10];
+		int total = 0;
+		int n;
+		while ((n = decoder.read(buffer)) >= 0) {
+			for (int i = 0; i < n; i += 2) {
+				short sample = (short) ((buffer[i] & 0xff) | (buffer[i + 1] << 8));
+				int index = (total + i) / 2;
+				assertTrue(Math.abs(sample - (index * 300 - 15000)) <= 1000);
+			}
+			total += n;
+		}
+		assertTrue(total == 200);
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class HedgedSpeechRecognizerTest {
+
+	private static final byte[] AUDIO = new byte[8000];
+
+	@Test
+	public void primaryWinsBeforeDelay() throws Exception {
+		StubSpeechRecognizer primary = StubSpeechRecognizer.recognized("primary", 0);
+		StubSpeechRecognizer hedge = StubSpeechRecognizer.recognized("hedge", 0);
+		try (HedgedSpeechRecognizer recognizer = new HedgedSpeechRecognizer(
+				new StubSpeechRecognizer.Builder(primary, hedge), 2000)) {
+			assertTrue(text(recognizer.recognize(audio(), null, null)).equals("primary"));
+		}
+		assertTrue(!hedge.isDone() && !primary.isCancelled());
+	}
+
+	@Test
+	public void hedgeWinsAndPrimaryIsCancelled() throws Exception {
+		StubSpeechRecognizer primary = StubSpeechRecognizer.recognized("primary", 5000);
+		StubSpeechRecognizer hedge = StubSpeechRecognizer.recognized("hedge", 0);
+		try (HedgedSpeechRecognizer recognizer = new HedgedSpeechRecognizer(
+				new StubSpeechRecognizer.Builder(primary, hedge), 100)) {
+			assertTrue(text(recognizer.recognize(audio(), null, null)).equals("hedge"));
+		}
+		assertTrue(primary.isCancelled() && !hedge.isCancelled());
+		assertTrue(primary.isClosed() && hedge.isClosed());
+	}
+
+	@Test
+	public void firstErrorIsRethrown() throws Exception {
+		StubSpeechRecognizer primary = StubSpeechRecognizer.failing("first", 300);
+		StubSpeechRecognizer hedge = StubSpeechRecognizer.failing("second", 800);
+		try (HedgedSpeechRecognizer recognizer = new HedgedSpeechRecognizer(
+				new StubSpeechRecognizer.Builder(primary, hedge), 100)) {
+			recognizer.recognize(audio(), null, null);
+			fail("Both sessions failed");
+		} catch (RecognitionException e) {
+			assertTrue(e.getErrorCode() == RecognitionErrorCode.FAILURE);
+			assertTrue(e.getMessage().equals("first"));
+		}
+		assertTrue(hedge.isDone());
+	}
+
+	@Test
+	public void secondSessionFailsToStart() throws Exception {
+		StubSpeechRecognizer primary = StubSpeechRecognizer.recognized("primary", 300);
+		StubSpeechRecognizer hedge = StubSpeechRecognizer.recognized("hedge", 0)
+				.startError(new RecognitionException(RecognitionErrorCode.OVERLOADED, "Session limit reached"));
+		try (HedgedSpeechRecognizer recognizer = new HedgedSpeechRecognizer(
+				new StubSpeechRecognizer.Builder(primary, hedge), 100)) {
+			// o resultado da primeira sessao e aguardado
+			assertTrue(text(recognizer.recognize(audio(), null, null)).equals("primary"));
+		}
+		assertTrue(!primary.isCancelled());
+	}
+
+	@Test
+	public void languageModelIsNotChanged() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr");
+		network.install(builder);
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general")
+				.addInlineGrammar("sim", "#JSGF V1.0; grammar sim; public <sim> = sim | nao;").build();
+		List<String> uris = new ArrayList<>(lm.getUriList());
+
+		// o audio so termina depois que a segunda sessao foi iniciada
+		InputStream input = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				long deadline = System.currentTimeMillis() + 5000;
+				while (network.languageModels.size() < 2 && System.currentTimeMillis() < deadline) {
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						throw new InterruptedIOException();
+					}
+				}
+				return -1;
+			}
+		};
+		try (HedgedSpeechRecognizer recognizer = new HedgedSpeechRecognizer(builder, 100)) {
+			recognizer.recognize(new InputStreamAudioSource(input), lm, null);
+		}
+
+		assertTrue(lm.getUriList().equals(uris));
+		assertTrue(network.languageModels.size() == 2);
+		for (List<String> models : network.languageModels) {
+			assertTrue(models.equals(Arrays.asList("builtin:slm/general", "session:sim")));
+		}
+	}
+
+	private static AudioSource audio() {
+		return new InputStreamAudioSource(new ByteArrayInputStream(AUDIO));
+	}
+
+	private static String text(List<RecognitionResult> results) {
+		return results.get(0).getAlternatives().get(0).getText();
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class ListenerDispatcherTest {
+
+	@Test
+	public void eventsAreOrdered() throws InterruptedException {
+		List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(1);
+		RecognitionListener listener = new SimpleRecognizerListener() {
+			@Override
+			public void onRecognitionResult(RecognitionResult result) {
+				received.add(result.getSpeechSegmentIndex());
+				if (received.size() == 1000) {
+					done.countDown();
+				}
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ListenerDispatcher dispatcher = new ListenerDispatcher(Collections.singletonList(listener), executor,
+					1000, OverflowPolicy.FAIL, 1000, RecognitionPriority.INTERACTIVE, () -> 1L);
+			for (int i = 0; i < 1000; i++) {
+				RecognitionResult result = new RecognitionResult();
+				result.setSpeechSegmentIndex(i);
+				dispatcher.onRecognitionResult(result);
+			}
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			for (int i = 0; i < 1000; i++) {
+				assertTrue(received.get(i) == i);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void callerIsNotBlocked() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		RecognitionListener listener = new SimpleRecognizerListener() {
+			@Override
+			public void onListening() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ListenerDispatcher dispatcher = new ListenerDispatcher(Collections.singletonList(listener), executor, 16,
+					OverflowPolicy.DROP_OLDEST, 1000, RecognitionPriority.INTERACTIVE, () -> 1L);
+			long start = System.nanoTime();
+			dispatcher.onListening();
+			dispatcher.onListening();
+			assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void fullQueueDoesNotBlockCaller() throws InterruptedException {
+		for (OverflowPolicy policy : new OverflowPolicy[] { OverflowPolicy.DROP_OLDEST, OverflowPolicy.FAIL }) {
+			CountDownLatch blocked = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+			RecognitionListener listener = new SimpleRecognizerListener() {
+				@Override
+				public void onListening() {
+					blocked.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				@Override
+				public void onRecognitionResult(RecognitionResult result) {
+					received.add(result.getSpeechSegmentIndex());
+				}
+			};
+
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				ListenerDispatcher dispatcher = new ListenerDispatcher(Collections.singletonList(listener), executor,
+						2, policy, 1000, RecognitionPriority.INTERACTIVE, () -> 1L);
+				// o listener fica parado no primeiro evento: a fila enche
+				dispatcher.onListening();
+				assertTrue(blocked.await(5, TimeUnit.SECONDS));
+				long start = System.nanoTime();
+				for (int i = 0; i < 10; i++) {
+					RecognitionResult result = new RecognitionResult();
+					result.setSpeechSegmentIndex(i);
+					dispatcher.onRecognitionResult(result);
+				}
+				assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+				release.countDown();
+
+				long deadline = System.currentTimeMillis() + 5000;
+				while (received.size() < 2 && System.currentTimeMillis() < deadline) {
+					Thread.sleep(10);
+				}
+				assertTrue(received.size() == 2);
+				assertTrue(dispatcher.getDroppedEvents() == 8);
+				if (policy == OverflowPolicy.DROP_OLDEST) {
+					assertTrue(received.get(0) == 8 && received.get(1) == 9);
+				} else {
+					assertTrue(received.get(0) == 0 && received.get(1) == 1);
+				}
+			} finally {
+				release.countDown();
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	@Test
+	public void blockIsRejected() {
+		try {
+			new ListenerDispatcher(Collections.emptyList(), Runnable::run, 1, OverflowPolicy.BLOCK, 1000,
+					RecognitionPriority.INTERACTIVE, () -> 1L);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
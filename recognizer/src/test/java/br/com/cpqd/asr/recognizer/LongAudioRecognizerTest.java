@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+public class LongAudioRecognizerTest {
+
+	@Test
+	public void cutAtSilence() {
+		int rate = 8000;
+		byte[] audio = new byte[rate * 2 * 3];
+		for (int i = 0; i < audio.length / 2; i++) {
+			short value = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / rate));
+			// silencio entre 1.5 s e 1.6 s
+			if (i >= rate * 3 / 2 && i < rate * 8 / 5) {
+				value = 0;
+			}
+			audio[2 * i] = (byte) value;
+			audio[2 * i + 1] = (byte) (value >> 8);
+		}
+
+		int cut = LongAudioRecognizer.findCut(audio, rate * 2, audio.length, rate / 50 * 2);
+		assertTrue(cut >= rate * 3 && cut < rate * 16 / 5);
+		assertTrue(cut % 2 == 0);
+	}
+
+	/**
+	 * Chunk recognizer that returns a segment for each run of non zero samples
+	 * (the 'speech') found in the chunk. The chunks are recognized by a single
+	 * session, in order.
+	 */
+	private static List<RecognitionResult> findBursts(byte[] chunk, int rate, List<int[]> chunks) {
+		List<RecognitionResult> results = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= chunk.length / 2; i++) {
+			boolean speech = i < chunk.length / 2 && (chunk[2 * i] != 0 || chunk[2 * i + 1] != 0);
+			if (speech && start < 0) {
+				start = i;
+			} else if (!speech && start >= 0) {
+				RecognitionResult result = new RecognitionResult();
+				result.setResultCode(RecognitionResultCode.RECOGNIZED);
+				result.setSegmentStartTime((float) start / rate);
+				result.setSegmentEndTime((float) i / rate);
+				results.add(result);
+				start = -1;
+			}
+		}
+		// tamanho do trecho e numero de segmentos
+		chunks.add(new int[] { chunk.length, results.size() });
+		return results;
+	}
+
+	@Test
+	public void chunksAreStitched() throws Exception {
+		int rate = 8000;
+		// 3 s de silencio com rajadas de 100 ms e um byte extra (tamanho impar)
+		byte[] audio = new byte[rate * 2 * 3 + 1];
+		float[] bursts = { 0.3f, 0.8f, 1.2f, 2.5f };
+		for (float burst : bursts) {
+			for (int i = Math.round(burst * rate); i < Math.round((burst + 0.1f) * rate); i++) {
+				audio[2 * i] = (byte) 0xe8;
+				audio[2 * i + 1] = (byte) 0x03;
+			}
+		}
+		audio[audio.length - 1] = 1;
+
+		List<int[]> chunks = new ArrayList<>();
+		LongAudioRecognizer recognizer = new LongAudioRecognizer(null, 1, rate);
+		recognizer.setChunkSeconds(1, 1);
+		recognizer.setOverlapMillis(500);
+		List<RecognitionResult> results = recognizer.recognize(
+				new InputStreamAudioSource(new ByteArrayInputStream(audio)),
+				chunk -> findBursts(chunk, rate, chunks));
+
+		// trechos: 0-1.01 s, 0.51-1.52 s e 1.02-3 s; as rajadas em 0.8 s e 1.2 s
+		// estao na sobreposicao e sao retornadas por dois trechos
+		assertTrue(chunks.size() == 3);
+		assertTrue(chunks.get(2)[0] % 2 == 0);
+		assertTrue(chunks.get(0)[1] + chunks.get(1)[1] + chunks.get(2)[1] == bursts.length + 2);
+		assertTrue(results.size() == bursts.length);
+		for (int i = 0; i < bursts.length; i++) {
+			RecognitionResult result = results.get(i);
+			assertTrue(Math.abs(result.getSegmentStartTime() - bursts[i]) < 0.001);
+			assertTrue(Math.abs(result.getSegmentEndTime() - (bursts[i] + 0.1f)) < 0.001);
+			assertTrue(result.getSpeechSegmentIndex() == i);
+			assertTrue(result.isLastSpeechSegment() == (i == bursts.length - 1));
+		}
+	}
+
+	@Test
+	public void languageModelIsNotChanged() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr");
+		network.install(builder);
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general")
+				.addInlineGrammar("sim", "#JSGF V1.0; grammar sim; public <sim> = sim | nao;").build();
+		List<String> uris = new ArrayList<>(lm.getUriList());
+
+		// trechos reconhecidos em paralelo com o mesmo modelo de linguagem
+		LongAudioRecognizer recognizer = new LongAudioRecognizer(builder, 3, 8000);
+		recognizer.setChunkSeconds(1, 1);
+		try {
+			recognizer.recognize(new InputStreamAudioSource(new ByteArrayInputStream(new byte[8000 * 2 * 6])), lm,
+					null);
+		} finally {
+			recognizer.close();
+		}
+
+		assertTrue(lm.getUriList().equals(uris));
+		assertTrue(network.languageModels.size() > 1);
+		for (List<String> models : network.languageModels) {
+			assertTrue(models.equals(Arrays.asList("builtin:slm/general", "session:sim")));
+		}
+	}
+}
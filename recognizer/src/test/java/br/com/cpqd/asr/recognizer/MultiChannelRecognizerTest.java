@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+public class MultiChannelRecognizerTest {
+
+	private static final int RATE = 8000;
+
+	/**
+	 * Creates interleaved audio: silence with 100 ms bursts of a constant value,
+	 * which identifies the channel.
+	 */
+	private static byte[] interleave(float[][] bursts, int seconds) {
+		int channels = bursts.length;
+		byte[] audio = new byte[RATE * seconds * channels * 2];
+		for (int c = 0; c < channels; c++) {
+			for (float burst : bursts[c]) {
+				for (int i = Math.round(burst * RATE); i < Math.round((burst + 0.1f) * RATE); i++) {
+					audio[(i * channels + c) * 2] = (byte) (c + 1);
+				}
+			}
+		}
+		return audio;
+	}
+
+	/**
+	 * Returns a segment for each burst; fails if the audio has samples of another
+	 * channel.
+	 */
+	private static StubSpeechRecognizer channel(int c) {
+		return new StubSpeechRecognizer(audio -> {
+			List<RecognitionResult> results = new ArrayList<>();
+			int start = -1;
+			for (int i = 0; i <= audio.length / 2; i++) {
+				int value = i < audio.length / 2 ? audio[2 * i] | audio[2 * i + 1] << 8 : 0;
+				if (value != 0 && value != c + 1) {
+					throw new RecognitionException(RecognitionErrorCode.FAILURE, "Sample of another channel");
+				} else if (value != 0 && start < 0) {
+					start = i;
+				} else if (value == 0 && start >= 0) {
+					RecognitionResult result = new RecognitionResult();
+					result.setResultCode(RecognitionResultCode.RECOGNIZED);
+					result.setSegmentStartTime((float) start / RATE);
+					result.setSegmentEndTime((float) i / RATE);
+					results.add(result);
+					start = -1;
+				}
+			}
+			return results;
+		});
+	}
+
+	@Test
+	public void channelsAreMerged() throws Exception {
+		byte[] audio = interleave(new float[][] { { 0.1f, 0.5f }, { 0.3f, 0.7f } }, 1);
+
+		MultiChannelRecognizer recognizer = new MultiChannelRecognizer(
+				new StubSpeechRecognizer.Builder(channel(0)).channelIdentifier("agent"),
+				new StubSpeechRecognizer.Builder(channel(1)).channelIdentifier("customer"));
+		List<MultiChannelRecognizer.ChannelResult> transcript = recognizer
+				.recognize(new InputStreamAudioSource(new ByteArrayInputStream(audio)), null, null);
+
+		String[] speakers = { "agent", "customer", "agent", "customer" };
+		float[] starts = { 0.1f, 0.3f, 0.5f, 0.7f };
+		assertTrue(transcript.size() == 4);
+		for (int i = 0; i < 4; i++) {
+			MultiChannelRecognizer.ChannelResult result = transcript.get(i);
+			assertTrue(result.getChannelIdentifier().equals(speakers[i]));
+			assertTrue(result.getChannel() == i % 2);
+			assertTrue(Math.abs(result.getResult().getSegmentStartTime() - starts[i]) < 0.001);
+		}
+	}
+
+	@Test
+	public void slowChannelDoesNotBlockOthers() throws Exception {
+		byte[] audio = interleave(new float[][] { { 0.5f }, { 1.5f } }, 2);
+
+		CountDownLatch gate = new CountDownLatch(1);
+		StubSpeechRecognizer fast = channel(0);
+		StubSpeechRecognizer slow = channel(1).readGate(gate);
+		MultiChannelRecognizer recognizer = new MultiChannelRecognizer(new StubSpeechRecognizer.Builder(fast),
+				new StubSpeechRecognizer.Builder(slow));
+
+		AtomicBoolean fastFirst = new AtomicBoolean();
+		Thread releaser = new Thread(() -> {
+			try {
+				// o canal lento so comeca a ler depois que o outro terminou
+				long deadline = System.currentTimeMillis() + 5000;
+				while (!fast.isDone() && System.currentTimeMillis() < deadline) {
+					Thread.sleep(10);
+				}
+			} catch (InterruptedException e) {
+			}
+			fastFirst.set(fast.isDone());
+			gate.countDown();
+		});
+		releaser.start();
+
+		List<MultiChannelRecognizer.ChannelResult> transcript = recognizer
+				.recognize(new InputStreamAudioSource(new ByteArrayInputStream(audio)), null, null);
+		assertTrue(transcript.size() == 2);
+		assertTrue(transcript.get(0).getChannel() == 0);
+		assertTrue(fastFirst.get());
+	}
+
+	@Test
+	public void startFailureCancelsChannels() throws Exception {
+		byte[] audio = interleave(new float[][] { { 0.5f }, { 0.5f } }, 1);
+
+		CountDownLatch gate = new CountDownLatch(1);
+		StubSpeechRecognizer first = channel(0).readGate(gate);
+		StubSpeechRecognizer second = channel(1)
+				.startError(new RecognitionException(RecognitionErrorCode.FAILURE, "Session limit"));
+		MultiChannelRecognizer recognizer = new MultiChannelRecognizer(new StubSpeechRecognizer.Builder(first),
+				new StubSpeechRecognizer.Builder(second));
+		try {
+			recognizer.recognize(new InputStreamAudioSource(new ByteArrayInputStream(audio)), null, null);
+			fail("RecognitionException expected");
+		} catch (RecognitionException e) {
+			assertTrue(e.getMessage().equals("Session limit"));
+		} finally {
+			gate.countDown();
+		}
+		assertTrue(first.isCancelled());
+	}
+
+	@Test
+	public void languageModelIsNotChanged() throws Exception {
+		byte[] audio = interleave(new float[][] { { 0.1f }, { 0.3f } }, 1);
+
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder[] builders = new SpeechRecognizer.Builder[2];
+		for (int c = 0; c < builders.length; c++) {
+			builders[c] = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr");
+			network.install(builders[c]);
+		}
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general")
+				.addInlineGrammar("sim", "#JSGF V1.0; grammar sim; public <sim> = sim | nao;").build();
+		List<String> uris = new ArrayList<>(lm.getUriList());
+
+		// os canais sao reconhecidos em paralelo com o mesmo modelo de linguagem
+		try (MultiChannelRecognizer recognizer = new MultiChannelRecognizer(builders)) {
+			List<MultiChannelRecognizer.ChannelResult> transcript = recognizer
+					.recognize(new InputStreamAudioSource(new ByteArrayInputStream(audio)), lm, null);
+			assertTrue(transcript.size() == 2);
+		}
+
+		assertTrue(lm.getUriList().equals(uris));
+		assertTrue(network.languageModels.size() == 2);
+		for (List<String> models : network.languageModels) {
+			assertTrue(models.equals(Arrays.asList("builtin:slm/general", "session:sim")));
+		}
+	}
+}
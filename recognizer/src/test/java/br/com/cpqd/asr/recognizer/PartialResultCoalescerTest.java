@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.PartialRecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class PartialResultCoalescerTest {
+
+	/** Clock and scheduler advanced by the test. */
+	private static class ManualTime implements PartialResultCoalescer.Scheduler {
+
+		private long now;
+
+		private final List<Object[]> tasks = new ArrayList<>();
+
+		long now() {
+			return now;
+		}
+
+		@Override
+		public FutureTask<?> schedule(Runnable task, long delayNanos) {
+			FutureTask<?> future = new FutureTask<>(task, null);
+			tasks.add(new Object[] { now + delayNanos, future });
+			return future;
+		}
+
+		/** Advances the clock, running the tasks due. */
+		void advance(long millis) {
+			now += TimeUnit.MILLISECONDS.toNanos(millis);
+			for (Iterator<Object[]> it = tasks.iterator(); it.hasNext();) {
+				Object[] task = it.next();
+				if ((Long) task[0] <= now) {
+					it.remove();
+					((FutureTask<?>) task[1]).run();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void stablePrefix() {
+		assertTrue(PartialResultCoalescer.stablePrefix("ola", "ola mundo") == 3);
+		assertTrue(PartialResultCoalescer.stablePrefix("ola mun", "ola mundo") == 4);
+		assertTrue(PartialResultCoalescer.stablePrefix("casa azul", "casa verde") == 5);
+		assertTrue(PartialResultCoalescer.stablePrefix("abc", "xyz") == 0);
+	}
+
+	@Test
+	public void partialsAreCoalesced() {
+		List<String> received = new ArrayList<>();
+		RecognitionListener listener = new SimpleRecognizerListener() {
+			@Override
+			public void onPartialRecognitionResult(PartialRecognitionResult result) {
+				received.add(result.getChangedTail());
+			}
+
+			@Override
+			public void onRecognitionResult(RecognitionResult result) {
+				received.add("final");
+			}
+		};
+		ManualTime time = new ManualTime();
+		PartialResultCoalescer coalescer = new PartialResultCoalescer(Collections.singletonList(listener), 5,
+				() -> 1L, time, time::now);
+
+		coalescer.onListening();
+		coalescer.onPartialRecognitionResult(partial("ola"));
+		coalescer.onPartialRecognitionResult(partial("ola mu"));
+		coalescer.onPartialRecognitionResult(partial("ola mundo"));
+		assertTrue(received.size() == 1);
+
+		// fim do intervalo de 200 ms: o ultimo parcial pendente e entregue
+		time.advance(200);
+		assertTrue(received.size() == 2);
+
+		time.advance(200);
+		coalescer.onPartialRecognitionResult(partial("ola mundo novo"));
+		coalescer.onPartialRecognitionResult(partial("ola mundo novo e"));
+		coalescer.onRecognitionResult(new RecognitionResult());
+		time.advance(400);
+
+		assertTrue(received.toString(), received.size() == 4);
+		assertTrue(received.get(0).equals("ola"));
+		assertTrue(received.get(1).equals(" mundo"));
+		assertTrue(received.get(2).equals(" novo"));
+		assertTrue(received.get(3).equals("final"));
+	}
+
+	@Test
+	public void listenersRunWithoutLock() throws InterruptedException {
+		List<String> received = Collections.synchronizedList(new ArrayList<>());
+		List<PartialResultCoalescer> holder = new ArrayList<>();
+		RecognitionListener listener = new SimpleRecognizerListener() {
+			@Override
+			public void onListening() {
+				// outra thread notifica um evento durante o callback
+				Thread other = new Thread(() -> holder.get(0).onSpeechStart(100));
+				other.start();
+				try {
+					other.join(1000);
+				} catch (InterruptedException e) {
+				}
+				received.add(other.isAlive() ? "blocked" : "listening");
+			}
+
+			@Override
+			public void onSpeechStart(Integer time) {
+				received.add("start");
+			}
+		};
+		ManualTime time = new ManualTime();
+		holder.add(new PartialResultCoalescer(Collections.singletonList(listener), 5, () -> 1L, time, time::now));
+
+		holder.get(0).onListening();
+		// o evento da outra thread e entregue depois, em ordem
+		assertTrue(received.toString(), received.size() == 2);
+		assertTrue(received.get(0).equals("listening"));
+		assertTrue(received.get(1).equals("start"));
+	}
+
+	private static PartialRecognitionResult partial(String text) {
+		PartialRecognitionResult result = new PartialRecognitionResult();
+		result.setSpeechSegmentIndex(0);
+		result.setText(text);
+		return result;
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+public class RecognitionCacheTest {
+
+	private static String key(byte[] audio, LanguageModelList lm, RecognitionConfig config) {
+		RecognitionCache.Key key = new RecognitionCache.Key(AudioSource.AUDIO_TYPE_RAW);
+		key.audio(audio, audio.length);
+		return key.build(lm, config);
+	}
+
+	private static String key(byte[] audio, LanguageModelList lm, SpeechRecognizer.Builder builder) {
+		RecognitionCache.Key key = new RecognitionCache.Key(AudioSource.AUDIO_TYPE_RAW);
+		if (builder != null) {
+			key.configuration(builder);
+		}
+		key.audio(audio, audio.length);
+		return key.build(lm, null);
+	}
+
+	private static List<RecognitionResult> result(String text) {
+		RecognitionResult result = new RecognitionResult();
+		result.setResultCode(RecognitionResultCode.RECOGNIZED);
+		RecognitionAlternative alt = new RecognitionAlternative();
+		alt.setText(text);
+		alt.setConfidence(90);
+		result.getAlternatives().add(alt);
+		return Collections.singletonList(result);
+	}
+
+	@Test
+	public void keyDependsOnAudioModelAndConfig() {
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general").build();
+		RecognitionConfig config = RecognitionConfig.builder().maxSentences(2).build();
+		byte[] audio = new byte[] { 1, 2, 3, 4 };
+
+		String k = key(audio, lm, config);
+		assertTrue(k.equals(key(audio.clone(), lm, config)));
+		assertTrue(!k.equals(key(new byte[] { 1, 2, 3, 5 }, lm, config)));
+		assertTrue(!k.equals(key(audio, LanguageModelList.builder().addFromURI("builtin:grammar/cpf").build(), config)));
+		assertTrue(!k.equals(key(audio, lm, RecognitionConfig.builder().maxSentences(3).build())));
+		assertTrue(!k.equals(key(audio, lm, (RecognitionConfig) null)));
+	}
+
+	@Test
+	public void keyDependsOnBuilder() throws Exception {
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general").build();
+		byte[] audio = new byte[] { 1, 2, 3, 4 };
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr");
+
+		String k = key(audio, lm, builder);
+		assertTrue(k.equals(key(audio, lm, builder)));
+		assertTrue(!k.equals(key(audio, lm, (SpeechRecognizer.Builder) null)));
+		assertTrue(!k.equals(key(audio, lm,
+				SpeechRecognizer.builder().serverURL("ws://localhost:8026/asr-server/asr"))));
+		builder.recogConfig(RecognitionConfig.builder().maxSentences(2).build());
+		assertTrue(!k.equals(key(audio, lm, builder)));
+	}
+
+	@Test
+	public void resultsAreCopied() {
+		RecognitionCache cache = new RecognitionCache(Long.MAX_VALUE);
+		cache.put("a", result("um"));
+		cache.get("a").get(0).getAlternatives().get(0).setText("dois");
+		assertTrue("um".equals(cache.get("a").get(0).getAlternatives().get(0).getText()));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() throws Exception {
+		RecognitionCache cache = new RecognitionCache(1);
+		cache.put("a", result("um"));
+		assertTrue(cache.get("a") == null);
+
+		long size;
+		cache = new RecognitionCache(Long.MAX_VALUE);
+		cache.put("a", result("um"));
+		size = cache.getMemoryBytes();
+
+		cache = new RecognitionCache(size * 2);
+		cache.put("a", result("um"));
+		cache.put("b", result("do"));
+		assertTrue(cache.get("a") != null);
+		cache.put("c", result("tr"));
+		assertTrue(cache.get("b") == null);
+		assertTrue("um".equals(cache.get("a").get(0).getAlternatives().get(0).getText()));
+		assertTrue(cache.get("c") != null);
+		assertTrue(cache.getHits() == 3 && cache.getMisses() == 1);
+	}
+
+	@Test
+	public void diskTier() throws Exception {
+		Path dir = Files.createTempDirectory("asr-cache");
+		try {
+			new RecognitionCache(1024, dir).put("k", result("teste"));
+
+			RecognitionCache cache = new RecognitionCache(1024, dir);
+			List<RecognitionResult> results = cache.get("k");
+			assertTrue(results != null && results.get(0).getResultCode() == RecognitionResultCode.RECOGNIZED);
+			assertTrue("teste".equals(results.get(0).getAlternatives().get(0).getText()));
+			assertTrue(cache.getDiskHits() == 1 && cache.getHitRate() == 1.0);
+		} finally {
+			Files.walk(dir).sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Test
+	public void grammarModelIsCached() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr");
+		network.install(builder);
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:slm/general")
+				.addInlineGrammar("sim", "#JSGF V1.0; grammar sim; public <sim> = sim | nao;").build();
+		byte[] audio = new byte[8000];
+
+		// o mesmo audio com a mesma gramatica e reconhecido uma unica vez
+		RecognitionCache cache = new RecognitionCache(Long.MAX_VALUE);
+		try (CachingSpeechRecognizer recognizer = new CachingSpeechRecognizer(builder, cache)) {
+			for (int i = 0; i < 2; i++) {
+				List<RecognitionResult> results = recognizer
+						.recognize(new InputStreamAudioSource(new ByteArrayInputStream(audio)), lm, null);
+				assertTrue(results.get(0).getResultCode() == RecognitionResultCode.RECOGNIZED);
+			}
+		}
+		assertTrue(cache.getHits() == 1 && cache.getMisses() == 1);
+		assertTrue(network.recognitions.size() == 1);
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class RecognitionContextTest {
+
+	private static RecognitionResult result(int index) {
+		RecognitionResult result = new RecognitionResult();
+		result.setSpeechSegmentIndex(index);
+		return result;
+	}
+
+	@Test
+	public void dropOldest() throws InterruptedException {
+		RecognitionContext context = new RecognitionContext(null, 2, OverflowPolicy.DROP_OLDEST);
+		assertTrue(context.addResult(result(0)));
+		assertTrue(context.addResult(result(1)));
+		assertTrue(context.addResult(result(2)));
+
+		assertTrue(context.getDroppedResults() == 1);
+		assertTrue(context.pollResult(0, TimeUnit.SECONDS).getSpeechSegmentIndex() == 1);
+		assertTrue(context.getResults().size() == 1);
+	}
+
+	@Test
+	public void failRejectsNewResult() {
+		RecognitionContext context = new RecognitionContext(null, 1, OverflowPolicy.FAIL);
+		assertTrue(context.addResult(result(0)));
+		assertTrue(!context.addResult(result(1)));
+	}
+
+	@Test
+	public void blockIsRejected() {
+		try {
+			new RecognitionContext(null, 1, OverflowPolicy.BLOCK);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			SpeechRecognizer.builder().resultOverflowPolicy(OverflowPolicy.BLOCK);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void fullQueueDoesNotStallSharedConnection() throws InterruptedException {
+		for (OverflowPolicy policy : new OverflowPolicy[] { OverflowPolicy.DROP_OLDEST, OverflowPolicy.FAIL }) {
+			// duas sessoes na mesma conexao: a primeira nunca consome os resultados
+			RecognitionContext slow = new RecognitionContext(null, 1, policy);
+			RecognitionContext other = new RecognitionContext(null, 10, policy);
+			Thread io = new Thread(() -> {
+				for (int i = 0; i < 5; i++) {
+					slow.addResult(result(i));
+					other.addResult(result(i));
+				}
+			});
+			io.start();
+			io.join(2000);
+			assertTrue(!io.isAlive());
+			assertTrue(slow.getResults().size() == 1);
+			assertTrue(other.getResults().size() == 5);
+		}
+	}
+
+	@Test
+	public void pollEndsWithRecognition() throws InterruptedException {
+		RecognitionContext context = new RecognitionContext(null, 10, OverflowPolicy.DROP_OLDEST);
+		new Thread(() -> {
+			context.addResult(result(0));
+			context.complete();
+		}).start();
+
+		assertTrue(context.pollResult(5, TimeUnit.SECONDS) != null);
+		long start = System.nanoTime();
+		assertTrue(context.pollResult(5, TimeUnit.SECONDS) == null);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	public void completionWakesUpPoll() throws InterruptedException {
+		RecognitionContext context = new RecognitionContext(null, 10, OverflowPolicy.DROP_OLDEST);
+		Thread consumer = new Thread(() -> {
+			try {
+				context.pollResult(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+			}
+		});
+		consumer.start();
+		consumer.join(100);
+		assertTrue(consumer.isAlive());
+
+		context.fail(null);
+		consumer.join(1000);
+		assertTrue(!consumer.isAlive());
+	}
+}
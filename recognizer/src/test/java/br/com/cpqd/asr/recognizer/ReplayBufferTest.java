@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ReplayBufferTest {
+
+	@Test
+	public void replayAfterRelease() {
+		ReplayBuffer buffer = new ReplayBuffer(8);
+		buffer.append(new byte[] { 0, 1, 2, 3, 4, 5 }, 6);
+		buffer.release(4);
+		buffer.append(new byte[] { 6, 7, 8, 9 }, 4);
+
+		assertTrue(buffer.getStart() == 4 && buffer.getEnd() == 10);
+		byte[] b = new byte[10];
+		int read = buffer.read(buffer.getStart(), b);
+		assertTrue(read == 6);
+		for (int i = 0; i < read; i++) {
+			assertTrue(b[i] == i + 4);
+		}
+		assertTrue(buffer.read(10, b) == 0);
+	}
+
+	@Test
+	public void oldestBytesDiscarded() {
+		ReplayBuffer buffer = new ReplayBuffer(4);
+		buffer.append(new byte[] { 0, 1, 2 }, 3);
+		buffer.append(new byte[] { 3, 4, 5, 6, 7, 8 }, 6);
+
+		assertTrue(buffer.getStart() == 5 && buffer.getEnd() == 9);
+		byte[] b = new byte[4];
+		assertTrue(buffer.read(5, b) == 4);
+		assertTrue(b[0] == 5 && b[3] == 8);
+	}
+}
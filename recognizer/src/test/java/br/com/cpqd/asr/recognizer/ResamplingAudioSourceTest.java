@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ResamplingAudioSourceTest {
+
+	/** Creates a sine wave, with the same signal on every channel. */
+	private static byte[] tone(int rate, int channels, double frequency, double amplitude, double seconds) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int samples = (int) (rate * seconds);
+		for (int i = 0; i < samples; i++) {
+			short value = (short) (amplitude * Math.sin(2 * Math.PI * frequency * i / rate));
+			for (int c = 0; c < channels; c++) {
+				out.write(value & 0xff);
+				out.write((value >> 8) & 0xff);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static short[] readAll(AudioSource source) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1000];
+		int n;
+		while ((n = source.read(buffer)) >= 0) {
+			out.write(buffer, 0, n);
+		}
+		byte[] bytes = out.toByteArray();
+		short[] samples = new short[bytes.length / 2];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+		}
+		return samples;
+	}
+
+	/** RMS of the samples, skipping the filter transients. */
+	private static double rms(short[] samples) {
+		double sum = 0;
+		int from = samples.length / 10;
+		int to = samples.length - from;
+		for (int i = from; i < to; i++) {
+			sum += (double) samples[i] * samples[i];
+		}
+		return Math.sqrt(sum / (to - from));
+	}
+
+	private static ResamplingAudioSource resampler(byte[] audio, int rate, int channels, int target) {
+		return new ResamplingAudioSource(new InputStreamAudioSource(new ByteArrayInputStream(audio)), rate,
+				channels, target);
+	}
+
+	@Test
+	public void downsampleStereo48k() throws IOException {
+		short[] out = readAll(resampler(tone(48000, 2, 1000, 10000, 1.0), 48000, 2, 16000));
+
+		assertTrue(out.length == 16000);
+		assertTrue(Math.abs(rms(out) - 10000 / Math.sqrt(2)) < 100);
+	}
+
+	@Test
+	public void downsample44k() throws IOException {
+		short[] out = readAll(resampler(tone(44100, 1, 500, 10000, 2.0), 44100, 1, 8000));
+
+		assertTrue(out.length == 16000);
+		assertTrue(Math.abs(rms(out) - 10000 / Math.sqrt(2)) < 100);
+	}
+
+	@Test
+	public void aliasingIsFiltered() throws IOException {
+		// 6 kHz esta acima da frequencia de Nyquist de 8 kHz
+		short[] out = readAll(resampler(tone(44100, 1, 6000, 10000, 1.0), 44100, 1, 8000));
+
+		assertTrue(rms(out) < 100);
+	}
+
+	@Test
+	public void downmixOnly() throws IOException {
+		short[] out = readAll(resampler(tone(8000, 2, 300, 10000, 1.0), 8000, 2, 8000));
+
+		assertTrue(out.length == 8000);
+		assertTrue(out[100] == (short) (10000 * Math.sin(2 * Math.PI * 300 * 100 / 8000)));
+	}
+
+	@Test
+	public void readSizeDoesNotChangeOutput() throws IOException {
+		// ruido em escala cheia: qualquer amostra fora da janela altera a saida
+		byte[] audio = new byte[8000 * 2];
+		new Random(1).nextBytes(audio);
+		short[] expected = readAll(resampler(audio, 8000, 1, 16000));
+
+		// a fonte entrega poucas amostras por leitura: o filtro alcanca o fim da janela
+		ByteArrayInputStream stream = new ByteArrayInputStream(audio) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 2));
+			}
+		};
+		short[] out = readAll(new ResamplingAudioSource(new InputStreamAudioSource(stream), 8000, 1, 16000));
+
+		assertTrue(out.length == expected.length);
+		for (int i = 0; i < out.length; i++) {
+			assertTrue(out[i] == expected[i]);
+		}
+	}
+}
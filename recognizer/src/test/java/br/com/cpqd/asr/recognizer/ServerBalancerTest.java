@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class ServerBalancerTest {
+
+	private static final List<URI> SERVERS = Arrays.asList(URI.create("ws://localhost:8025/asr-server/asr"),
+			URI.create("ws://localhost:8026/asr-server/asr"), URI.create("ws://localhost:8027/asr-server/asr"));
+
+	@Test
+	public void leastSessions() {
+		ServerBalancer balancer = new ServerBalancer(SERVERS, LoadBalancingPolicy.LEAST_SESSIONS);
+		for (int i = 0; i < 6; i++) {
+			balancer.acquire();
+		}
+		assertTrue(balancer.getSessions().equals(Arrays.asList(2, 2, 2)));
+
+		ServerBalancer.Node node = balancer.acquire();
+		balancer.release(node);
+		balancer.release(node);
+		assertTrue(balancer.acquire() == node);
+	}
+
+	@Test
+	public void lowestLatency() {
+		ServerBalancer balancer = new ServerBalancer(SERVERS, LoadBalancingPolicy.LATENCY);
+		long[] latency = { 50, 10, 200 };
+		for (int i = 0; i < 3; i++) {
+			ServerBalancer.Node node = balancer.acquire();
+			balancer.success(node, latency[SERVERS.indexOf(node.getUri())]);
+			balancer.release(node);
+		}
+		assertTrue(balancer.acquire().getUri().equals(SERVERS.get(1)));
+	}
+
+	@Test
+	public void ejectionAndSlowStart() {
+		AtomicLong clock = new AtomicLong(1000);
+		ServerBalancer balancer = new ServerBalancer(SERVERS, LoadBalancingPolicy.LEAST_SESSIONS, clock::get);
+		ServerBalancer.Node failed = balancer.acquire();
+		balancer.release(failed);
+		for (int i = 0; i < ServerBalancer.EJECTION_FAILURES; i++) {
+			balancer.failure(failed);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(balancer.acquire() != failed);
+		}
+
+		// fim da ejecao: o servidor recebe poucas sessoes no inicio (slow start)
+		clock.addAndGet(ServerBalancer.EJECTION_MILLIS + ServerBalancer.SLOW_START_MILLIS / 10);
+		assertTrue(balancer.acquire() != failed);
+
+		// uma falha durante o slow start ejeta o servidor novamente
+		balancer.failure(failed);
+		clock.addAndGet(1000);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(balancer.acquire() != failed);
+		}
+	}
+
+	@Test
+	public void builderRoutesSessions() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURLs(urls());
+		network.install(builder);
+
+		List<SpeechRecognizer> recognizers = new ArrayList<>();
+		for (int i = 0; i < SERVERS.size(); i++) {
+			recognizers.add(builder.build());
+		}
+		assertTrue(new HashSet<>(network.connections).equals(new HashSet<>(SERVERS)));
+
+		// a sessao encerrada libera o servidor para o proximo reconhecedor
+		recognizers.get(1).close();
+		builder.build().close();
+		assertTrue(network.connections.get(3).equals(network.connections.get(1)));
+
+		for (SpeechRecognizer recognizer : recognizers) {
+			recognizer.close();
+		}
+		assertTrue(builder.balancer.getSessions().equals(Arrays.asList(0, 0, 0)));
+	}
+
+	@Test
+	public void failingServerIsEjectedByBuilder() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		network.down.add(SERVERS.get(0));
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURLs(urls());
+		network.install(builder);
+
+		List<SpeechRecognizer> recognizers = new ArrayList<>();
+		int failures = 0;
+		for (int i = 0; i < 10; i++) {
+			try {
+				recognizers.add(builder.build());
+			} catch (IOException e) {
+				failures++;
+			}
+		}
+
+		assertTrue(failures == ServerBalancer.EJECTION_FAILURES);
+		assertTrue(Collections.frequency(network.connections, SERVERS.get(0)) == ServerBalancer.EJECTION_FAILURES);
+		for (SpeechRecognizer recognizer : recognizers) {
+			recognizer.close();
+		}
+	}
+
+	@Test
+	public void recoveredSessionUsesBalancer() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURLs(urls()).reconnectAttempts(3);
+		network.install(builder);
+
+		SpeechRecognizer recognizer = builder.build();
+		URI lost = network.connections.get(0);
+		BufferAudioSource audio = new BufferAudioSource();
+		try {
+			recognizer.recognize(audio, LanguageModelList.builder().addFromURI("builtin:slm/general").build());
+
+			// o servidor da sessao cai: a sessao e recuperada em outro servidor
+			network.down.add(lost);
+			network.clients.get(0).loseConnection();
+			for (int i = 0; i < 100 && network.recognitions.size() < 2; i++) {
+				Thread.sleep(50);
+			}
+
+			assertTrue(network.recognitions.size() == 2);
+			URI recovered = network.recognitions.get(1);
+			assertTrue(!recovered.equals(lost));
+			List<Integer> expected = new ArrayList<>(Arrays.asList(0, 0, 0));
+			expected.set(SERVERS.indexOf(recovered), 1);
+			assertTrue(builder.balancer.getSessions().equals(expected));
+
+			recognizer.cancelRecognition();
+		} finally {
+			audio.finish();
+			recognizer.close();
+		}
+		assertTrue(builder.balancer.getSessions().equals(Arrays.asList(0, 0, 0)));
+	}
+
+	private static String[] urls() {
+		return SERVERS.stream().map(URI::toString).toArray(String[]::new);
+	}
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class SessionParametersTest {
+
+	@Test
+	public void onlyChangedParameters() {
+		SessionParameters session = new SessionParameters();
+		Map<String, String> snapshot = new HashMap<>();
+		snapshot.put("decoder.maxSentences", "1");
+		snapshot.put("decoder.confidenceThreshold", "0.50");
+		snapshot.put("noInputTimeout.enabled", "TRUE");
+		snapshot.put("endpointer.levelMode", "");
+		session.update(snapshot);
+
+		Map<String, String> requested = new HashMap<>();
+		requested.put("decoder.maxSentences", "3");
+		requested.put("decoder.confidenceThreshold", "0.5");
+		requested.put("noInputTimeout.enabled", "true");
+		requested.put("endpointer.levelMode", "IGNORE");
+		requested.put("recognitionTimeout.value", "30000");
+
+		Map<String, String> changed = session.changed(requested);
+		assertTrue(changed.size() == 3);
+		assertTrue("3".equals(changed.get("decoder.maxSentences")));
+		assertTrue(changed.containsKey("endpointer.levelMode"));
+		assertTrue(changed.containsKey("recognitionTimeout.value"));
+
+		session.clear();
+		assertTrue(session.changed(requested).size() == requested.size());
+	}
+
+	@Test
+	public void onlyBooleansIgnoreCase() {
+		assertTrue(SessionParameters.sameValue("TRUE", "true"));
+		assertTrue(SessionParameters.sameValue("False", "false"));
+		assertTrue(SessionParameters.sameValue("0.50", "0.5"));
+		assertTrue(!SessionParameters.sameValue("IGNORE", "ignore"));
+		assertTrue(!SessionParameters.sameValue("builtin:slm/General", "builtin:slm/general"));
+		assertTrue(!SessionParameters.sameValue("true", "FALSE"));
+	}
+}
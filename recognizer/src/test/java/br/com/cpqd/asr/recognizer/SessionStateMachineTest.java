@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.SessionStateMachine.State;
+
+/**
+ * Stress tests of the session state machine. Each iteration starts the actors
+ * at the same time (jcstress style) and checks the invariants of the final
+ * state.
+ *
+ */
+public class SessionStateMachineTest {
+
+	private static final int ITERATIONS = 2000;
+
+	private static final int ACTORS = 4;
+
+	@Test
+	public void transitions() {
+		SessionStateMachine state = new SessionStateMachine();
+		assertTrue(state.get() == State.CLOSED);
+		assertTrue(state.transition(State.CLOSED, State.OPENING));
+		assertTrue(state.transition(State.OPENING, State.IDLE));
+		assertTrue(!state.transition(State.LISTENING, State.RECOGNIZING));
+		assertTrue(state.transition(State.IDLE, State.LISTENING));
+		assertTrue(state.transition(State.LISTENING, State.RECOGNIZING));
+		assertTrue(state.finishRecognition());
+		assertTrue(!state.finishRecognition());
+		assertTrue(state.beginClose());
+		assertTrue(!state.beginClose());
+		assertTrue(state.closed() == State.CLOSING);
+	}
+
+	@Test
+	public void invalidTransition() {
+		SessionStateMachine state = new SessionStateMachine();
+		try {
+			state.transition(State.CLOSED, State.LISTENING);
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(state.get() == State.CLOSED);
+		}
+	}
+
+	@Test
+	public void concurrentRecognize() throws Exception {
+		for (int i = 0; i < ITERATIONS; i++) {
+			SessionStateMachine state = idle();
+			AtomicInteger winners = new AtomicInteger();
+			race(ACTORS, () -> {
+				if (state.transition(State.IDLE, State.LISTENING)) {
+					winners.incrementAndGet();
+				}
+			});
+			assertTrue("Only one recognition may start: " + winners, winners.get() == 1);
+			assertTrue(state.get() == State.LISTENING);
+		}
+	}
+
+	@Test
+	public void concurrentClose() throws Exception {
+		for (int i = 0; i < ITERATIONS; i++) {
+			SessionStateMachine state = idle();
+			state.transition(State.IDLE, State.LISTENING);
+			AtomicInteger closers = new AtomicInteger();
+			race(ACTORS, () -> {
+				if (state.beginClose()) {
+					closers.incrementAndGet();
+				}
+			});
+			assertTrue("Only one thread may release the session: " + closers, closers.get() == 1);
+			assertTrue(state.get() == State.CLOSING);
+		}
+	}
+
+	@Test
+	public void audioFinishedRacesWithResult() throws Exception {
+		for (int i = 0; i < ITERATIONS; i++) {
+			SessionStateMachine state = idle();
+			state.transition(State.IDLE, State.LISTENING);
+			// ator 1: fim do envio de audio; ator 2: resultado final recebido
+			race(() -> state.transition(State.LISTENING, State.RECOGNIZING), () -> state.finishRecognition());
+			assertTrue("Unexpected final state: " + state, state.get() == State.IDLE);
+		}
+	}
+
+	@Test
+	public void audioFinishedBetweenReadAndSet() throws Exception {
+		AtomicBoolean interleaved = new AtomicBoolean();
+		// o fim do audio ocorre exatamente antes do CAS de LISTENING para IDLE
+		SessionStateMachine state = new SessionStateMachine() {
+			@Override
+			boolean compareAndSet(State expect, State update) {
+				if (expect == State.LISTENING && update == State.IDLE && interleaved.compareAndSet(false, true)) {
+					Thread reader = new Thread(() -> transition(State.LISTENING, State.RECOGNIZING));
+					reader.start();
+					try {
+						reader.join();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.compareAndSet(expect, update);
+			}
+		};
+		state.transition(State.CLOSED, State.OPENING);
+		state.transition(State.OPENING, State.IDLE);
+		state.transition(State.IDLE, State.LISTENING);
+
+		assertTrue(state.finishRecognition());
+		assertTrue(interleaved.get());
+		assertTrue("Unexpected final state: " + state, state.get() == State.IDLE);
+	}
+
+	@Test
+	public void closeRacesWithRecognize() throws Exception {
+		for (int i = 0; i < ITERATIONS; i++) {
+			SessionStateMachine state = idle();
+			AtomicInteger started = new AtomicInteger();
+			AtomicInteger closed = new AtomicInteger();
+			race(() -> {
+				if (state.transition(State.IDLE, State.LISTENING)) {
+					started.incrementAndGet();
+				}
+			}, () -> {
+				if (state.beginClose()) {
+					closed.incrementAndGet();
+				}
+			});
+			// o fechamento sempre vence, com ou sem reconhecimento iniciado antes
+			assertTrue(closed.get() == 1);
+			assertTrue(started.get() <= 1);
+			assertTrue(state.get() == State.CLOSING);
+		}
+	}
+
+	private static SessionStateMachine idle() {
+		SessionStateMachine state = new SessionStateMachine();
+		state.transition(State.CLOSED, State.OPENING);
+		state.transition(State.OPENING, State.IDLE);
+		return state;
+	}
+
+	private static void race(int count, Runnable actor) throws Exception {
+		Runnable[] actors = new Runnable[count];
+		for (int i = 0; i < count; i++) {
+			actors[i] = actor;
+		}
+		race(actors);
+	}
+
+	/**
+	 * Runs the actors in different threads, releasing all of them at the same
+	 * time.
+	 */
+	private static void race(Runnable... actors) throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(actors.length);
+		ExecutorService executor = Executors.newFixedThreadPool(actors.length);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Runnable actor : actors) {
+				futures.add(executor.submit(() -> {
+					barrier.await();
+					actor.run();
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
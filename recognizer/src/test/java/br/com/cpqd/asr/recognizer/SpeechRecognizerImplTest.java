@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class SpeechRecognizerImplTest {
+
+	@Test
+	public void interpretationsInFlightAreLimited() throws Exception {
+		StubAsrClientEndpoint.Network network = new StubAsrClientEndpoint.Network();
+		SpeechRecognizer.Builder builder = SpeechRecognizer.builder().serverURL("ws://localhost:8025/asr-server/asr")
+				.maxInterpretationsInFlight(2);
+		network.install(builder);
+		LanguageModelList lm = LanguageModelList.builder().addFromURI("builtin:grammar/cpf").build();
+
+		SpeechRecognizerImpl recognizer = (SpeechRecognizerImpl) builder.build();
+		try {
+			StubAsrClientEndpoint client = network.clients.get(0);
+			List<CompletableFuture<RecognitionResult>> futures = recognizer.interpretText(Arrays.asList("um", "dois"),
+					lm);
+			assertTrue(futures.size() == 2 && client.interpretations.size() == 2);
+
+			// acima do limite, a requisicao aguarda o resultado de uma anterior
+			Thread third = new Thread(() -> {
+				try {
+					recognizer.interpretText("tres", lm);
+				} catch (Exception e) {
+					// falha detectada pelo numero de requisicoes
+				}
+			});
+			third.start();
+			third.join(300);
+			assertTrue(third.isAlive() && client.interpretations.size() == 2);
+
+			client.interpretations.get(0).complete(new RecognitionResult());
+			third.join(2000);
+			assertTrue(!third.isAlive() && client.interpretations.size() == 3);
+		} finally {
+			recognizer.close();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import javax.net.ssl.SSLContext;
+
+import org.junit.jupiter.api.Test;
+
+public class SslConfigTest {
+
+	@Test
+	public void contextIsShared() throws IOException {
+		SslConfig config = SslConfig.builder().sessionCacheSize(64).sessionTimeoutSeconds(600).build();
+
+		SSLContext context = config.getSslContext();
+		assertTrue(context == config.getSslContext());
+		assertTrue(context.getClientSessionContext().getSessionCacheSize() == 64);
+		assertTrue(context.getClientSessionContext().getSessionTimeout() == 600);
+	}
+
+	@Test
+	public void defaultIsSingleton() {
+		assertTrue(SslConfig.getDefault() == SslConfig.getDefault());
+	}
+
+	@Test
+	public void invalidTrustStore() {
+		SslConfig config = SslConfig.builder().trustStore("/nonexistent/truststore.jks", "secret").build();
+		try {
+			config.getSslContext();
+			fail("IOException expected");
+		} catch (IOException e) {
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import javax.websocket.EncodeException;
+
+import br.com.cpqd.asr.protocol.AsrMessage;
+import br.com.cpqd.asr.protocol.CreateSession;
+import br.com.cpqd.asr.protocol.InterpretText;
+import br.com.cpqd.asr.protocol.ResponseMessage;
+import br.com.cpqd.asr.protocol.ResponseMessage.Result;
+import br.com.cpqd.asr.protocol.SendAudio;
+import br.com.cpqd.asr.protocol.SessionStatus;
+import br.com.cpqd.asr.protocol.StartRecognition;
+import br.com.cpqd.asr.recognizer.model.RecognitionError;
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+import br.com.cpqd.asr.recognizer.ws.AsrClientEndpoint;
+
+/**
+ * Websocket client answering the protocol messages in process, for the tests of
+ * SpeechRecognizerImpl without server. Every request succeeds; a recognition
+ * returns a single RECOGNIZED result after the last audio packet, and the text
+ * interpretations wait for the test to complete them.
+ *
+ */
+class StubAsrClientEndpoint extends AsrClientEndpoint {
+
+	/** In-process servers, reached by the stub clients. */
+	static class Network {
+
+		/** Servers refusing connections. */
+		final List<URI> down = Collections.synchronizedList(new ArrayList<>());
+
+		/** Server of each connection attempt. */
+		final List<URI> connections = Collections.synchronizedList(new ArrayList<>());
+
+		/** Server of each recognition started. */
+		final List<URI> recognitions = Collections.synchronizedList(new ArrayList<>());
+
+		/** Language model URIs of each recognition started. */
+		final List<List<String>> languageModels = Collections.synchronizedList(new ArrayList<>());
+
+		/** The clients created by the recognizers. */
+		final List<StubAsrClientEndpoint> clients = Collections.synchronizedList(new ArrayList<>());
+
+		private final AtomicLong handles = new AtomicLong();
+
+		/** Makes the recognizers of the builder use stub clients. */
+		void install(SpeechRecognizer.Builder builder) {
+			builder.clientFactory = (uri, username, password) -> {
+				StubAsrClientEndpoint client = new StubAsrClientEndpoint(this, uri, username, password);
+				clients.add(client);
+				return client;
+			};
+		}
+	}
+
+	private final Network network;
+
+	/** The pending text interpretations. */
+	final List<CompletableFuture<RecognitionResult>> interpretations = Collections
+			.synchronizedList(new ArrayList<>());
+
+	private volatile boolean open;
+
+	private volatile SessionStatus status;
+
+	private volatile long handle;
+
+	private volatile Predicate<RecognitionError> connectionLostHandler;
+
+	StubAsrClientEndpoint(Network network, URI uri, String username, String password) throws URISyntaxException {
+		super(uri, username, password);
+		this.network = network;
+	}
+
+	@Override
+	public void open() throws IOException {
+		network.connections.add(getUri());
+		if (network.down.contains(getUri())) {
+			throw new IOException("Connection refused");
+		}
+		status = null;
+		open = true;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	@Override
+	public SessionStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public synchronized ResponseMessage sendMessageAndWait(AsrMessage message) throws IOException, EncodeException {
+		if (!open) {
+			throw new IOException("Connection closed");
+		}
+		if (message instanceof CreateSession) {
+			handle = network.handles.incrementAndGet();
+			status = SessionStatus.IDLE;
+		} else if (message instanceof StartRecognition) {
+			network.recognitions.add(getUri());
+			network.languageModels.add(Arrays.asList(((StartRecognition) message).getLanguageModel().getUri()));
+			status = SessionStatus.LISTENING;
+			getListeners().forEach(listener -> listener.onListening());
+		} else {
+			status = SessionStatus.IDLE;
+		}
+		return new ResponseMessage(message.getmType(), Result.SUCCESS, handle, status);
+	}
+
+	@Override
+	public void sendMessage(AsrMessage message) throws IOException, EncodeException {
+		if (!open) {
+			throw new IOException("Connection closed");
+		}
+		if (message instanceof SendAudio && ((SendAudio) message).isLastPacket()) {
+			// o resultado chega pela thread de I/O, depois do ultimo pacote
+			new Thread(() -> {
+				status = SessionStatus.IDLE;
+				RecognitionResult result = new RecognitionResult();
+				result.setResultCode(RecognitionResultCode.RECOGNIZED);
+				result.setLastSpeechSegment(true);
+				getListeners().forEach(listener -> listener.onRecognitionResult(result));
+			}, "stub-client").start();
+		}
+	}
+
+	@Override
+	public CompletableFuture<RecognitionResult> sendInterpretText(InterpretText message) throws IOException {
+		if (!open) {
+			throw new IOException("Connection closed");
+		}
+		CompletableFuture<RecognitionResult> future = new CompletableFuture<>();
+		interpretations.add(future);
+		return future;
+	}
+
+	@Override
+	public int getPendingInterpretations() {
+		return (int) interpretations.stream().filter(future -> !future.isDone()).count();
+	}
+
+	@Override
+	public void setConnectionLostHandler(Predicate<RecognitionError> connectionLostHandler) {
+		this.connectionLostHandler = connectionLostHandler;
+	}
+
+	/** Simulates the loss of the connection. */
+	void loseConnection() {
+		open = false;
+		connectionLostHandler.test(new RecognitionError(RecognitionErrorCode.CONNECTION_FAILURE, "Connection lost"));
+	}
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
+import br.com.cpqd.asr.recognizer.model.RecognitionConfig;
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+import br.com.cpqd.asr.recognizer.model.RecognitionResultCode;
+
+/**
+ * Recognizer without server, for the tests of the classes built on top of
+ * SpeechRecognizer. A thread reads the whole audio source and the engine
+ * computes the results from the audio.
+ *
+ */
+class StubSpeechRecognizer implements SpeechRecognizer {
+
+	/** Computes the results of the audio read. */
+	interface Engine {
+		List<RecognitionResult> recognize(byte[] audio) throws RecognitionException;
+	}
+
+	/** Builder that creates stub recognizers. */
+	static class Builder extends SpeechRecognizer.Builder {
+
+		private final List<StubSpeechRecognizer> recognizers;
+
+		Builder(StubSpeechRecognizer... recognizers) {
+			this.recognizers = new ArrayList<>();
+			for (StubSpeechRecognizer recognizer : recognizers) {
+				this.recognizers.add(recognizer);
+			}
+		}
+
+		@Override
+		public synchronized SpeechRecognizer build() {
+			return recognizers.remove(0);
+		}
+	}
+
+	private final Engine engine;
+
+	/** Error thrown by recognize(). */
+	private RecognitionException startError;
+
+	/** Time between the end of the audio and the result (ms). */
+	private long delayMillis;
+
+	/** Released to let the recognizer read the audio. */
+	private CountDownLatch readGate = new CountDownLatch(0);
+
+	private final CountDownLatch cancelled = new CountDownLatch(1);
+
+	private CompletableFuture<List<RecognitionResult>> result;
+
+	private volatile AudioSource audio;
+
+	private volatile boolean closed;
+
+	StubSpeechRecognizer(Engine engine) {
+		this.engine = engine;
+	}
+
+	/** Creates a recognizer that returns a single RECOGNIZED result. */
+	static StubSpeechRecognizer recognized(String text, long delayMillis) {
+		StubSpeechRecognizer recognizer = new StubSpeechRecognizer(audio -> {
+			RecognitionResult result = new RecognitionResult();
+			result.setResultCode(RecognitionResultCode.RECOGNIZED);
+			result.getAlternatives().add(new RecognitionAlternative());
+			result.getAlternatives().get(0).setText(text);
+			List<RecognitionResult> list = new ArrayList<>();
+			list.add(result);
+			return list;
+		});
+		recognizer.delayMillis = delayMillis;
+		return recognizer;
+	}
+
+	/** Creates a recognizer whose recognition fails. */
+	static StubSpeechRecognizer failing(String message, long delayMillis) {
+		StubSpeechRecognizer recognizer = new StubSpeechRecognizer(audio -> {
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, message);
+		});
+		recognizer.delayMillis = delayMillis;
+		return recognizer;
+	}
+
+	StubSpeechRecognizer startError(RecognitionException startError) {
+		this.startError = startError;
+		return this;
+	}
+
+	StubSpeechRecognizer readGate(CountDownLatch readGate) {
+		this.readGate = readGate;
+		return this;
+	}
+
+	boolean isCancelled() {
+		return cancelled.getCount() == 0;
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	boolean isDone() {
+		CompletableFuture<List<RecognitionResult>> result = this.result;
+		return result != null && result.isDone();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+	}
+
+	@Override
+	public void cancelRecognition() throws IOException {
+		cancelled.countDown();
+		AudioSource audio = this.audio;
+		if (audio != null) {
+			audio.close();
+		}
+		if (result != null) {
+			result.complete(new ArrayList<>());
+		}
+	}
+
+	@Override
+	public void recognize(AudioSource audio, LanguageModelList lmList) throws IOException, RecognitionException {
+		recognize(audio, lmList, null);
+	}
+
+	@Override
+	public synchronized void recognize(AudioSource audio, LanguageModelList lmList, RecognitionConfig config)
+			throws IOException, RecognitionException {
+		if (startError != null) {
+			throw startError;
+		}
+		this.audio = audio;
+		CompletableFuture<List<RecognitionResult>> result = new CompletableFuture<>();
+		this.result = result;
+
+		Thread thread = new Thread(() -> {
+			try {
+				readGate.await();
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1000];
+				int n;
+				while (!isCancelled() && (n = audio.read(buffer)) >= 0) {
+					content.write(buffer, 0, n);
+				}
+				audio.close();
+				if (delayMillis > 0 && cancelled.await(delayMillis, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+				if (!isCancelled()) {
+					result.complete(engine.recognize(content.toByteArray()));
+				}
+			} catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		}, "stub-recognizer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public List<RecognitionResult> waitRecognitionResult() throws RecognitionException {
+		return waitRecognitionResult(10);
+	}
+
+	@Override
+	public List<RecognitionResult> waitRecognitionResult(int timeout) throws RecognitionException {
+		try {
+			return result.get(timeout, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RecognitionException) {
+				throw (RecognitionException) e.getCause();
+			}
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, e.getCause().getMessage(), e.getCause());
+		} catch (InterruptedException | TimeoutException e) {
+			throw new RecognitionException(RecognitionErrorCode.FAILURE, "No result", e);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.recognizer.model.RecognitionAlternative;
+import br.com.cpqd.asr.recognizer.model.RecognitionResult;
+
+public class VadAudioSourceTest {
+
+	private static final int RATE = 8000;
+
+	/** Creates 'ms' milliseconds of audio: a sine wave or silence. */
+	private static void append(ByteArrayOutputStream out, int ms, boolean speech) {
+		int samples = RATE * ms / 1000;
+		for (int i = 0; i < samples; i++) {
+			short value = speech ? (short) (8000 * Math.sin(2 * Math.PI * 440 * i / RATE)) : 0;
+			out.write(value & 0xff);
+			out.write((value >> 8) & 0xff);
+		}
+	}
+
+	private static int readAll(AudioSource source) throws IOException {
+		byte[] buffer = new byte[333];
+		int total = 0;
+		int n;
+		while ((n = source.read(buffer)) >= 0) {
+			total += n;
+		}
+		return total;
+	}
+
+	@Test
+	public void silenceIsDropped() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		append(out, 2000, false);
+		append(out, 1000, true);
+		append(out, 3000, false);
+		append(out, 1000, true);
+		append(out, 2000, false);
+
+		VadAudioSource vad = new VadAudioSource(
+				new InputStreamAudioSource(new ByteArrayInputStream(out.toByteArray())), RATE, 200, 400, -45);
+		int sent = readAll(vad);
+
+		// 2 x (200 ms + 1000 ms + 400 ms)
+		assertTrue(sent == 2 * (RATE * 1600 / 1000) * 2);
+		assertTrue(vad.getSentSamples() + vad.getDroppedSamples() == RATE * 9);
+	}
+
+	@Test
+	public void timesAreMappedToSource() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		append(out, 2000, false);
+		append(out, 1000, true);
+		append(out, 3000, false);
+		append(out, 1000, true);
+
+		VadAudioSource vad = new VadAudioSource(
+				new InputStreamAudioSource(new ByteArrayInputStream(out.toByteArray())), RATE, 200, 400, -45);
+		readAll(vad);
+
+		// primeiro trecho enviado comeca em 1.8 s, o segundo em 5.8 s
+		assertTrue(vad.toSourceSample(0) == RATE * 1800 / 1000);
+		assertTrue(vad.toSourceSample(RATE * 1600 / 1000) == RATE * 5800 / 1000);
+		assertTrue(Math.abs(vad.toSourceTime(1.8f) - 6.0f) < 0.001);
+	}
+
+	@Test
+	public void offsetsArePruned() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i < 5; i++) {
+			append(out, 2000, false);
+			append(out, 1000, true);
+		}
+
+		VadAudioSource vad = new VadAudioSource(
+				new InputStreamAudioSource(new ByteArrayInputStream(out.toByteArray())), RATE, 200, 400, -45);
+		readAll(vad);
+		assertTrue(vad.getOffsetCount() == 5);
+
+		// resultado do quarto trecho enviado (1.6 s por trecho)
+		RecognitionResult result = new RecognitionResult();
+		result.setSegmentStartTime(3 * 1.6f);
+		result.setSegmentEndTime(3 * 1.6f + 1.0f);
+		result.setAlternatives(new ArrayList<RecognitionAlternative>());
+		vad.rebase(result);
+
+		assertTrue(vad.getOffsetCount() == 2);
+		assertTrue(Math.abs(result.getSegmentStartTime() - 10.8f) < 0.001);
+		assertTrue(vad.toSourceSample(4 * RATE * 1600 / 1000) == RATE * 13800 / 1000);
+	}
+
+	@Test
+	public void emptyReadIsReturned() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		append(out, 1000, true);
+		byte[] audio = out.toByteArray();
+
+		// fonte que alterna leituras vazias e blocos de 100 bytes
+		AudioSource source = new AudioSource() {
+			private int position;
+			private boolean empty = true;
+
+			@Override
+			public int read(byte[] b) {
+				if (position == audio.length) {
+					return -1;
+				}
+				empty = !empty;
+				if (!empty) {
+					return 0;
+				}
+				int len = Math.min(Math.min(100, b.length), audio.length - position);
+				System.arraycopy(audio, position, b, 0, len);
+				position += len;
+				return len;
+			}
+
+			@Override
+			public void close() {
+			}
+
+			@Override
+			public void finish() {
+			}
+
+			@Override
+			public String getContentType() {
+				return AUDIO_TYPE_RAW;
+			}
+		};
+
+		VadAudioSource vad = new VadAudioSource(source, RATE, 200, 400, -45);
+		assertTrue(vad.read(new byte[333]) == 0);
+		assertTrue(readAll(vad) == audio.length);
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class WavReaderTest {
+
+	private static final File CPF = new File("src/test/resources/audio/cpf_8k.wav");
+
+	/** Builds a WAV stream with a LIST chunk before the data. */
+	private static byte[] wav(int tag, int bits, byte[] data, boolean extensible) {
+		int fmtSize = extensible ? 40 : 16;
+		ByteBuffer b = ByteBuffer.allocate(12 + 8 + fmtSize + 8 + 3 + 1 + 8 + data.length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		b.put("RIFF".getBytes()).putInt(b.capacity() - 8).put("WAVE".getBytes());
+		b.put("fmt ".getBytes()).putInt(fmtSize);
+		b.putShort((short) (extensible ? 0xFFFE : tag)).putShort((short) 1).putInt(8000).putInt(8000 * bits / 8)
+				.putShort((short) (bits / 8)).putShort((short) bits);
+		if (extensible) {
+			b.putShort((short) 22).putShort((short) bits).putInt(4).putShort((short) tag).put(new byte[14]);
+		}
+		b.put("LIST".getBytes()).putInt(3).put(new byte[] { 1, 2, 3, 0 });
+		b.put("data".getBytes()).putInt(data.length).put(data);
+		return b.array();
+	}
+
+	@Test
+	public void readPcmFile() throws IOException {
+		byte[] file = Files.readAllBytes(CPF.toPath());
+		try (WavReader wav = WavReader.open(CPF)) {
+			assertTrue(wav.getEncoding() == WavReader.Encoding.PCM && wav.isRawCompatible());
+			assertTrue(wav.getSampleRate() == 8000 && wav.getDataLength() == file.length - 44);
+
+			ByteBuffer data = ByteBuffer.allocateDirect(file.length);
+			while (wav.read(data) >= 0) {
+				// le ate o fim dos dados
+			}
+			assertTrue(data.position() == file.length - 44);
+			byte[] b = new byte[data.position()];
+			data.flip();
+			data.get(b);
+			assertTrue(Arrays.equals(b, Arrays.copyOfRange(file, 44, file.length)));
+		}
+	}
+
+	@Test
+	public void extensibleAndExtraChunks() throws IOException {
+		byte[] data = new byte[] { 10, 20, 30, 40, 50 };
+		WavReader wav = new WavReader(new ByteArrayInputStream(wav(7, 8, data, true)));
+		assertTrue(wav.getEncoding() == WavReader.Encoding.ULAW && wav.getDataLength() == 5);
+		byte[] b = new byte[16];
+		assertTrue(wav.read(b, 0, b.length) == 5 && b[4] == 50);
+		assertTrue(wav.read(b, 0, b.length) == -1);
+
+		try {
+			new WavReader(new ByteArrayInputStream(wav(0x55, 16, data, false)));
+			assertTrue(false);
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("0x55"));
+		}
+	}
+
+	@Test
+	public void decodeG711File() throws IOException {
+		byte[] data = new byte[] { 0, 1, 2, (byte) 0x80, (byte) 0xFF };
+		File file = File.createTempFile("alaw", ".wav");
+		try {
+			Files.write(file.toPath(), wav(6, 8, data, false));
+			FileAudioSource source = new FileAudioSource(file, true, null);
+			byte[] b = new byte[64];
+			assertTrue(source.read(b) == 10);
+			byte[] expected = new byte[10];
+			G711.decode(G711.Law.ALAW, data, 0, 5, expected, 0);
+			assertTrue(Arrays.equals(expected, Arrays.copyOf(b, 10)));
+			source.close();
+		} finally {
+			file.delete();
+		}
+	}
+}
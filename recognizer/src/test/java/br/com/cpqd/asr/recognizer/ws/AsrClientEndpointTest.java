@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.ws;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
+import br.com.cpqd.asr.protocol.InterpretText;
+import br.com.cpqd.asr.protocol.RecognitionAlternative;
+import br.com.cpqd.asr.protocol.RecognitionResult;
+import br.com.cpqd.asr.protocol.RecognitionResultMessage;
+import br.com.cpqd.asr.protocol.RecognitionStatus;
+import br.com.cpqd.asr.protocol.ResponseMessage;
+import br.com.cpqd.asr.protocol.ResponseMessage.Result;
+import br.com.cpqd.asr.protocol.SessionStatus;
+import br.com.cpqd.asr.recognizer.OverflowPolicy;
+import br.com.cpqd.asr.recognizer.RecognitionException;
+import br.com.cpqd.asr.recognizer.SimpleRecognizerListener;
+import br.com.cpqd.asr.recognizer.model.RecognitionErrorCode;
+
+public class AsrClientEndpointTest {
+
+	private static final URI SERVER = URI.create("ws://localhost:8025/asr-server/asr");
+
+	/** The messages written in the websocket. */
+	private final List<Object> sent = Collections.synchronizedList(new ArrayList<>());
+
+	private AsrClientEndpoint endpoint;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		// conexao com uma sessao websocket em processo
+		AsrConnection connection = new AsrConnection(SERVER, null, null, 1, 1024, OverflowPolicy.BLOCK, null);
+		RemoteEndpoint.Async remote = stub(RemoteEndpoint.Async.class, (method, args) -> {
+			if (method.equals("sendObject") && args.length == 2) {
+				sent.add(args[0]);
+				((SendHandler) args[1]).onResult(new SendResult());
+			}
+			return null;
+		});
+		connection.onOpen(stub(Session.class, (method, args) -> {
+			if (method.equals("getAsyncRemote")) {
+				return remote;
+			} else if (method.equals("isOpen")) {
+				return true;
+			} else if (method.equals("getId")) {
+				return "stub";
+			}
+			return null;
+		}));
+
+		endpoint = new AsrClientEndpoint(SERVER, null, null);
+		endpoint.attach(connection);
+	}
+
+	@Test
+	public void interpretationsCompleteInOrder() throws Exception {
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> first = endpoint
+				.sendInterpretText(new InterpretText());
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> second = endpoint
+				.sendInterpretText(new InterpretText());
+		assertTrue(sent.size() == 2 && endpoint.getPendingInterpretations() == 2);
+
+		endpoint.onMessage(result("um"));
+		assertTrue(text(first).equals("um") && !second.isDone());
+		endpoint.onMessage(result("dois"));
+		assertTrue(text(second).equals("dois"));
+		assertTrue(endpoint.getPendingInterpretations() == 0);
+	}
+
+	@Test
+	public void errorResponseCompletesOldest() throws Exception {
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> first = endpoint
+				.sendInterpretText(new InterpretText());
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> second = endpoint
+				.sendInterpretText(new InterpretText());
+
+		ResponseMessage response = new ResponseMessage(AsrMessageType.INTERPRET_TEXT, Result.FAILURE, 1L,
+				SessionStatus.IDLE);
+		response.setMessage("Invalid grammar");
+		endpoint.onMessage(response);
+		assertTrue(errorCode(first) == RecognitionErrorCode.FAILURE);
+		assertTrue(!second.isDone());
+
+		endpoint.onMessage(result("dois"));
+		assertTrue(text(second).equals("dois"));
+	}
+
+	@Test
+	public void closeFailsPending() throws Exception {
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> pending = endpoint
+				.sendInterpretText(new InterpretText());
+		endpoint.close();
+		assertTrue(errorCode(pending) == RecognitionErrorCode.CONNECTION_FAILURE);
+		assertTrue(endpoint.getPendingInterpretations() == 0);
+	}
+
+	@Test
+	public void recognitionResultIsNotTakenByInterpretation() throws Exception {
+		List<String> received = Collections.synchronizedList(new ArrayList<>());
+		endpoint.getListeners().add(new SimpleRecognizerListener() {
+			@Override
+			public void onRecognitionResult(br.com.cpqd.asr.recognizer.model.RecognitionResult result) {
+				received.add(result.getAlternatives().get(0).getText());
+			}
+		});
+		CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> pending = endpoint
+				.sendInterpretText(new InterpretText());
+
+		endpoint.onMessage(new ResponseMessage(AsrMessageType.START_RECOGNITION, Result.SUCCESS, 1L,
+				SessionStatus.LISTENING));
+		endpoint.onMessage(result("audio"));
+		assertTrue(received.equals(Collections.singletonList("audio")));
+		assertTrue(!pending.isDone());
+
+		// fim do reconhecimento: o proximo resultado e da interpretacao
+		endpoint.onMessage(result("texto"));
+		assertTrue(text(pending).equals("texto") && received.size() == 1);
+	}
+
+	private static RecognitionResultMessage result(String text) {
+		RecognitionAlternative alternative = new RecognitionAlternative();
+		alternative.setText(text);
+		RecognitionResult result = new RecognitionResult();
+		result.setFinalResult(true);
+		result.setLastSegment(true);
+		result.setStartTime(0f);
+		result.setEndTime(1f);
+		result.setRecognitionStatus(RecognitionStatus.RECOGNIZED);
+		result.getAlternatives().add(alternative);
+		RecognitionResultMessage message = new RecognitionResultMessage();
+		message.setHandle(1L);
+		message.setSessionStatus(SessionStatus.IDLE);
+		message.setRecognitionStatus(RecognitionStatus.RECOGNIZED);
+		message.setRecognitionResult(result);
+		return message;
+	}
+
+	private static String text(CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> future)
+			throws Exception {
+		return future.get().getAlternatives().get(0).getText();
+	}
+
+	private static RecognitionErrorCode errorCode(
+			CompletableFuture<br.com.cpqd.asr.recognizer.model.RecognitionResult> future) throws Exception {
+		try {
+			future.get();
+			fail("Interpretation failed");
+			return null;
+		} catch (ExecutionException e) {
+			return ((RecognitionException) e.getCause()).getErrorCode();
+		}
+	}
+
+	/** Implements an interface with a handler of the method name and arguments. */
+	private interface Handler {
+		Object invoke(String method, Object[] args);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> type, Handler handler) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			Object value = handler.invoke(method.getName(), args != null ? args : new Object[0]);
+			if (value == null && method.getReturnType() == boolean.class) {
+				return false;
+			} else if (value == null && method.getReturnType().isPrimitive() && method.getReturnType() != void.class) {
+				return 0;
+			}
+			return value;
+		});
+	}
+}
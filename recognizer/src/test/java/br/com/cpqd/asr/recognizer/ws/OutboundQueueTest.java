@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright 2026 CPqD. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package br.com.cpqd.asr.recognizer.ws;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cpqd.asr.protocol.AsrMessage;
+import br.com.cpqd.asr.protocol.AsrMessage.AsrMessageType;
+import br.com.cpqd.asr.protocol.CancelRecognition;
+import br.com.cpqd.asr.protocol.SendAudio;
+import br.com.cpqd.asr.recognizer.OverflowPolicy;
+
+public class OutboundQueueTest {
+
+	/** Sender that completes the writes only when requested. */
+	private static class ManualSender implements OutboundQueue.Sender {
+
+		private final List<AsrMessage> sent = new ArrayList<>();
+
+		private SendHandler pending;
+
+		@Override
+		public void send(AsrMessage message, SendHandler handler) {
+			sent.add(message);
+			pending = handler;
+		}
+
+		void complete() {
+			SendHandler handler = pending;
+			pending = null;
+			handler.onResult(new SendResult());
+		}
+
+		void fail(Throwable error) {
+			SendHandler handler = pending;
+			pending = null;
+			handler.onResult(new SendResult(error));
+		}
+	}
+
+	private static SendAudio audio(int length) {
+		return audio(0, length);
+	}
+
+	private static SendAudio audio(long handle, int length) {
+		SendAudio message = new SendAudio();
+		message.setHandle(handle);
+		message.setContent(new byte[length]);
+		message.setContentLength(length);
+		return message;
+	}
+
+	@Test
+	public void controlBeforeAudio() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 10000, OverflowPolicy.FAIL);
+
+		queue.sendAudio(audio(100));
+		queue.sendAudio(audio(100));
+		queue.sendControl(new CancelRecognition());
+
+		sender.complete();
+		sender.complete();
+		sender.complete();
+
+		assertTrue(sender.sent.size() == 3);
+		assertTrue(sender.sent.get(1).getmType() == AsrMessageType.CANCEL_RECOGNITION);
+		assertTrue(queue.getAudioBytes() == 0);
+	}
+
+	@Test
+	public void audioIsCopied() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 10000, OverflowPolicy.FAIL);
+
+		byte[] buffer = new byte[] { 1, 2, 3, 4 };
+		SendAudio message = new SendAudio();
+		message.setContent(buffer);
+		message.setContentLength(2);
+		queue.sendAudio(message);
+		buffer[0] = 9;
+
+		assertTrue(sender.sent.get(0).getContent().length == 2);
+		assertTrue(sender.sent.get(0).getContent()[0] == 1);
+	}
+
+	@Test
+	public void failPolicy() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 250, OverflowPolicy.FAIL);
+
+		queue.sendAudio(audio(100)); // em envio
+		queue.sendAudio(audio(100));
+		queue.sendAudio(audio(100));
+		try {
+			queue.sendAudio(audio(100));
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertTrue(queue.getAudioBytes() == 200);
+		}
+	}
+
+	@Test
+	public void dropOldestPolicy() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 250, OverflowPolicy.DROP_OLDEST);
+
+		queue.sendAudio(audio(100)); // em envio
+		queue.sendAudio(audio(100));
+		queue.sendAudio(audio(100));
+		queue.sendAudio(audio(100));
+
+		assertTrue(queue.getDroppedPackets() == 1);
+		assertTrue(queue.getAudioBytes() == 200);
+	}
+
+	@Test
+	public void budgetPerSession() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 250, OverflowPolicy.DROP_OLDEST);
+
+		queue.sendAudio(audio(1, 100)); // em envio
+		queue.sendAudio(audio(1, 100));
+		queue.sendAudio(audio(1, 100));
+		queue.sendAudio(audio(2, 100));
+		queue.sendAudio(audio(2, 100));
+		queue.sendAudio(audio(1, 100));
+
+		assertTrue(queue.getDroppedPackets() == 1);
+		assertTrue(queue.getAudioBytes(1) == 200);
+		assertTrue(queue.getAudioBytes(2) == 200);
+
+		queue.discardAudio(1);
+		assertTrue(queue.getAudioBytes(1) == 0);
+		assertTrue(queue.getAudioBytes() == 200);
+	}
+
+	@Test
+	public void blockPolicy() throws Exception {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 150, OverflowPolicy.BLOCK);
+
+		queue.sendAudio(audio(100)); // em envio
+		queue.sendAudio(audio(100));
+
+		Thread producer = new Thread(() -> {
+			try {
+				queue.sendAudio(audio(100));
+			} catch (IOException e) {
+			}
+		});
+		producer.start();
+		producer.join(200);
+		assertTrue("Producer should be blocked", producer.isAlive());
+
+		sender.complete();
+		producer.join(2000);
+		assertTrue("Producer should be released", !producer.isAlive());
+		assertTrue(queue.getAudioBytes() == 100);
+	}
+
+	@Test
+	public void closeReleasesBlockedProducer() throws Exception {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 150, OverflowPolicy.BLOCK);
+
+		queue.sendAudio(audio(100));
+		queue.sendAudio(audio(100));
+
+		List<Exception> errors = new ArrayList<>();
+		Thread producer = new Thread(() -> {
+			try {
+				queue.sendAudio(audio(100));
+			} catch (IOException e) {
+				errors.add(e);
+			}
+		});
+		producer.start();
+		producer.join(200);
+		queue.close();
+		producer.join(2000);
+		assertTrue(!producer.isAlive());
+		assertTrue(errors.size() == 1);
+	}
+
+	@Test
+	public void interactiveBeforeBatch() throws IOException {
+		ManualSender sender = new ManualSender();
+		OutboundQueue queue = new OutboundQueue(sender, 10000, OverflowPolicy.FAIL);
+		queue.setBatch(2, true);
+
+		queue.sendAudio(audio(1, 100));
+		queue.sendAudio(audio(2, 100));
+		queue.sendAudio(audio(2, 100));
+		queue.sendAudio(audio(1, 100));
+
+		for (int i = 0; i < 4; i++) {
+			sender.complete();
+		}
+
+		assertTrue(sender.sent.size() == 4);
+		assertTrue(sender.sent.get(1).getHandle() == 1);
+		assertTrue(sender.sent.get(2).getHandle() == 2 && sender.sent.get(3).getHandle() == 2);
+	}
+
+	@Test
+	public void failedWriteClosesQueue() throws Exception {
+		ManualSender sender = new ManualSender();
+		List<Throwable> failures = new ArrayList<>();
+		OutboundQueue queue = new OutboundQueue(sender, 150, OverflowPolicy.BLOCK, failures::add);
+
+		queue.sendAudio(audio(100)); // em envio
+		queue.sendAudio(audio(100));
+
+		List<Exception> errors = new ArrayList<>();
+		Thread producer = new Thread(() -> {
+			try {
+				queue.sendAudio(audio(100));
+			} catch (IOException e) {
+				errors.add(e);
+			}
+		});
+		producer.start();
+		producer.join(200);
+
+		sender.fail(new IOException("Broken pipe"));
+		producer.join(2000);
+		assertTrue(!producer.isAlive());
+		assertTrue(errors.size() == 1);
+		assertTrue(queue.isClosed());
+		assertTrue(queue.getAudioBytes() == 0);
+		assertTrue(failures.size() == 1);
+		assertTrue(sender.sent.size() == 1);
+
+		try {
+			queue.sendControl(new CancelRecognition());
+			fail("IOException expected");
+		} catch (IOException e) {
+		}
+	}
+}